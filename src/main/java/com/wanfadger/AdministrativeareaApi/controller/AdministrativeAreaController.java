@@ -2,14 +2,29 @@ package com.wanfadger.AdministrativeareaApi.controller;
 
 import com.wanfadger.AdministrativeareaApi.dto.*;
 import com.wanfadger.AdministrativeareaApi.service.administrativearea.AdministrativeAreaService;
+import com.wanfadger.AdministrativeareaApi.service.administrativearea.ListResponseService;
+import com.wanfadger.AdministrativeareaApi.service.export.ExportService;
+import com.wanfadger.AdministrativeareaApi.service.upload.UploadFormat;
+import com.wanfadger.AdministrativeareaApi.service.upload.UploadJobService;
+import com.wanfadger.AdministrativeareaApi.shared.cache.AdministrativeAreaKeyGenerator;
 import com.wanfadger.AdministrativeareaApi.shared.reponses.AdministrativeAreaResponseDto;
+import com.wanfadger.AdministrativeareaApi.shared.reponses.RenderedResponse;
 import com.wanfadger.AdministrativeareaApi.shared.util.CacheKeys;
+import com.wanfadger.AdministrativeareaApi.shared.util.KeysetPage;
+import com.wanfadger.AdministrativeareaApi.shared.web.DatasetVersionInterceptor;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -20,64 +35,129 @@ import java.util.Map;
 public class AdministrativeAreaController {
 
     private final AdministrativeAreaService administrativeAreaService;
+    private final ListResponseService listResponseService;
+    private final ExportService exportService;
+    private final UploadJobService uploadJobService;
 
     @PostMapping("/one")
-    @CacheEvict(value = {CacheKeys.ADMINISTRATIVE_AREAS , CacheKeys.ADMINISTRATIVE_AREAS_FILTER}, allEntries = true)
     public ResponseEntity<AdministrativeAreaResponseDto<String>> newOne(@RequestParam Map<String, String> queryMap, @RequestBody NewAdministrativeAreaDto dto) {
         return administrativeAreaService.newOne(queryMap, dto);
     }
 
     @PostMapping("/list")
-    @CacheEvict(value = {CacheKeys.ADMINISTRATIVE_AREAS , CacheKeys.ADMINISTRATIVE_AREAS_FILTER}, allEntries = true)
     public ResponseEntity<AdministrativeAreaResponseDto<String>> newList(@RequestParam Map<String, String> queryMap, @RequestBody List<NewAdministrativeAreaDto> dtos) {
         return administrativeAreaService.newList(queryMap, dtos);
     }
 
-    @PostMapping("/upload")
-    @CacheEvict(value = {CacheKeys.ADMINISTRATIVE_AREAS , CacheKeys.ADMINISTRATIVE_AREAS_FILTER}, allEntries = true)
-    public AdministrativeAreaResponseDto<String> upload(@RequestBody List<AdministrativeAreaExcelDto> administrativeAreaExcelDtos) {
-        return administrativeAreaService.upload(administrativeAreaExcelDtos);
+    // the body is streamed to disk, not bound, a JSON array, a CSV or an XLSX sheet of AdministrativeAreaExcelDto rows
+    @PostMapping(value = "/upload", consumes = {MediaType.APPLICATION_JSON_VALUE, "text/csv", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"})
+    public ResponseEntity<AdministrativeAreaResponseDto<UploadJobDto>> upload(HttpServletRequest request) throws IOException {
+        return uploadJobService.submit(request.getInputStream(), UploadFormat.of(MediaType.parseMediaType(request.getContentType())));
+    }
+
+    // the same as a multipart form, file=<the .xlsx (or .csv / .json) file>
+    @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<AdministrativeAreaResponseDto<UploadJobDto>> uploadFile(@RequestPart("file") MultipartFile file) throws IOException {
+        try (InputStream body = file.getInputStream()) {
+            return uploadJobService.submit(body, UploadFormat.of(file.getOriginalFilename(), file.getContentType()));
+        }
+    }
+
+    @GetMapping("/upload/{id}")
+    public AdministrativeAreaResponseDto<UploadJobDto> uploadStatus(@PathVariable String id) {
+        return uploadJobService.status(id);
     }
 
 
     @PutMapping("/one")
-    @CacheEvict(value = {CacheKeys.ADMINISTRATIVE_AREAS , CacheKeys.ADMINISTRATIVE_AREAS_FILTER}, allEntries = true)
     public AdministrativeAreaResponseDto<String> updateOne(@RequestParam Map<String, String> queryMap, @RequestBody UpdateAdministrativeAreaDto dto) {
         return administrativeAreaService.updateOne(queryMap, dto);
     }
 
 
     @GetMapping("/filterOne")
-    @Cacheable(value = CacheKeys.ADMINISTRATIVE_AREAS_FILTER, key = "#queryMap")
+    @Cacheable(value = CacheKeys.ADMINISTRATIVE_AREAS_FILTER, keyGenerator = AdministrativeAreaKeyGenerator.NAME, sync = true)
     public AdministrativeAreaResponseDto<CodeNameDto> filterOne(@RequestParam Map<String, String> queryMap) {
         return administrativeAreaService.filterOne(queryMap);
     }
 
 
     @GetMapping("/filterList")
-    @Cacheable(value = CacheKeys.ADMINISTRATIVE_AREAS_FILTER, key = "#queryMap" , cacheManager = "weekCacheManager")
-    public AdministrativeAreaResponseDto<List<CodeNameDto>> filterList(@RequestParam Map<String, String> queryMap ) {
-        return administrativeAreaService.filterList(queryMap);
+    public ResponseEntity<?> filterList(@RequestParam Map<String, String> queryMap, HttpServletRequest request, HttpServletResponse response) {
+        // pages are cheap keyset reads and would multiply the cached entries, they are not cached
+        if (KeysetPage.isRequested(queryMap)) {
+            return ResponseEntity.ok(administrativeAreaService.filterList(queryMap));
+        }
+        if (listResponseService.isRendered()) {
+            return rendered(listResponseService.filterListJson(queryMap), request, response);
+        }
+        return ResponseEntity.ok(listResponseService.filterList(queryMap));
     }
 
     @GetMapping("/parishListByPartOf")
-    @Cacheable(value = CacheKeys.ADMINISTRATIVE_AREAS, key = "#queryMap", cacheManager = "weekCacheManager")
-    public AdministrativeAreaResponseDto<List<CodeNameDto>> getParishByPartOf(@RequestParam Map<String, String> queryMap) {
-        return administrativeAreaService.getParishByPartOf(queryMap);
+    public ResponseEntity<?> getParishByPartOf(@RequestParam Map<String, String> queryMap, HttpServletRequest request, HttpServletResponse response) {
+        if (listResponseService.isRendered()) {
+            return rendered(listResponseService.getParishByPartOfJson(queryMap), request, response);
+        }
+        return ResponseEntity.ok(listResponseService.getParishByPartOf(queryMap));
     }
 
 
     @GetMapping("/searchList")
-    @Cacheable(value = CacheKeys.ADMINISTRATIVE_AREAS, key = "#queryMap")
-    public AdministrativeAreaResponseDto<List<? extends AdministrativeAreaDto>> searchList(@RequestParam Map<String, String> queryMap) {
-        return administrativeAreaService.searchList(queryMap);
+    public ResponseEntity<?> searchList(@RequestParam Map<String, String> queryMap, HttpServletRequest request, HttpServletResponse response) {
+        if (KeysetPage.isRequested(queryMap)) {
+            return ResponseEntity.ok(administrativeAreaService.searchList(queryMap));
+        }
+        if (listResponseService.isRendered()) {
+            return rendered(listResponseService.searchListJson(queryMap), request, response);
+        }
+        return ResponseEntity.ok(listResponseService.searchList(queryMap));
     }
 
     @GetMapping("/searchOne")
-    @Cacheable(value = CacheKeys.ADMINISTRATIVE_AREAS , key = "#queryMap" )
+    @Cacheable(value = CacheKeys.ADMINISTRATIVE_AREAS , keyGenerator = AdministrativeAreaKeyGenerator.NAME, sync = true)
     public AdministrativeAreaResponseDto<? extends AdministrativeAreaDto> searchOne(@RequestParam Map<String, String> queryMap) {
         return administrativeAreaService.searchOne(queryMap);
     }
 
+    // the whole hierarchy, one area per line with the codes of its ancestors
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(exportService::export);
+    }
+
+    // already serialized, the byte array converter copies it to the response as is
+    private ResponseEntity<byte[]> rendered(RenderedResponse renderedResponse, HttpServletRequest request, HttpServletResponse response) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (renderedResponse.getGzipBody() == null || !acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return builder.body(renderedResponse.getBody());
+        }
+
+        builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        // replaces the ETag the interceptor set, one added to the entity would be sent next to it
+        if (request.getAttribute(DatasetVersionInterceptor.VERSION_ATTRIBUTE) instanceof Long version) {
+            response.setHeader(HttpHeaders.ETAG, DatasetVersionInterceptor.gzipEtag(version));
+        }
+        return builder.body(renderedResponse.getGzipBody());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String encoding : acceptEncoding.split(",")) {
+            String[] parts = encoding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
 
 }
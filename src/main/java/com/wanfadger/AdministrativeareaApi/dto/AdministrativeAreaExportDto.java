@@ -0,0 +1,67 @@
+package com.wanfadger.AdministrativeareaApi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.wanfadger.AdministrativeareaApi.entity.AdministrativeAreaType;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ * One line of the NDJSON export, an area with the codes of all its ancestors.
+ * The constructors are used by the export queries, one per depth of the hierarchy.
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"type", "code", "name", "latitude", "longitude", "region", "subRegion", "localGovernment", "county", "subCounty"})
+public class AdministrativeAreaExportDto {
+    private AdministrativeAreaType type;
+    private String code;
+    private String name;
+    private Double latitude;
+    private Double longitude;
+
+    private String region;
+    private String subRegion;
+    private String localGovernment;
+    private String county;
+    private String subCounty;
+
+    public AdministrativeAreaExportDto(String code, String name, Double latitude, Double longitude) {
+        this.type = AdministrativeAreaType.REGION;
+        this.code = code;
+        this.name = name;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public AdministrativeAreaExportDto(String code, String name, Double latitude, Double longitude, String region) {
+        this(code, name, latitude, longitude);
+        this.type = AdministrativeAreaType.SUBREGION;
+        this.region = region;
+    }
+
+    public AdministrativeAreaExportDto(String code, String name, Double latitude, Double longitude, String region, String subRegion) {
+        this(code, name, latitude, longitude, region);
+        this.type = AdministrativeAreaType.LOCALGOVERNMENT;
+        this.subRegion = subRegion;
+    }
+
+    public AdministrativeAreaExportDto(String code, String name, Double latitude, Double longitude, String region, String subRegion, String localGovernment) {
+        this(code, name, latitude, longitude, region, subRegion);
+        this.type = AdministrativeAreaType.COUNTY;
+        this.localGovernment = localGovernment;
+    }
+
+    public AdministrativeAreaExportDto(String code, String name, Double latitude, Double longitude, String region, String subRegion, String localGovernment, String county) {
+        this(code, name, latitude, longitude, region, subRegion, localGovernment);
+        this.type = AdministrativeAreaType.SUBCOUNTY;
+        this.county = county;
+    }
+
+    public AdministrativeAreaExportDto(String code, String name, Double latitude, Double longitude, String region, String subRegion, String localGovernment, String county, String subCounty) {
+        this(code, name, latitude, longitude, region, subRegion, localGovernment, county);
+        this.type = AdministrativeAreaType.PARISH;
+        this.subCounty = subCounty;
+    }
+}
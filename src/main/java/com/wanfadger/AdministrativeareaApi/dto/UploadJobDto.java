@@ -0,0 +1,47 @@
+package com.wanfadger.AdministrativeareaApi.dto;
+
+import com.wanfadger.AdministrativeareaApi.entity.AdministrativeAreaType;
+import com.wanfadger.AdministrativeareaApi.entity.UploadJob;
+import com.wanfadger.AdministrativeareaApi.entity.UploadJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class UploadJobDto implements Serializable {
+    private String id;
+    private UploadJobStatus status;
+    private int processedRows;
+    private int processedChunks;
+    // areas created so far, per level
+    private Map<AdministrativeAreaType, Integer> created;
+    private String error;
+    private LocalDateTime createdDateTime;
+    private LocalDateTime finishedDateTime;
+
+    public UploadJobDto(UploadJob job) {
+        this.id = job.getId();
+        this.status = job.getStatus();
+        this.processedRows = job.getProcessedRows();
+        this.processedChunks = job.getProcessedChunks();
+        this.created = new LinkedHashMap<>();
+        this.created.put(AdministrativeAreaType.REGION, job.getCreatedRegions());
+        this.created.put(AdministrativeAreaType.SUBREGION, job.getCreatedSubRegions());
+        this.created.put(AdministrativeAreaType.LOCALGOVERNMENT, job.getCreatedLocalGovernments());
+        this.created.put(AdministrativeAreaType.COUNTY, job.getCreatedCounties());
+        this.created.put(AdministrativeAreaType.SUBCOUNTY, job.getCreatedSubCounties());
+        this.created.put(AdministrativeAreaType.PARISH, job.getCreatedParishes());
+        this.error = job.getError();
+        this.createdDateTime = job.getCreatedDateTime();
+        this.finishedDateTime = job.getFinishedDateTime();
+    }
+}
@@ -1,6 +0,0 @@
-package com.wanfadger.AdministrativeareaApi.dto.uniqueDtos;
-
-import com.wanfadger.AdministrativeareaApi.entity.LocalGovernment;
-
-public record UCounty(String name , LocalGovernment localGovernment) {
-}
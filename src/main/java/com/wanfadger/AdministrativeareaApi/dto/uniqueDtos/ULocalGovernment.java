@@ -1,6 +0,0 @@
-package com.wanfadger.AdministrativeareaApi.dto.uniqueDtos;
-
-import com.wanfadger.AdministrativeareaApi.entity.SubRegion;
-
-public record ULocalGovernment(String name , SubRegion subRegion) {
-}
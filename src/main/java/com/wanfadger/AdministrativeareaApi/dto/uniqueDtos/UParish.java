@@ -1,7 +0,0 @@
-package com.wanfadger.AdministrativeareaApi.dto.uniqueDtos;
-
-
-import com.wanfadger.AdministrativeareaApi.entity.SubCounty;
-
-public record UParish(String name , SubCounty subCounty) {
-}
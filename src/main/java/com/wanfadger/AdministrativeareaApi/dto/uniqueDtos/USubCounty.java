@@ -1,6 +0,0 @@
-package com.wanfadger.AdministrativeareaApi.dto.uniqueDtos;
-
-import com.wanfadger.AdministrativeareaApi.entity.County;
-
-public record USubCounty(String name , County county) {
-}
@@ -1,6 +0,0 @@
-package com.wanfadger.AdministrativeareaApi.dto.uniqueDtos;
-
-import com.wanfadger.AdministrativeareaApi.entity.Region;
-
-public record USubRegion(String name , Region region) {
-}
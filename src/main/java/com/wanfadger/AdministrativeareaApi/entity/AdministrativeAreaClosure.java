@@ -0,0 +1,37 @@
+package com.wanfadger.AdministrativeareaApi.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/*
+ * Ancestor -> descendant pairs of the whole hierarchy, every area is also paired with itself at depth 0.
+ * Maintained by ClosureService, all areas of any level below an area are one indexed lookup.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@IdClass(AdministrativeAreaClosureId.class)
+public class AdministrativeAreaClosure {
+
+    @Id
+    private String ancestorCode;
+
+    @Id
+    private String descendantCode;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AdministrativeAreaType ancestorType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AdministrativeAreaType descendantType;
+
+    @Column(nullable = false)
+    private int depth;
+}
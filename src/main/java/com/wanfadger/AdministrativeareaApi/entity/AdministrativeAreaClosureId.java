@@ -0,0 +1,19 @@
+package com.wanfadger.AdministrativeareaApi.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor
+public class AdministrativeAreaClosureId implements Serializable {
+    private String ancestorCode;
+    private String descendantCode;
+}
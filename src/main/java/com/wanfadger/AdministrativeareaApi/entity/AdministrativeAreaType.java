@@ -7,23 +7,39 @@ import java.util.Optional;
 
 @Getter
 public enum AdministrativeAreaType {
-    REGION("REGION") ,//REGION
-    SUBREGION("SUB REGION"),//SUB-REGION
-    LOCALGOVERNMENT("LOCAL GOVERNMENT"), //DISTRICT/LOCAL GOVERNMENT ,
-    COUNTY("COUNTY"), //COUNTY/CONSTITUENCY/MUNICIPALITY
-    SUBCOUNTY("SUB COUNTY"), //SUB COUNTY/TOWN COUNCIL/DIVISION
-    PARISH("PARISH") //PARISH/WARD
+    REGION("REGION", "Region", null) ,//REGION
+    SUBREGION("SUB REGION", "SubRegion", "region_id"),//SUB-REGION
+    LOCALGOVERNMENT("LOCAL GOVERNMENT", "LocalGovernment", "subRegion_id"), //DISTRICT/LOCAL GOVERNMENT ,
+    COUNTY("COUNTY", "County", "localGovernment_id"), //COUNTY/CONSTITUENCY/MUNICIPALITY
+    SUBCOUNTY("SUB COUNTY", "SubCounty", "county_id"), //SUB COUNTY/TOWN COUNCIL/DIVISION
+    PARISH("PARISH", "Parish", "subCounty_id") //PARISH/WARD
     ;
 
     private final String administrativeAreaType;
 
-    AdministrativeAreaType(String administrativeAreaType) {
+    // physical table of the level and its foreign key column to the parent level, for native SQL
+    private final String table;
+    private final String parentColumn;
+
+    AdministrativeAreaType(String administrativeAreaType, String table, String parentColumn) {
         this.administrativeAreaType = administrativeAreaType;
+        this.table = table;
+        this.parentColumn = parentColumn;
     }
 
     public static Optional<AdministrativeAreaType> administrativeAreaTypeStr(String administrativeAreaTypeStr) {
         return Arrays.stream(AdministrativeAreaType.values()).filter(administrativeAreaType1 -> administrativeAreaType1.administrativeAreaType.equalsIgnoreCase(administrativeAreaTypeStr)).findFirst();
     }
 
+    // the level directly above this one, empty for REGION
+    public Optional<AdministrativeAreaType> parent() {
+        return ordinal() == 0 ? Optional.empty() : Optional.of(values()[ordinal() - 1]);
+    }
+
+    // the level directly below this one, empty for PARISH
+    public Optional<AdministrativeAreaType> child() {
+        return ordinal() == values().length - 1 ? Optional.empty() : Optional.of(values()[ordinal() + 1]);
+    }
+
 
 }
@@ -0,0 +1,59 @@
+package com.wanfadger.AdministrativeareaApi.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.LocalDateTime;
+
+/*
+ * An Excel upload running in the background. The file is imported in chunks, after each one the rows read so far
+ * and the areas created per level are recorded so clients can poll the progress.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+public class UploadJob {
+    @Id
+    @UuidGenerator
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private UploadJobStatus status;
+
+    private int processedRows;
+    private int processedChunks;
+
+    private int createdRegions;
+    private int createdSubRegions;
+    private int createdLocalGovernments;
+    private int createdCounties;
+    private int createdSubCounties;
+    private int createdParishes;
+
+    @Column(length = 2000)
+    private String error;
+
+    // the instance that queued the job, it renews the lease until the job is finished
+    private String owner;
+    private LocalDateTime leaseExpiresAt;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdDateTime;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedDateTime;
+
+    private LocalDateTime finishedDateTime;
+
+    public UploadJob(UploadJobStatus status) {
+        this.status = status;
+    }
+}
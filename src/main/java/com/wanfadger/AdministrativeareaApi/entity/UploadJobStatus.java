@@ -0,0 +1,8 @@
+package com.wanfadger.AdministrativeareaApi.entity;
+
+public enum UploadJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,22 @@
+package com.wanfadger.AdministrativeareaApi.repository;
+
+import com.wanfadger.AdministrativeareaApi.dto.CodeNameDto;
+import com.wanfadger.AdministrativeareaApi.entity.AdministrativeAreaClosure;
+import com.wanfadger.AdministrativeareaApi.entity.AdministrativeAreaClosureId;
+import com.wanfadger.AdministrativeareaApi.entity.AdministrativeAreaType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AdministrativeAreaClosureRepository extends JpaRepository<AdministrativeAreaClosure, AdministrativeAreaClosureId> {
+
+    @Query("SELECT new com.wanfadger.AdministrativeareaApi.dto.CodeNameDto(P.code, P.name) FROM AdministrativeAreaClosure AC JOIN Parish P ON P.code = AC.descendantCode " +
+            "WHERE upper(AC.ancestorCode) = upper(:ancestorCode) AND AC.ancestorType = :ancestorType AND AC.descendantType = com.wanfadger.AdministrativeareaApi.entity.AdministrativeAreaType.PARISH ORDER BY P.code")
+    List<CodeNameDto> findParishes(AdministrativeAreaType ancestorType, String ancestorCode);
+
+    long countByDepth(int depth);
+
+}
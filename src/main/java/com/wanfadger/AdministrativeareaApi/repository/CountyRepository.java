@@ -1,14 +1,23 @@
 package com.wanfadger.AdministrativeareaApi.repository;
 
+import com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaExportDto;
+import com.wanfadger.AdministrativeareaApi.dto.CodeNameDto;
 import com.wanfadger.AdministrativeareaApi.entity.County;
+import jakarta.persistence.QueryHint;
 import lombok.NonNull;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 
 @Repository
@@ -26,14 +35,45 @@ public interface CountyRepository extends JpaRepository<County, String> {
 
     List<County> findAllByCodeIgnoreCase(@NonNull String code);
 
-    Optional<County> findByNameIgnoreCaseAndLocalGovernment_Code(String name , String localGovernmentCode);
+    Optional<County> findByNameIgnoreCaseAndLocalGovernment_CodeIgnoreCase(String name , String localGovernmentCode);
 
     @EntityGraph(attributePaths = {"localGovernment.subRegion.region"} , type = EntityGraph.EntityGraphType.FETCH)
-    List<County> findAllByLocalGovernment_Code(String localGovernmentCode);
+    List<County> findAllByLocalGovernment_CodeIgnoreCase(String localGovernmentCode);
 
-    @Query("SELECT C FROM County C WHERE C.localGovernment.code IN :codes")
+    // codes upper case
+    @EntityGraph(attributePaths = {"localGovernment.subRegion.region"} , type = EntityGraph.EntityGraphType.FETCH)
+    @Query("SELECT C FROM County C WHERE upper(C.localGovernment.code) IN :codes")
     List<County> findAllByLocalGovernmentCodes(List<String> codes);
 
+    // keyset pages, served from the unique index on code
+    @EntityGraph(attributePaths = {"localGovernment.subRegion.region"} , type = EntityGraph.EntityGraphType.FETCH)
+    List<County> findAllByCodeGreaterThanOrderByCodeAsc(String after, Limit limit);
+
+    @EntityGraph(attributePaths = {"localGovernment.subRegion.region"} , type = EntityGraph.EntityGraphType.FETCH)
+    List<County> findAllByLocalGovernment_CodeIgnoreCaseAndCodeGreaterThanOrderByCodeAsc(String localGovernmentCode, String after, Limit limit);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT new com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaExportDto(C.code, C.name, C.latitude, C.longitude, R.code, SR.code, L.code) FROM County C JOIN C.localGovernment L JOIN L.subRegion SR JOIN SR.region R ORDER BY C.code")
+    Stream<AdministrativeAreaExportDto> streamExport();
+
+    @Query("SELECT new com.wanfadger.AdministrativeareaApi.dto.CodeNameDto(C.code, C.name) FROM County C WHERE upper(C.code) = upper(:code)")
+    Optional<CodeNameDto> findCodeNameByCode(String code);
+
+    @Query("SELECT new com.wanfadger.AdministrativeareaApi.dto.CodeNameDto(C.code, C.name) FROM County C WHERE upper(C.localGovernment.code) = upper(:localGovernmentCode) ORDER BY C.code")
+    List<CodeNameDto> findCodeNamesByLocalGovernmentCode(String localGovernmentCode);
+
+    @Query("SELECT new com.wanfadger.AdministrativeareaApi.dto.CodeNameDto(C.code, C.name) FROM County C WHERE upper(C.localGovernment.code) = upper(:localGovernmentCode) AND C.code > :after ORDER BY C.code")
+    List<CodeNameDto> findCodeNamesByLocalGovernmentCodeAfter(String localGovernmentCode, String after, Limit limit);
+
+    @Query("SELECT MAX(C.updatedDateTime) FROM County C")
+    Optional<LocalDateTime> findLastUpdatedDateTime();
+
+    // newList: "localGovernment id/NAME" of the given (upper case) names that already exist below the given local governments
+    @Query("SELECT concat(C.localGovernment.id, '/', upper(C.name)) FROM County C WHERE C.localGovernment.id IN :localGovernmentIds AND upper(C.name) IN :names")
+    List<String> findParentNameKeysIn(Collection<String> localGovernmentIds, Collection<String> names);
 
+    // newList: the parents of a request in one query, codes upper case
+    @Query("SELECT C FROM County C WHERE upper(C.code) IN :codes")
+    List<County> findAllByUpperCodeIn(Collection<String> codes);
 
 }
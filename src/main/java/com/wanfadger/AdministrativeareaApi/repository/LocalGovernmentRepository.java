@@ -1,14 +1,23 @@
 package com.wanfadger.AdministrativeareaApi.repository;
 
 
+import com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaExportDto;
+import com.wanfadger.AdministrativeareaApi.dto.CodeNameDto;
 import com.wanfadger.AdministrativeareaApi.entity.LocalGovernment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 
 @Repository
@@ -20,17 +29,48 @@ public interface LocalGovernmentRepository extends JpaRepository<LocalGovernment
 
 
     @EntityGraph(attributePaths = {"subRegion.region"} , type = EntityGraph.EntityGraphType.FETCH)
-    List<LocalGovernment> findAllBySubRegion_Code(String regionCode);
-    @Query("SELECT L FROM LocalGovernment L WHERE L.subRegion.code IN :subRegionCodes")
+    List<LocalGovernment> findAllBySubRegion_CodeIgnoreCase(String regionCode);
+    // codes upper case
+    @EntityGraph(attributePaths = {"subRegion.region"} , type = EntityGraph.EntityGraphType.FETCH)
+    @Query("SELECT L FROM LocalGovernment L WHERE upper(L.subRegion.code) IN :subRegionCodes")
     List<LocalGovernment> findAllBySubRegionCodes(List<String> subRegionCodes);
 
-    Optional<LocalGovernment> findByNameIgnoreCaseAndSubRegion_Code (String name , String code);
+    Optional<LocalGovernment> findByNameIgnoreCaseAndSubRegion_CodeIgnoreCase (String name , String code);
 
 
 
+    @EntityGraph(attributePaths = {"subRegion.region"} , type = EntityGraph.EntityGraphType.FETCH)
     Optional<LocalGovernment> findByCodeIgnoreCase(String code);
 
+    // keyset pages, served from the unique index on code
+    @EntityGraph(attributePaths = {"subRegion.region"} , type = EntityGraph.EntityGraphType.FETCH)
+    List<LocalGovernment> findAllByCodeGreaterThanOrderByCodeAsc(String after, Limit limit);
+
+    @EntityGraph(attributePaths = {"subRegion.region"} , type = EntityGraph.EntityGraphType.FETCH)
+    List<LocalGovernment> findAllBySubRegion_CodeIgnoreCaseAndCodeGreaterThanOrderByCodeAsc(String subRegionCode, String after, Limit limit);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT new com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaExportDto(L.code, L.name, L.latitude, L.longitude, R.code, SR.code) FROM LocalGovernment L JOIN L.subRegion SR JOIN SR.region R ORDER BY L.code")
+    Stream<AdministrativeAreaExportDto> streamExport();
+
+    @Query("SELECT new com.wanfadger.AdministrativeareaApi.dto.CodeNameDto(L.code, L.name) FROM LocalGovernment L WHERE upper(L.code) = upper(:code)")
+    Optional<CodeNameDto> findCodeNameByCode(String code);
+
+    @Query("SELECT new com.wanfadger.AdministrativeareaApi.dto.CodeNameDto(L.code, L.name) FROM LocalGovernment L WHERE upper(L.subRegion.code) = upper(:subRegionCode) ORDER BY L.code")
+    List<CodeNameDto> findCodeNamesBySubRegionCode(String subRegionCode);
+
+    @Query("SELECT new com.wanfadger.AdministrativeareaApi.dto.CodeNameDto(L.code, L.name) FROM LocalGovernment L WHERE upper(L.subRegion.code) = upper(:subRegionCode) AND L.code > :after ORDER BY L.code")
+    List<CodeNameDto> findCodeNamesBySubRegionCodeAfter(String subRegionCode, String after, Limit limit);
+
+    @Query("SELECT MAX(L.updatedDateTime) FROM LocalGovernment L")
+    Optional<LocalDateTime> findLastUpdatedDateTime();
 
+    // newList: which of the (upper case) names are taken, names are unique across the whole level
+    @Query("SELECT upper(LG.name) FROM LocalGovernment LG WHERE upper(LG.name) IN :names")
+    List<String> findUpperNamesIn(Collection<String> names);
 
+    // newList: the parents of a request in one query, codes upper case
+    @Query("SELECT LG FROM LocalGovernment LG WHERE upper(LG.code) IN :codes")
+    List<LocalGovernment> findAllByUpperCodeIn(Collection<String> codes);
 
 }
@@ -1,14 +1,23 @@
 package com.wanfadger.AdministrativeareaApi.repository;
 
 
+import com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaExportDto;
+import com.wanfadger.AdministrativeareaApi.dto.CodeNameDto;
 import com.wanfadger.AdministrativeareaApi.entity.Parish;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ParishRepository extends JpaRepository<Parish, String> {
@@ -21,14 +30,44 @@ public interface ParishRepository extends JpaRepository<Parish, String> {
     @EntityGraph(attributePaths = {"subCounty.county.localGovernment.subRegion.region"} , type = EntityGraph.EntityGraphType.FETCH)
     Optional<Parish> findById(String id);
 
-    Optional<Parish> findByNameIgnoreCaseAndSubCounty_Code(String name , String countyCode);
+    Optional<Parish> findByNameIgnoreCaseAndSubCounty_CodeIgnoreCase(String name , String countyCode);
 
-    List<Parish> findAllBySubCounty_Code(String subCountyCode);
+    @EntityGraph(attributePaths = {"subCounty.county.localGovernment.subRegion.region"} , type = EntityGraph.EntityGraphType.FETCH)
+    List<Parish> findAllBySubCounty_CodeIgnoreCase(String subCountyCode);
 
-    @Query("SELECT P FROM Parish P WHERE P.subCounty.code IN :subCountyCodes")
+    // codes upper case
+    @EntityGraph(attributePaths = {"subCounty.county.localGovernment.subRegion.region"} , type = EntityGraph.EntityGraphType.FETCH)
+    @Query("SELECT P FROM Parish P WHERE upper(P.subCounty.code) IN :subCountyCodes")
     List<Parish> findAllBySubCountyCodes(List<String> subCountyCodes);
 
+    @EntityGraph(attributePaths = {"subCounty.county.localGovernment.subRegion.region"} , type = EntityGraph.EntityGraphType.FETCH)
     Optional<Parish> findByCodeIgnoreCase(String code);
 
+    // keyset pages, served from the unique index on code
+    @EntityGraph(attributePaths = {"subCounty.county.localGovernment.subRegion.region"} , type = EntityGraph.EntityGraphType.FETCH)
+    List<Parish> findAllByCodeGreaterThanOrderByCodeAsc(String after, Limit limit);
+
+    @EntityGraph(attributePaths = {"subCounty.county.localGovernment.subRegion.region"} , type = EntityGraph.EntityGraphType.FETCH)
+    List<Parish> findAllBySubCounty_CodeIgnoreCaseAndCodeGreaterThanOrderByCodeAsc(String subCountyCode, String after, Limit limit);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT new com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaExportDto(P.code, P.name, P.latitude, P.longitude, R.code, SR.code, L.code, C.code, SC.code) FROM Parish P JOIN P.subCounty SC JOIN SC.county C JOIN C.localGovernment L JOIN L.subRegion SR JOIN SR.region R ORDER BY P.code")
+    Stream<AdministrativeAreaExportDto> streamExport();
+
+    @Query("SELECT new com.wanfadger.AdministrativeareaApi.dto.CodeNameDto(P.code, P.name) FROM Parish P WHERE upper(P.code) = upper(:code)")
+    Optional<CodeNameDto> findCodeNameByCode(String code);
+
+    @Query("SELECT new com.wanfadger.AdministrativeareaApi.dto.CodeNameDto(P.code, P.name) FROM Parish P WHERE upper(P.subCounty.code) = upper(:subCountyCode) ORDER BY P.code")
+    List<CodeNameDto> findCodeNamesBySubCountyCode(String subCountyCode);
+
+    @Query("SELECT new com.wanfadger.AdministrativeareaApi.dto.CodeNameDto(P.code, P.name) FROM Parish P WHERE upper(P.subCounty.code) = upper(:subCountyCode) AND P.code > :after ORDER BY P.code")
+    List<CodeNameDto> findCodeNamesBySubCountyCodeAfter(String subCountyCode, String after, Limit limit);
+
+    @Query("SELECT MAX(P.updatedDateTime) FROM Parish P")
+    Optional<LocalDateTime> findLastUpdatedDateTime();
+
+    // newList: "subCounty id/NAME" of the given (upper case) names that already exist below the given sub counties
+    @Query("SELECT concat(P.subCounty.id, '/', upper(P.name)) FROM Parish P WHERE P.subCounty.id IN :subCountyIds AND upper(P.name) IN :names")
+    List<String> findParentNameKeysIn(Collection<String> subCountyIds, Collection<String> names);
 
 }
@@ -1,10 +1,21 @@
 package com.wanfadger.AdministrativeareaApi.repository;
 
+import com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaExportDto;
+import com.wanfadger.AdministrativeareaApi.dto.CodeNameDto;
 import com.wanfadger.AdministrativeareaApi.entity.Region;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 
 @Repository
@@ -13,4 +24,33 @@ public interface RegionRepository extends JpaRepository<Region, String> {
     Optional<Region> findByNameIgnoreCase(String name);
     Optional<Region> findByCodeIgnoreCase(String code);
 
+    // keyset pages, served from the unique index on code
+    List<Region> findAllByCodeGreaterThanOrderByCodeAsc(String after, Limit limit);
+
+    // scalar rows read through a cursor, nothing is kept in the persistence context
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT new com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaExportDto(R.code, R.name, R.latitude, R.longitude) FROM Region R ORDER BY R.code")
+    Stream<AdministrativeAreaExportDto> streamExport();
+
+    // code and name only, no entity is loaded for the filter endpoints
+    @Query("SELECT new com.wanfadger.AdministrativeareaApi.dto.CodeNameDto(R.code, R.name) FROM Region R WHERE upper(R.code) = upper(:code)")
+    Optional<CodeNameDto> findCodeNameByCode(String code);
+
+    @Query("SELECT new com.wanfadger.AdministrativeareaApi.dto.CodeNameDto(R.code, R.name) FROM Region R ORDER BY R.code")
+    List<CodeNameDto> findCodeNames();
+
+    @Query("SELECT new com.wanfadger.AdministrativeareaApi.dto.CodeNameDto(R.code, R.name) FROM Region R WHERE R.code > :after ORDER BY R.code")
+    List<CodeNameDto> findCodeNamesAfter(String after, Limit limit);
+
+    @Query("SELECT MAX(R.updatedDateTime) FROM Region R")
+    Optional<LocalDateTime> findLastUpdatedDateTime();
+
+    // newList: which of the (upper case) names are taken, names are unique across the whole level
+    @Query("SELECT upper(R.name) FROM Region R WHERE upper(R.name) IN :names")
+    List<String> findUpperNamesIn(Collection<String> names);
+
+    // newList: the parents of a request in one query, codes upper case
+    @Query("SELECT R FROM Region R WHERE upper(R.code) IN :codes")
+    List<Region> findAllByUpperCodeIn(Collection<String> codes);
+
 }
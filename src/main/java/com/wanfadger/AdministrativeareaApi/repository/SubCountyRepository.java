@@ -1,14 +1,23 @@
 package com.wanfadger.AdministrativeareaApi.repository;
 
 
+import com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaExportDto;
+import com.wanfadger.AdministrativeareaApi.dto.CodeNameDto;
 import com.wanfadger.AdministrativeareaApi.entity.SubCounty;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SubCountyRepository extends JpaRepository<SubCounty, String> {
@@ -24,13 +33,45 @@ public interface SubCountyRepository extends JpaRepository<SubCounty, String> {
     Optional<SubCounty> findByNameIgnoreCaseAndCounty_Id(String name , String countyId);
 
     @EntityGraph(attributePaths = {"county.localGovernment.subRegion.region"} , type = EntityGraph.EntityGraphType.FETCH)
-    List<SubCounty> findAllByCounty_Code(String countyCode);
+    List<SubCounty> findAllByCounty_CodeIgnoreCase(String countyCode);
 
-    @Query("SELECT SC FROM SubCounty SC WHERE SC.county.code IN :countyCodes")
+    // codes upper case
+    @EntityGraph(attributePaths = {"county.localGovernment.subRegion.region"} , type = EntityGraph.EntityGraphType.FETCH)
+    @Query("SELECT SC FROM SubCounty SC WHERE upper(SC.county.code) IN :countyCodes")
     List<SubCounty> findAllByCountyCodes(List<String> countyCodes);
 
+    @EntityGraph(attributePaths = {"county.localGovernment.subRegion.region"} , type = EntityGraph.EntityGraphType.FETCH)
     Optional<SubCounty> findByCodeIgnoreCase(String code);
 
+    // keyset pages, served from the unique index on code
+    @EntityGraph(attributePaths = {"county.localGovernment.subRegion.region"} , type = EntityGraph.EntityGraphType.FETCH)
+    List<SubCounty> findAllByCodeGreaterThanOrderByCodeAsc(String after, Limit limit);
+
+    @EntityGraph(attributePaths = {"county.localGovernment.subRegion.region"} , type = EntityGraph.EntityGraphType.FETCH)
+    List<SubCounty> findAllByCounty_CodeIgnoreCaseAndCodeGreaterThanOrderByCodeAsc(String countyCode, String after, Limit limit);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT new com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaExportDto(SC.code, SC.name, SC.latitude, SC.longitude, R.code, SR.code, L.code, C.code) FROM SubCounty SC JOIN SC.county C JOIN C.localGovernment L JOIN L.subRegion SR JOIN SR.region R ORDER BY SC.code")
+    Stream<AdministrativeAreaExportDto> streamExport();
+
+    @Query("SELECT new com.wanfadger.AdministrativeareaApi.dto.CodeNameDto(SC.code, SC.name) FROM SubCounty SC WHERE upper(SC.code) = upper(:code)")
+    Optional<CodeNameDto> findCodeNameByCode(String code);
+
+    @Query("SELECT new com.wanfadger.AdministrativeareaApi.dto.CodeNameDto(SC.code, SC.name) FROM SubCounty SC WHERE upper(SC.county.code) = upper(:countyCode) ORDER BY SC.code")
+    List<CodeNameDto> findCodeNamesByCountyCode(String countyCode);
+
+    @Query("SELECT new com.wanfadger.AdministrativeareaApi.dto.CodeNameDto(SC.code, SC.name) FROM SubCounty SC WHERE upper(SC.county.code) = upper(:countyCode) AND SC.code > :after ORDER BY SC.code")
+    List<CodeNameDto> findCodeNamesByCountyCodeAfter(String countyCode, String after, Limit limit);
+
+    @Query("SELECT MAX(SC.updatedDateTime) FROM SubCounty SC")
+    Optional<LocalDateTime> findLastUpdatedDateTime();
+
+    // newList: "county id/NAME" of the given (upper case) names that already exist below the given counties
+    @Query("SELECT concat(SC.county.id, '/', upper(SC.name)) FROM SubCounty SC WHERE SC.county.id IN :countyIds AND upper(SC.name) IN :names")
+    List<String> findParentNameKeysIn(Collection<String> countyIds, Collection<String> names);
 
+    // newList: the parents of a request in one query, codes upper case
+    @Query("SELECT SC FROM SubCounty SC WHERE upper(SC.code) IN :codes")
+    List<SubCounty> findAllByUpperCodeIn(Collection<String> codes);
 
 }
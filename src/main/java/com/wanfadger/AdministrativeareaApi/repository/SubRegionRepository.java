@@ -1,12 +1,22 @@
 package com.wanfadger.AdministrativeareaApi.repository;
 
+import com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaExportDto;
+import com.wanfadger.AdministrativeareaApi.dto.CodeNameDto;
 import com.wanfadger.AdministrativeareaApi.entity.SubRegion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 
 @Repository
@@ -16,10 +26,10 @@ public interface SubRegionRepository extends JpaRepository<SubRegion, String> {
 
 
 
-    Optional<SubRegion> findByNameIgnoreCaseAndRegion_Code(String name , String regionCod);
+    Optional<SubRegion> findByNameIgnoreCaseAndRegion_CodeIgnoreCase(String name , String regionCod);
 
     @EntityGraph(attributePaths = {"region"} , type = EntityGraph.EntityGraphType.FETCH)
-    List<SubRegion> findAllByRegion_Code(String code);
+    List<SubRegion> findAllByRegion_CodeIgnoreCase(String code);
 
 
 
@@ -30,6 +40,36 @@ public interface SubRegionRepository extends JpaRepository<SubRegion, String> {
     @EntityGraph(attributePaths = {"region"} , type = EntityGraph.EntityGraphType.FETCH)
     Optional<SubRegion> findByCodeIgnoreCase(String code);
 
+    // keyset pages, served from the unique index on code
+    @EntityGraph(attributePaths = {"region"} , type = EntityGraph.EntityGraphType.FETCH)
+    List<SubRegion> findAllByCodeGreaterThanOrderByCodeAsc(String after, Limit limit);
+
+    @EntityGraph(attributePaths = {"region"} , type = EntityGraph.EntityGraphType.FETCH)
+    List<SubRegion> findAllByRegion_CodeIgnoreCaseAndCodeGreaterThanOrderByCodeAsc(String regionCode, String after, Limit limit);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT new com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaExportDto(SR.code, SR.name, SR.latitude, SR.longitude, R.code) FROM SubRegion SR JOIN SR.region R ORDER BY SR.code")
+    Stream<AdministrativeAreaExportDto> streamExport();
+
+    @Query("SELECT new com.wanfadger.AdministrativeareaApi.dto.CodeNameDto(SR.code, SR.name) FROM SubRegion SR WHERE upper(SR.code) = upper(:code)")
+    Optional<CodeNameDto> findCodeNameByCode(String code);
 
+    @Query("SELECT new com.wanfadger.AdministrativeareaApi.dto.CodeNameDto(SR.code, SR.name) FROM SubRegion SR WHERE upper(SR.region.code) = upper(:regionCode) ORDER BY SR.code")
+    List<CodeNameDto> findCodeNamesByRegionCode(String regionCode);
+
+    @Query("SELECT new com.wanfadger.AdministrativeareaApi.dto.CodeNameDto(SR.code, SR.name) FROM SubRegion SR WHERE upper(SR.region.code) = upper(:regionCode) AND SR.code > :after ORDER BY SR.code")
+    List<CodeNameDto> findCodeNamesByRegionCodeAfter(String regionCode, String after, Limit limit);
+
+    @Query("SELECT MAX(SR.updatedDateTime) FROM SubRegion SR")
+    Optional<LocalDateTime> findLastUpdatedDateTime();
+
+    // newList: which of the (upper case) names are taken, names are unique across the whole level
+    @Query("SELECT upper(SR.name) FROM SubRegion SR WHERE upper(SR.name) IN :names")
+    List<String> findUpperNamesIn(Collection<String> names);
+
+    // newList: the parents of a request in one query, codes upper case
+    @EntityGraph(attributePaths = {"region"} , type = EntityGraph.EntityGraphType.FETCH)
+    @Query("SELECT SR FROM SubRegion SR WHERE upper(SR.code) IN :codes")
+    List<SubRegion> findAllByUpperCodeIn(Collection<String> codes);
 
 }
@@ -0,0 +1,31 @@
+package com.wanfadger.AdministrativeareaApi.repository;
+
+import com.wanfadger.AdministrativeareaApi.entity.UploadJob;
+import com.wanfadger.AdministrativeareaApi.entity.UploadJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface UploadJobRepository extends JpaRepository<UploadJob, String> {
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE UploadJob J SET J.status = :status, J.error = :error, J.finishedDateTime = :finishedDateTime WHERE J.status IN :unfinished AND J.owner = :owner")
+    int finishOwned(String owner, Collection<UploadJobStatus> unfinished, UploadJobStatus status, String error, LocalDateTime finishedDateTime);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE UploadJob J SET J.status = :status, J.error = :error, J.finishedDateTime = :finishedDateTime WHERE J.status IN :unfinished AND J.leaseExpiresAt < :finishedDateTime")
+    int finishExpired(Collection<UploadJobStatus> unfinished, UploadJobStatus status, String error, LocalDateTime finishedDateTime);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE UploadJob J SET J.leaseExpiresAt = :leaseExpiresAt WHERE J.status IN :unfinished AND J.owner = :owner")
+    int renewLeases(String owner, Collection<UploadJobStatus> unfinished, LocalDateTime leaseExpiresAt);
+}
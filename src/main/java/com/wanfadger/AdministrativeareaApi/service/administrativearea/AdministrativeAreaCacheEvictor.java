@@ -0,0 +1,124 @@
+package com.wanfadger.AdministrativeareaApi.service.administrativearea;
+
+import com.wanfadger.AdministrativeareaApi.entity.AdministrativeAreaType;
+import com.wanfadger.AdministrativeareaApi.service.gazetteer.Gazetteer;
+import com.wanfadger.AdministrativeareaApi.service.gazetteer.GazetteerNode;
+import com.wanfadger.AdministrativeareaApi.shared.util.CacheKeys;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.wanfadger.AdministrativeareaApi.shared.cache.AdministrativeAreaKeyGenerator.*;
+
+/*
+ * Evicts only the cache entries a write can have changed, worked out by diffing the gazetteer before and after the write.
+ * For every added, removed or changed area that is its own entries, its parent's lists, its ancestors' parish lists
+ * and, because search results embed the ancestors, the search entries of its descendants.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AdministrativeAreaCacheEvictor {
+    // all managers share the same redis prefix and local evictions are fanned out to every manager
+    private final CacheManager cacheManager;
+
+    @Value("${administrative-area.cache.eviction.max-keys:500}")
+    private int maxKeys;
+
+    public void evict(Gazetteer before, Gazetteer after) {
+        if (before == null || after == null) {
+            clear();
+            return;
+        }
+
+        Set<String> filterKeys = new HashSet<>();
+        Set<String> areaKeys = new HashSet<>();
+        for (AdministrativeAreaType type : AdministrativeAreaType.values()) {
+            for (GazetteerNode node : before.list(type)) {
+                Optional<GazetteerNode> updated = after.byCode(type, node.getCode());
+                if (updated.isEmpty() || !sameContent(node, updated.get())) {
+                    affectedKeys(before, node, filterKeys, areaKeys);
+                    updated.ifPresent(updatedNode -> affectedKeys(after, updatedNode, filterKeys, areaKeys));
+                }
+            }
+            for (GazetteerNode node : after.list(type)) {
+                if (before.byCode(type, node.getCode()).isEmpty()) {
+                    affectedKeys(after, node, filterKeys, areaKeys);
+                }
+            }
+        }
+
+        if (filterKeys.size() + areaKeys.size() > maxKeys) {
+            log.info("{} cache entries affected, clearing the administrative area caches", filterKeys.size() + areaKeys.size());
+            clear();
+            return;
+        }
+
+        evict(CacheKeys.ADMINISTRATIVE_AREAS_FILTER, filterKeys);
+        evict(CacheKeys.ADMINISTRATIVE_AREAS, areaKeys);
+    }
+
+    public void clear() {
+        Optional.ofNullable(cacheManager.getCache(CacheKeys.ADMINISTRATIVE_AREAS_FILTER)).ifPresent(Cache::clear);
+        Optional.ofNullable(cacheManager.getCache(CacheKeys.ADMINISTRATIVE_AREAS)).ifPresent(Cache::clear);
+    }
+
+    private void evict(String cacheName, Set<String> keys) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            keys.forEach(cache::evict);
+        }
+    }
+
+    private void affectedKeys(Gazetteer gazetteer, GazetteerNode node, Set<String> filterKeys, Set<String> areaKeys) {
+        AdministrativeAreaType type = node.getType();
+        String parentCode = node.getParent() != null ? node.getParent().getCode() : null;
+
+        filterKeys.add(key(FILTER_ONE, type, node.getCode()));
+        for (String endpoint : new String[]{FILTER_LIST, FILTER_LIST_JSON}) {
+            filterKeys.add(key(endpoint, type, parentCode));
+            filterKeys.add(key(endpoint, type, null));
+        }
+        searchKeys(node, areaKeys);
+
+        // parish lists of the area itself and of everything above it
+        for (GazetteerNode ancestor = node; ancestor != null; ancestor = ancestor.getParent()) {
+            areaKeys.add(key(PARISH_LIST_BY_PART_OF, ancestor.getType(), ancestor.getCode()));
+            areaKeys.add(key(PARISH_LIST_BY_PART_OF_JSON, ancestor.getType(), ancestor.getCode()));
+        }
+
+        AdministrativeAreaType descendantType = type.child().orElse(null);
+        while (descendantType != null) {
+            for (GazetteerNode descendant : gazetteer.descendants(type, node.getCode(), descendantType)) {
+                searchKeys(descendant, areaKeys);
+            }
+            descendantType = descendantType.child().orElse(null);
+        }
+    }
+
+    private void searchKeys(GazetteerNode node, Set<String> areaKeys) {
+        String parentCode = node.getParent() != null ? node.getParent().getCode() : null;
+        areaKeys.add(key(SEARCH_ONE, node.getType(), node.getCode()));
+        for (String endpoint : new String[]{SEARCH_LIST, SEARCH_LIST_JSON}) {
+            areaKeys.add(key(endpoint, node.getType(), parentCode));
+            // the unfiltered list of the whole level
+            areaKeys.add(key(endpoint, node.getType(), null));
+        }
+    }
+
+    private boolean sameContent(GazetteerNode before, GazetteerNode after) {
+        return Objects.equals(before.getCode(), after.getCode())
+                && Objects.equals(before.getName(), after.getName())
+                && Objects.equals(before.getLatitude(), after.getLatitude())
+                && Objects.equals(before.getLongitude(), after.getLongitude())
+                && Objects.equals(before.getParent() != null ? before.getParent().getCode() : null, after.getParent() != null ? after.getParent().getCode() : null);
+    }
+}
@@ -1,9 +1,12 @@
 package com.wanfadger.AdministrativeareaApi.service.administrativearea;
 
 import com.wanfadger.AdministrativeareaApi.dto.*;
+import com.wanfadger.AdministrativeareaApi.service.upload.UploadFormat;
+import com.wanfadger.AdministrativeareaApi.service.upload.UploadProgress;
 import com.wanfadger.AdministrativeareaApi.shared.reponses.AdministrativeAreaResponseDto;
 import org.springframework.http.ResponseEntity;
 
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 
@@ -20,7 +23,8 @@ public interface AdministrativeAreaService {
     AdministrativeAreaResponseDto<? extends AdministrativeAreaDto> searchOne(Map<String, String> queryMap);
 
 
-    AdministrativeAreaResponseDto<String> upload(List<AdministrativeAreaExcelDto> administrativeAreaExcelDtos);
+    // imports the rows of a spooled upload file on the calling thread, see UploadJobService for the background uploads
+    void upload(Path file, UploadFormat format, UploadProgress progress);
 
     AdministrativeAreaResponseDto<String> updateOne(Map<String, String> queryMap, UpdateAdministrativeAreaDto dto);
 
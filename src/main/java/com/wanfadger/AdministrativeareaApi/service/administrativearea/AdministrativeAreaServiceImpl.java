@@ -1,30 +1,41 @@
 package com.wanfadger.AdministrativeareaApi.service.administrativearea;
 
 import com.wanfadger.AdministrativeareaApi.dto.*;
-import com.wanfadger.AdministrativeareaApi.dto.uniqueDtos.*;
 import com.wanfadger.AdministrativeareaApi.entity.*;
+import com.wanfadger.AdministrativeareaApi.service.closure.ClosureService;
 import com.wanfadger.AdministrativeareaApi.service.county.DbCountyService;
+import com.wanfadger.AdministrativeareaApi.service.gazetteer.Gazetteer;
+import com.wanfadger.AdministrativeareaApi.service.gazetteer.GazetteerNode;
+import com.wanfadger.AdministrativeareaApi.service.gazetteer.GazetteerService;
 import com.wanfadger.AdministrativeareaApi.service.localgovernment.DbLocalGovernmentService;
 import com.wanfadger.AdministrativeareaApi.service.parish.DbParishService;
 import com.wanfadger.AdministrativeareaApi.service.region.DbRegionService;
 import com.wanfadger.AdministrativeareaApi.service.subRegion.DbSubRegionService;
 import com.wanfadger.AdministrativeareaApi.service.subcounty.DbSubCountyService;
+import com.wanfadger.AdministrativeareaApi.service.upload.UploadFormat;
+import com.wanfadger.AdministrativeareaApi.service.upload.UploadPipeline;
+import com.wanfadger.AdministrativeareaApi.service.upload.UploadProgress;
 import com.wanfadger.AdministrativeareaApi.shared.administrativeareaexceptions.AlreadyExistsException;
 import com.wanfadger.AdministrativeareaApi.shared.administrativeareaexceptions.InvalidException;
 import com.wanfadger.AdministrativeareaApi.shared.administrativeareaexceptions.MissingDataException;
 import com.wanfadger.AdministrativeareaApi.shared.administrativeareaexceptions.NotFoundException;
 import com.wanfadger.AdministrativeareaApi.shared.reponses.AdministrativeAreaResponseDto;
+import com.wanfadger.AdministrativeareaApi.shared.util.AreaCodeGenerator;
+import com.wanfadger.AdministrativeareaApi.shared.util.KeysetPage;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.file.Path;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 import java.util.function.Function;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
@@ -36,6 +47,16 @@ public class AdministrativeAreaServiceImpl implements AdministrativeAreaService
     private final DbCountyService dbCountyService;
     private final DbSubCountyService dbSubCountyService;
     private final DbParishService dbParishService;
+    private final GazetteerService gazetteerService;
+    private final AreaWritePublisher areaWritePublisher;
+    private final ClosureService closureService;
+    private final UploadPipeline uploadPipeline;
+
+    @Value("${administrative-area.pagination.default-limit:100}")
+    private int defaultPageLimit;
+
+    @Value("${administrative-area.pagination.max-limit:1000}")
+    private int maxPageLimit;
 
     private boolean notNullEmpty(String value) {
         return value != null && !value.isEmpty();
@@ -45,58 +66,29 @@ public class AdministrativeAreaServiceImpl implements AdministrativeAreaService
         return null == value;
     }
 
+    private KeysetPage keysetPage(Map<String, String> queryMap) {
+        return KeysetPage.isRequested(queryMap) ? KeysetPage.of(queryMap, defaultPageLimit, maxPageLimit) : null;
+    }
 
-    private String generateCode(AdministrativeAreaType administrativeAreaType) {
-        String code;
-        return switch (administrativeAreaType) {
-            case REGION -> {
-                do {
-                    code = UUID.randomUUID().toString();
-                } while (dbRegionService.dbByCode(code).isPresent());
-                yield code;
-            }
-
-            case SUBREGION -> {
-                do {
-                    code = UUID.randomUUID().toString();
-                } while (dbSubRegionService.dbByCode(code).isPresent());
-                yield code;
-            }
-
-            case LOCALGOVERNMENT -> {
-                do {
-                    code = UUID.randomUUID().toString();
-                } while (dbLocalGovernmentService.dbByCode(code).isPresent());
-
-                yield code;
-            }
-
-            case COUNTY -> {
-                do {
-                    code = UUID.randomUUID().toString();
-                } while (dbCountyService.dbByCode(code).isPresent());
-                yield code;
-            }
-
-            case SUBCOUNTY -> {
-                do {
-                    code = UUID.randomUUID().toString();
-                } while (dbSubCountyService.dbByCode(code).isPresent());
-                yield code;
-            }
+    // taken before a write so the eviction diff cannot miss changes a scheduled refresh already picked up
+    private Gazetteer gazetteerBeforeWrite() {
+        return gazetteerService.isEnabled() ? gazetteerService.current() : null;
+    }
 
-            case PARISH -> {
-                do {
-                    code = UUID.randomUUID().toString();
-                } while (dbParishService.dbByCode(code).isPresent());
-                yield code;
+    // the area and its closure rows commit together, a reader missing the evicted entries in between must not cache the old rows again
+    private void afterCommit(Gazetteer before) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                areaWritePublisher.published(before);
             }
-
-        };
+        });
     }
 
     @Override
+    @Transactional
     public ResponseEntity<AdministrativeAreaResponseDto<String>> newOne(Map<String, String> queryMap, NewAdministrativeAreaDto dto) {
+        Gazetteer before = gazetteerBeforeWrite();
         Optional<AdministrativeAreaType> optionalAdministrativeAreaType = AdministrativeAreaType.administrativeAreaTypeStr(queryMap.get("type"));
         if (optionalAdministrativeAreaType.isEmpty()) {
             throw new MissingDataException("Missing Administrative Area Type");
@@ -104,7 +96,7 @@ public class AdministrativeAreaServiceImpl implements AdministrativeAreaService
 
         AdministrativeAreaType administrativeAreaType = optionalAdministrativeAreaType.get();
 
-        return switch (administrativeAreaType) {
+        ResponseEntity<AdministrativeAreaResponseDto<String>> response = switch (administrativeAreaType) {
             case REGION -> {
 
                 if (dbRegionService.dbByName(dto.getName()).isPresent()) {
@@ -112,9 +104,11 @@ public class AdministrativeAreaServiceImpl implements AdministrativeAreaService
                 }
 
 
-                Region region = convertDtoRegion(dto, administrativeAreaType);
+                Region region = convertDtoRegion(dto);
+                region.setCode(AreaCodeGenerator.next());
 
                 dbRegionService.dbNew(region);
+                closureService.added(administrativeAreaType, List.of(region.getCode()));
 
                 yield new ResponseEntity<>(new AdministrativeAreaResponseDto<>("success", "success"), HttpStatus.CREATED);
             }
@@ -128,10 +122,12 @@ public class AdministrativeAreaServiceImpl implements AdministrativeAreaService
                     throw new AlreadyExistsException("Administrative Area Already Exists");
                 }
 
-                SubRegion subRegion = convertDtoSubRegion(dto, administrativeAreaType);
+                SubRegion subRegion = convertDtoSubRegion(dto);
+                subRegion.setCode(AreaCodeGenerator.next());
                 subRegion.setRegion(region);
 
                 dbSubRegionService.dbNew(subRegion);
+                closureService.added(administrativeAreaType, List.of(subRegion.getCode()));
                 yield new ResponseEntity<>(new AdministrativeAreaResponseDto<>("success", "success"), HttpStatus.CREATED);
             }
             case LOCALGOVERNMENT -> {
@@ -145,10 +141,12 @@ public class AdministrativeAreaServiceImpl implements AdministrativeAreaService
                     throw new AlreadyExistsException("Administrative Area Already Exists");
                 }
 
-                LocalGovernment localGovernment = convertDtoLocalGovernment(dto, administrativeAreaType);
+                LocalGovernment localGovernment = convertDtoLocalGovernment(dto);
+                localGovernment.setCode(AreaCodeGenerator.next());
                 localGovernment.setSubRegion(subRegion);
 
                 dbLocalGovernmentService.dbNew(localGovernment);
+                closureService.added(administrativeAreaType, List.of(localGovernment.getCode()));
                 yield new ResponseEntity<>(new AdministrativeAreaResponseDto<>("success", "success"), HttpStatus.CREATED);
             }
 
@@ -163,10 +161,12 @@ public class AdministrativeAreaServiceImpl implements AdministrativeAreaService
                     throw new AlreadyExistsException("Administrative Area Already Exists");
                 }
 
-                County county = convertDtoCounty(dto, administrativeAreaType);
+                County county = convertDtoCounty(dto);
+                county.setCode(AreaCodeGenerator.next());
                 county.setLocalGovernment(localGovernment);
 
                 dbCountyService.dbNew(county);
+                closureService.added(administrativeAreaType, List.of(county.getCode()));
                 yield new ResponseEntity<>(new AdministrativeAreaResponseDto<>("success", "success"), HttpStatus.CREATED);
             }
 
@@ -181,10 +181,12 @@ public class AdministrativeAreaServiceImpl implements AdministrativeAreaService
                     throw new AlreadyExistsException("Administrative Area Already Exists");
                 }
 
-                SubCounty subCounty = convertDtoSubCounty(dto, administrativeAreaType);
+                SubCounty subCounty = convertDtoSubCounty(dto);
+                subCounty.setCode(AreaCodeGenerator.next());
                 subCounty.setCounty(county);
 
                 dbSubCountyService.dbNew(subCounty);
+                closureService.added(administrativeAreaType, List.of(subCounty.getCode()));
                 yield new ResponseEntity<>(new AdministrativeAreaResponseDto<>("success", "success"), HttpStatus.CREATED);
             }
 
@@ -199,72 +201,119 @@ public class AdministrativeAreaServiceImpl implements AdministrativeAreaService
                     throw new AlreadyExistsException("Administrative Area Already Exists");
                 }
 
-                Parish parish = convertDtoParish(dto, administrativeAreaType);
+                Parish parish = convertDtoParish(dto);
+                parish.setCode(AreaCodeGenerator.next());
                 parish.setSubCounty(subCounty);
 
                 dbParishService.dbNew(parish);
+                closureService.added(administrativeAreaType, List.of(parish.getCode()));
                 yield new ResponseEntity<>(new AdministrativeAreaResponseDto<>("success", "success"), HttpStatus.CREATED);
             }
         };
+
+        afterCommit(before);
+        return response;
     }
 
-    private Parish convertDtoParish(NewAdministrativeAreaDto dto, AdministrativeAreaType administrativeAreaType) {
+    private Parish convertDtoParish(NewAdministrativeAreaDto dto) {
         Parish parish = new Parish();
         parish.setName(dto.getName());
         parish.setLatitude(dto.getLatitude() != null ? Double.valueOf(dto.getLatitude()) : null);
         parish.setLongitude(dto.getLongitude() != null ? Double.valueOf(dto.getLongitude()) : null);
-        parish.setCode(generateCode(administrativeAreaType));
         return parish;
     }
 
-    private SubCounty convertDtoSubCounty(NewAdministrativeAreaDto dto, AdministrativeAreaType administrativeAreaType) {
+    private SubCounty convertDtoSubCounty(NewAdministrativeAreaDto dto) {
         SubCounty subCounty = new SubCounty();
         subCounty.setName(dto.getName());
         subCounty.setLatitude(dto.getLatitude() != null ? Double.valueOf(dto.getLatitude()) : null);
         subCounty.setLongitude(dto.getLongitude() != null ? Double.valueOf(dto.getLongitude()) : null);
-        subCounty.setCode(generateCode(administrativeAreaType));
         return subCounty;
     }
 
-    private County convertDtoCounty(NewAdministrativeAreaDto dto, AdministrativeAreaType administrativeAreaType) {
+    private County convertDtoCounty(NewAdministrativeAreaDto dto) {
         County county = new County();
         county.setName(dto.getName());
         county.setLatitude(dto.getLatitude() != null ? Double.valueOf(dto.getLatitude()) : null);
         county.setLongitude(dto.getLongitude() != null ? Double.valueOf(dto.getLongitude()) : null);
-        county.setCode(generateCode(administrativeAreaType));
         return county;
     }
 
-    private LocalGovernment convertDtoLocalGovernment(NewAdministrativeAreaDto dto, AdministrativeAreaType administrativeAreaType) {
+    private LocalGovernment convertDtoLocalGovernment(NewAdministrativeAreaDto dto) {
         LocalGovernment localGovernment = new LocalGovernment();
         localGovernment.setName(dto.getName());
         localGovernment.setLatitude(dto.getLatitude() != null ? Double.valueOf(dto.getLatitude()) : null);
         localGovernment.setLongitude(dto.getLongitude() != null ? Double.valueOf(dto.getLongitude()) : null);
-        localGovernment.setCode(generateCode(administrativeAreaType));
         return localGovernment;
     }
 
-    private SubRegion convertDtoSubRegion(NewAdministrativeAreaDto dto, AdministrativeAreaType administrativeAreaType) {
+    private SubRegion convertDtoSubRegion(NewAdministrativeAreaDto dto) {
         SubRegion subRegion = new SubRegion();
         subRegion.setName(dto.getName());
         subRegion.setLatitude(notNullEmpty(dto.getLatitude()) ? Double.valueOf(dto.getLatitude()) : null);
         subRegion.setLongitude(notNullEmpty(dto.getLongitude()) ? Double.valueOf(dto.getLongitude()) : null);
-        subRegion.setCode(generateCode(administrativeAreaType));
         return subRegion;
     }
 
-    private Region convertDtoRegion(NewAdministrativeAreaDto dto, AdministrativeAreaType administrativeAreaType) {
+    private Region convertDtoRegion(NewAdministrativeAreaDto dto) {
         Region region = new Region();
         region.setName(dto.getName());
         region.setDescription(dto.getDescription());
         region.setLatitude(dto.getLatitude() != null ? Double.valueOf(dto.getLatitude()) : null);
         region.setLongitude(dto.getLongitude() != null ? Double.valueOf(dto.getLongitude()) : null);
-        region.setCode(generateCode(administrativeAreaType));
         return region;
     }
 
+    private static Set<String> upperCase(List<NewAdministrativeAreaDto> dtos, Function<NewAdministrativeAreaDto, String> value) {
+        return dtos.stream().map(value).filter(Objects::nonNull).map(v -> v.toUpperCase(Locale.ROOT)).collect(Collectors.toSet());
+    }
+
+    private static <P extends BaseEntity> Map<String, P> byCode(List<P> parents) {
+        Map<String, P> byCode = new HashMap<>();
+        parents.forEach(parent -> byCode.put(parent.getCode().toUpperCase(Locale.ROOT), parent));
+        return byCode;
+    }
+
+    private static List<String> ids(Map<String, ? extends BaseEntity> parents) {
+        return parents.values().stream().map(BaseEntity::getId).toList();
+    }
+
+    // the key the per parent dbExistingNames queries return
+    private static String parentNameKey(BaseEntity parent, String upperCaseName) {
+        return parent.getId() + '/' + upperCaseName;
+    }
+
+    /*
+     * The areas of a newList request that do not exist yet, bound to their parent (parents is null for regions).
+     * keyOf turns a parent and an upper case name into the keys of existing, a name repeated in the request is
+     * only added once.
+     */
+    private static <P extends BaseEntity, T extends BaseEntity> List<T> newAreas(List<NewAdministrativeAreaDto> dtos, Map<String, P> parents,
+                                                                              BiFunction<P, String, String> keyOf, Set<String> existing,
+                                                                              Function<NewAdministrativeAreaDto, T> convert, BiConsumer<T, P> setParent) {
+        Set<String> taken = new HashSet<>(existing);
+        List<T> areas = new ArrayList<>();
+        for (NewAdministrativeAreaDto dto : dtos) {
+            P parent = null;
+            if (parents != null) {
+                parent = parents.get(dto.getPartOfCode().toUpperCase(Locale.ROOT));
+                if (parent == null) {
+                    throw new InvalidException("Invalid PartOfCode " + dto.getPartOfCode());
+                }
+            }
+            if (taken.add(keyOf.apply(parent, dto.getName().toUpperCase(Locale.ROOT)))) {
+                T area = convert.apply(dto);
+                setParent.accept(area, parent);
+                areas.add(area);
+            }
+        }
+        return areas;
+    }
+
     @Override
+    @Transactional
     public ResponseEntity<AdministrativeAreaResponseDto<String>> newList(Map<String, String> queryMap, List<NewAdministrativeAreaDto> dtos) {
+        Gazetteer before = gazetteerBeforeWrite();
         Optional<AdministrativeAreaType> optionalAdministrativeAreaType = AdministrativeAreaType.administrativeAreaTypeStr(queryMap.get("type"));
         if (optionalAdministrativeAreaType.isEmpty()) {
             throw new MissingDataException("Missing Administrative Area Type");
@@ -272,91 +321,64 @@ public class AdministrativeAreaServiceImpl implements AdministrativeAreaService
 
         AdministrativeAreaType administrativeAreaType = optionalAdministrativeAreaType.get();
 
-        return switch (administrativeAreaType) {
-            case REGION -> {
-                // exclude existing ones
-                List<Region> regions = dtos.parallelStream().filter(dto -> dbRegionService.dbByName(dto.getName()).isEmpty()).map(dto -> convertDtoRegion(dto, administrativeAreaType)).toList();
-
-
-                dbRegionService.dbNew(regions);
-                yield new ResponseEntity<>(new AdministrativeAreaResponseDto<>("success", "successfully added " + regions.size() + " administrative areas"), HttpStatus.CREATED);
+        if (dtos.stream().anyMatch(dto -> !notNullEmpty(dto.getName()))) {
+            throw new MissingDataException("Found Administrative Area without name");
+        }
+        // check if all have PartOfCode
+        if (administrativeAreaType != AdministrativeAreaType.REGION && dtos.stream().anyMatch(dto -> !notNullEmpty(dto.getPartOfCode()))) {
+            throw new MissingDataException("Found Administrative Area without PartOfCoce");
+        }
 
+        // a constant number of statements whatever the size of the list: the parents, the existing names, one bulk insert, the closure rows
+        Set<String> names = upperCase(dtos, NewAdministrativeAreaDto::getName);
+        Set<String> partOfCodes = upperCase(dtos, NewAdministrativeAreaDto::getPartOfCode);
+        List<? extends BaseEntity> areas = switch (administrativeAreaType) {
+            case REGION -> {
+                List<Region> regions = newAreas(dtos, null, (parent, name) -> name, dbRegionService.dbExistingNames(names), this::convertDtoRegion, (region, parent) -> {
+                });
+                dbRegionService.dbBulkNew(AreaCodeGenerator.assign(regions));
+                yield regions;
             }
             case SUBREGION -> {
-
-                // check if all have PartOfCode
-                if (dtos.parallelStream().anyMatch(dto -> !notNullEmpty(dto.getPartOfCode()))) {
-                    throw new MissingDataException("Found Administrative Area without PartOfCoce");
-                }
-
-                // exclude existing ones
-                List<SubRegion> subRegions = dtos.parallelStream().filter(dto -> dbSubRegionService.dbByName_RegionCode(dto.getName(), dto.getPartOfCode()).isEmpty()).map(dto -> convertDtoSubRegion(dto, administrativeAreaType)).toList();
-
-
-                dbSubRegionService.dbNew(subRegions);
-                yield new ResponseEntity<>(new AdministrativeAreaResponseDto<>("success", "successfully added " + subRegions.size() + " administrative areas"), HttpStatus.CREATED);
+                // sub region and local government names are unique across the whole level, not only below their parent
+                Map<String, Region> regions = byCode(dbRegionService.dbByCodes(partOfCodes));
+                List<SubRegion> subRegions = newAreas(dtos, regions, (region, name) -> name, dbSubRegionService.dbExistingNames(names), this::convertDtoSubRegion, SubRegion::setRegion);
+                dbSubRegionService.dbBulkNew(AreaCodeGenerator.assign(subRegions));
+                yield subRegions;
             }
             case LOCALGOVERNMENT -> {
-
-                // check if all have PartOfCode
-                if (dtos.parallelStream().anyMatch(dto -> !notNullEmpty(dto.getPartOfCode()))) {
-                    throw new MissingDataException("Found Administrative Area without PartOfCoce");
-                }
-
-                // exclude existing ones
-                List<LocalGovernment> localGovernments = dtos.parallelStream().filter(dto -> dbLocalGovernmentService.dbByName_SubRegionCode(dto.getName(), dto.getPartOfCode()).isEmpty()).map(dto -> convertDtoLocalGovernment(dto, administrativeAreaType)).toList();
-
-
-                dbLocalGovernmentService.dbNew(localGovernments);
-                yield new ResponseEntity<>(new AdministrativeAreaResponseDto<>("success", "successfully added " + localGovernments.size() + " administrative areas"), HttpStatus.CREATED);
+                Map<String, SubRegion> subRegions = byCode(dbSubRegionService.dbByCodes(partOfCodes));
+                List<LocalGovernment> localGovernments = newAreas(dtos, subRegions, (subRegion, name) -> name, dbLocalGovernmentService.dbExistingNames(names), this::convertDtoLocalGovernment, LocalGovernment::setSubRegion);
+                dbLocalGovernmentService.dbBulkNew(AreaCodeGenerator.assign(localGovernments));
+                yield localGovernments;
             }
-
             case COUNTY -> {
-
-                // check if all have PartOfCode
-                if (dtos.parallelStream().anyMatch(dto -> !notNullEmpty(dto.getPartOfCode()))) {
-                    throw new MissingDataException("Found Administrative Area without PartOfCoce");
-                }
-
-                // exclude existing ones
-                List<County> counties = dtos.parallelStream().filter(dto -> dbCountyService.dbByName_LocalGovernment_Code(dto.getName(), dto.getPartOfCode()).isEmpty()).map(dto -> convertDtoCounty(dto, administrativeAreaType)).toList();
-
-
-                dbCountyService.dbNew(counties);
-                yield new ResponseEntity<>(new AdministrativeAreaResponseDto<>("success", "successfully added " + counties.size() + " administrative areas"), HttpStatus.CREATED);
+                Map<String, LocalGovernment> localGovernments = byCode(dbLocalGovernmentService.dbByCodes(partOfCodes));
+                Set<String> existing = dbCountyService.dbExistingNames(ids(localGovernments), names);
+                List<County> counties = newAreas(dtos, localGovernments, AdministrativeAreaServiceImpl::parentNameKey, existing, this::convertDtoCounty, County::setLocalGovernment);
+                dbCountyService.dbBulkNew(AreaCodeGenerator.assign(counties));
+                yield counties;
             }
-
             case SUBCOUNTY -> {
-
-                // check if all have PartOfCode
-                if (dtos.parallelStream().anyMatch(dto -> !notNullEmpty(dto.getPartOfCode()))) {
-                    throw new MissingDataException("Found Administrative Area without PartOfCoce");
-                }
-
-                // exclude existing ones
-                List<SubCounty> subCounties = dtos.parallelStream().filter(dto -> dbSubCountyService.dbByName_CountyCode(dto.getName(), dto.getPartOfCode()).isEmpty()).map(dto -> convertDtoSubCounty(dto, administrativeAreaType)).toList();
-
-
-                dbSubCountyService.dbNew(subCounties);
-                yield new ResponseEntity<>(new AdministrativeAreaResponseDto<>("success", "successfully added " + subCounties.size() + " administrative areas"), HttpStatus.CREATED);
+                Map<String, County> counties = byCode(dbCountyService.dbByCodes(partOfCodes));
+                Set<String> existing = dbSubCountyService.dbExistingNames(ids(counties), names);
+                List<SubCounty> subCounties = newAreas(dtos, counties, AdministrativeAreaServiceImpl::parentNameKey, existing, this::convertDtoSubCounty, SubCounty::setCounty);
+                dbSubCountyService.dbBulkNew(AreaCodeGenerator.assign(subCounties));
+                yield subCounties;
             }
-
             case PARISH -> {
-
-                // check if all have PartOfCode
-                if (dtos.parallelStream().anyMatch(dto -> !notNullEmpty(dto.getPartOfCode()))) {
-                    throw new MissingDataException("Found Administrative Area without PartOfCoce");
-                }
-
-                // exclude existing ones
-                List<Parish> parishes = dtos.parallelStream().filter(dto -> dbParishService.dbByName_SubCountyCode(dto.getName(), dto.getPartOfCode()).isEmpty()).map(dto -> convertDtoParish(dto, administrativeAreaType)).toList();
-
-
-                dbParishService.dbNew(parishes);
-                yield new ResponseEntity<>(new AdministrativeAreaResponseDto<>("success", "successfully added " + parishes.size() + " administrative areas"), HttpStatus.CREATED);
-
+                Map<String, SubCounty> subCounties = byCode(dbSubCountyService.dbByCodes(partOfCodes));
+                Set<String> existing = dbParishService.dbExistingNames(ids(subCounties), names);
+                List<Parish> parishes = newAreas(dtos, subCounties, AdministrativeAreaServiceImpl::parentNameKey, existing, this::convertDtoParish, Parish::setSubCounty);
+                dbParishService.dbBulkNew(AreaCodeGenerator.assign(parishes));
+                yield parishes;
             }
         };
+        closureService.added(administrativeAreaType, areas.stream().map(BaseEntity::getCode).toList());
+        ResponseEntity<AdministrativeAreaResponseDto<String>> response = new ResponseEntity<>(new AdministrativeAreaResponseDto<>("success", "successfully added " + areas.size() + " administrative areas"), HttpStatus.CREATED);
+
+        afterCommit(before);
+        return response;
 
     }
 
@@ -377,50 +399,27 @@ public class AdministrativeAreaServiceImpl implements AdministrativeAreaService
 
         AdministrativeAreaType administrativeAreaType = optionalAdministrativeAreaType.get();
 
-        return switch (administrativeAreaType) {
-            case REGION -> {
-                if (!notNullEmpty(code)) {
-                    throw new MissingDataException("Missing Administrative Area Code");
-                }
-                Region region = dbRegionService.dbByCode(code).orElseThrow(() -> new NotFoundException("Region not found"));
-                yield new AdministrativeAreaResponseDto<>(new CodeNameDto(region.getCode() , region.getName()));
-            }
-            case SUBREGION -> {
-                if (!notNullEmpty(code)) {
-                    throw new MissingDataException("Missing Administrative Area Code");
-                }
-                SubRegion subRegion = dbSubRegionService.dbByCode(code).orElseThrow(() -> new NotFoundException("SubRegion not found"));
-                yield new AdministrativeAreaResponseDto<>(new CodeNameDto(subRegion.getCode() , subRegion.getName()));
-            }
-            case LOCALGOVERNMENT -> {
-                if (!notNullEmpty(code)) {
-                    throw new MissingDataException("Missing Administrative Area Code");
-                }
-                LocalGovernment localGovernment = dbLocalGovernmentService.dbByCode(code).orElseThrow(() -> new NotFoundException("LocalGovernment not found"));
-                yield new AdministrativeAreaResponseDto<>(new CodeNameDto(localGovernment.getCode() , localGovernment.getName()));
-            }
-            case COUNTY -> {
-                if (!notNullEmpty(code)) {
-                    throw new MissingDataException("Missing Administrative Area Code");
-                }
-                County county = dbCountyService.dbByCode(code).orElseThrow(() -> new NotFoundException("County not found"));
-                yield new AdministrativeAreaResponseDto<>(new CodeNameDto(county.getCode() , county.getName()));
-            }
-            case SUBCOUNTY -> {
-                if (!notNullEmpty(code)) {
-                    throw new MissingDataException("Missing Administrative Area Code");
-                }
-                SubCounty subCounty = dbSubCountyService.dbByCode(code).orElseThrow(() -> new NotFoundException("County not found"));
-                yield new AdministrativeAreaResponseDto<>(new CodeNameDto(subCounty.getCode() , subCounty.getName()));
-            }
-            case PARISH -> {
-                if (!notNullEmpty(code)) {
-                    throw new MissingDataException("Missing Administrative Area Code");
-                }
-                Parish parish = dbParishService.dbByCode(code).orElseThrow(() -> new NotFoundException("County not found"));
-                yield new AdministrativeAreaResponseDto<>(new CodeNameDto(parish.getCode() , parish.getName()));
+        if (gazetteerService.isEnabled()) {
+            if (!notNullEmpty(code)) {
+                throw new MissingDataException("Missing Administrative Area Code");
             }
+            GazetteerNode node = gazetteerService.current().byCode(administrativeAreaType, code).orElseThrow(() -> new NotFoundException(administrativeAreaType.getAdministrativeAreaType() + " not found"));
+            return new AdministrativeAreaResponseDto<>(convertCodeNameDto(node));
+        }
+
+        if (!notNullEmpty(code)) {
+            throw new MissingDataException("Missing Administrative Area Code");
+        }
+
+        Optional<CodeNameDto> optionalCodeNameDto = switch (administrativeAreaType) {
+            case REGION -> dbRegionService.dbCodeNameByCode(code);
+            case SUBREGION -> dbSubRegionService.dbCodeNameByCode(code);
+            case LOCALGOVERNMENT -> dbLocalGovernmentService.dbCodeNameByCode(code);
+            case COUNTY -> dbCountyService.dbCodeNameByCode(code);
+            case SUBCOUNTY -> dbSubCountyService.dbCodeNameByCode(code);
+            case PARISH -> dbParishService.dbCodeNameByCode(code);
         };
+        return new AdministrativeAreaResponseDto<>(optionalCodeNameDto.orElseThrow(() -> new NotFoundException(administrativeAreaType.getAdministrativeAreaType() + " not found")));
 
     }
 
@@ -441,72 +440,43 @@ public class AdministrativeAreaServiceImpl implements AdministrativeAreaService
         }
 
         AdministrativeAreaType administrativeAreaType = optionalAdministrativeAreaType.get();
-
-        return switch (administrativeAreaType) {
-            case REGION -> {
-                List<CodeNameDto> codeNameDtoList = dbRegionService.dbList().parallelStream()
-                        .map(region -> new CodeNameDto(region.getCode() , region.getName()))
-                        .sorted(Comparator.comparing(CodeNameDto::getCode))
-                        .toList();
-                yield new AdministrativeAreaResponseDto<>(codeNameDtoList);
-            }
-
-            case SUBREGION -> {
-
+        KeysetPage page = keysetPage(queryMap);
+
+        if (gazetteerService.isEnabled()) {
+            Gazetteer gazetteer = gazetteerService.current();
+            List<GazetteerNode> nodes;
+            if (administrativeAreaType == AdministrativeAreaType.REGION) {
+                nodes = gazetteer.list(administrativeAreaType);
+            } else {
                 if (!notNullEmpty(partOf)) {
                     throw new MissingDataException("Missing Administrative Area partOf");
                 }
-
-                List<CodeNameDto> codeNameDtoList = dbSubRegionService.dbByRegionCode(partOf).parallelStream()
-                        .map(subRegion -> new CodeNameDto(subRegion.getCode() , subRegion.getName()))
-                        .sorted(Comparator.comparing(CodeNameDto::getCode)).toList();
-                yield new AdministrativeAreaResponseDto<>(codeNameDtoList);
+                nodes = gazetteer.children(administrativeAreaType, partOf);
             }
-
-            case LOCALGOVERNMENT -> {
-                if (!notNullEmpty(partOf)) {
-                    throw new MissingDataException("Missing Administrative Area partOf");
-                }
-
-                List<CodeNameDto> codeNameDtoList = dbLocalGovernmentService.dbBySubRegionCode(partOf).parallelStream()
-                        .map(localGovernment -> new CodeNameDto(localGovernment.getCode() , localGovernment.getName()))
-                        .sorted(Comparator.comparing(CodeNameDto::getCode)).toList();
-                yield new AdministrativeAreaResponseDto<>(codeNameDtoList);
+            if (page != null) {
+                nodes = Gazetteer.page(nodes, page.getAfter(), page.getLimit());
             }
+            return new AdministrativeAreaResponseDto<>(nodes.stream().map(this::convertCodeNameDto).toList());
+        }
 
-            case COUNTY -> {
-                if (!notNullEmpty(partOf)) {
-                    throw new MissingDataException("Missing Administrative Area partOf");
-                }
-
-                List<CodeNameDto> codeNameDtoList = dbCountyService.dbAllByLocalGovernmentCode(partOf).parallelStream()
-                        .map(localGovernment -> new CodeNameDto(localGovernment.getCode() , localGovernment.getName()))
-                        .sorted(Comparator.comparing(CodeNameDto::getCode)).toList();
-                yield new AdministrativeAreaResponseDto<>(codeNameDtoList);
-            }
-
-            case SUBCOUNTY -> {
-                if (!notNullEmpty(partOf)) {
-                    throw new MissingDataException("Missing Administrative Area partOf");
-                }
-
-                List<CodeNameDto> codeNameDtoList = dbSubCountyService.dbByCountyCode(partOf).parallelStream()
-                        .map(subCounty -> new CodeNameDto(subCounty.getCode() , subCounty.getName()))
-                        .sorted(Comparator.comparing(CodeNameDto::getCode)).toList();
-                yield new AdministrativeAreaResponseDto<>(codeNameDtoList);
-            }
+        if (page != null) {
+            return filterListPage(administrativeAreaType, partOf, page);
+        }
 
-            case PARISH -> {
-                if (!notNullEmpty(partOf)) {
-                    throw new MissingDataException("Missing Administrative Area partOf");
-                }
+        if (administrativeAreaType != AdministrativeAreaType.REGION && !notNullEmpty(partOf)) {
+            throw new MissingDataException("Missing Administrative Area partOf");
+        }
 
-                List<CodeNameDto> codeNameDtoList = dbParishService.dbBySubCountyCode(partOf).parallelStream()
-                        .map(parish -> new CodeNameDto(parish.getCode() , parish.getName()))
-                        .sorted(Comparator.comparing(CodeNameDto::getCode)).toList();
-                yield new AdministrativeAreaResponseDto<>(codeNameDtoList);
-            }
+        // code and name selected and sorted in SQL
+        List<CodeNameDto> codeNameDtoList = switch (administrativeAreaType) {
+            case REGION -> dbRegionService.dbCodeNames();
+            case SUBREGION -> dbSubRegionService.dbCodeNamesByRegionCode(partOf);
+            case LOCALGOVERNMENT -> dbLocalGovernmentService.dbCodeNamesBySubRegionCode(partOf);
+            case COUNTY -> dbCountyService.dbCodeNamesByLocalGovernmentCode(partOf);
+            case SUBCOUNTY -> dbSubCountyService.dbCodeNamesByCountyCode(partOf);
+            case PARISH -> dbParishService.dbCodeNamesBySubCountyCode(partOf);
         };
+        return new AdministrativeAreaResponseDto<>(codeNameDtoList);
 
     }
 
@@ -528,83 +498,22 @@ public class AdministrativeAreaServiceImpl implements AdministrativeAreaService
 
         AdministrativeAreaType administrativeAreaType = optionalAdministrativeAreaType.get();
 
-        return switch (administrativeAreaType) {
-            case REGION -> {
-                // get reg subRegs
-                // get sub Lgs
-                // get lgs counties
-                // get counties subcounties
-                // get subcounties parishes
-                List<String> subRegionCodes = dbSubRegionService.dbByRegionCode(partOfCode).parallelStream().map(subRegion -> subRegion.getCode()).distinct().toList();
-                List<String> lgCodes = dbLocalGovernmentService.dbBySubRegionCodes(subRegionCodes).parallelStream().map(localGovernment -> localGovernment.getCode()).distinct().toList();
-                List<String> countyCodes = dbCountyService.dbAllByLocalGovernmentCodes(lgCodes).parallelStream().map(county -> county.getCode()).distinct().toList();
-                List<String> subCounties = dbSubCountyService.dbByCountyCodes(countyCodes).parallelStream().map(subCounty -> subCounty.getCode()).distinct().toList();
-                List<CodeNameDto> codeNameDtoList = dbParishService.dbBySubCountyCodes(subCounties).parallelStream().map(parish -> new CodeNameDto(parish.getCode() , parish.getName())).distinct().toList();
-
-                yield new AdministrativeAreaResponseDto<>(codeNameDtoList);
-            }
-
-            case SUBREGION -> {
-
-                if (!notNullEmpty(partOfCode)) {
-                    throw new MissingDataException("Missing Administrative Area partOf");
-                }
-                // get sub Lgs
-                // get lgs counties
-                // get counties subcounties
-                // get subcounties parishes
-                List<String> lgCodes = dbLocalGovernmentService.dbBySubRegionCode(partOfCode).parallelStream().map(localGovernment -> localGovernment.getCode()).distinct().toList();
-                List<String> countyCodes = dbCountyService.dbAllByLocalGovernmentCodes(lgCodes).parallelStream().map(county -> county.getCode()).distinct().toList();
-                List<String> subCounties = dbSubCountyService.dbByCountyCodes(countyCodes).parallelStream().map(subCounty -> subCounty.getCode()).distinct().toList();
-                List<CodeNameDto> codeNameDtoList = dbParishService.dbBySubCountyCodes(subCounties).parallelStream().map(parish -> new CodeNameDto(parish.getCode() , parish.getName()))
-                        .sorted(Comparator.comparing(CodeNameDto::getCode))
-                        .toList();
-                yield new AdministrativeAreaResponseDto<>(codeNameDtoList);
-            }
-
-            case LOCALGOVERNMENT -> {
-                if (!notNullEmpty(partOfCode)) {
-                    throw new MissingDataException("Missing Administrative Area partOf");
-                }
-                // get lg counties
-                // get counties subcouties
-                // get subcounties parishes
-                List<String> countyCodes = dbCountyService.dbAllByLocalGovernmentCode(partOfCode).parallelStream().map(county -> county.getCode()).distinct().toList();
-                List<String> subCountyCodes = dbSubCountyService.dbByCountyCodes(countyCodes).parallelStream().map(subCounty -> subCounty.getCode()).distinct().toList();
-
-                List<CodeNameDto> codeNameDtoList = dbParishService.dbBySubCountyCodes(subCountyCodes).parallelStream().map(parish -> new CodeNameDto(parish.getCode() , parish.getName()))
-                        .sorted(Comparator.comparing(CodeNameDto::getCode))
-                        .toList();
-                yield new AdministrativeAreaResponseDto<>(codeNameDtoList);
-            }
-
-            case COUNTY -> {
-                if (!notNullEmpty(partOfCode)) {
-                    throw new MissingDataException("Missing Administrative Area partOf");
-                }
-                // get county subcounty
-                // get subCounties parishes
-                List<String> subCountyCodes = dbSubCountyService.dbByCountyCode(partOfCode).parallelStream().map(subCounty -> subCounty.getCode()).distinct().toList();
-
-                List<CodeNameDto> codeNameDtoList = dbParishService.dbBySubCountyCodes(subCountyCodes).parallelStream().map(parish -> new CodeNameDto(parish.getCode() , parish.getName()))
-                        .sorted(Comparator.comparing(CodeNameDto::getCode))
-                        .toList();
-                yield new AdministrativeAreaResponseDto<>(codeNameDtoList);
-            }
-
-            case SUBCOUNTY -> {
-                if (!notNullEmpty(partOfCode)) {
-                    throw new MissingDataException("Missing Administrative Area partOf");
-                }
+        // checked before either source is asked, with and without the gazetteer a region without partOfCode has no parishes
+        if (administrativeAreaType != AdministrativeAreaType.REGION && !notNullEmpty(partOfCode)) {
+            throw new MissingDataException("Missing Administrative Area partOf");
+        }
 
-                List<CodeNameDto> codeNameDtoList = dbParishService.dbBySubCountyCode(partOfCode).parallelStream().map(parish -> new CodeNameDto(parish.getCode() , parish.getName()))
-                        .sorted(Comparator.comparing(CodeNameDto::getCode))
-                        .toList();
-                yield new AdministrativeAreaResponseDto<>(codeNameDtoList);
-            }
+        if (gazetteerService.isEnabled()) {
+            List<CodeNameDto> codeNameDtoList = gazetteerService.current().descendants(administrativeAreaType, partOfCode, AdministrativeAreaType.PARISH)
+                    .stream().map(this::convertCodeNameDto).toList();
+            return new AdministrativeAreaResponseDto<>(codeNameDtoList);
+        }
 
-            case PARISH -> new AdministrativeAreaResponseDto<>(Collections.emptyList());
-        };
+        if (administrativeAreaType == AdministrativeAreaType.PARISH || !notNullEmpty(partOfCode)) {
+            return new AdministrativeAreaResponseDto<>(Collections.emptyList());
+        }
+        // one join of the closure table with parish, whatever the depth of partOfCode
+        return new AdministrativeAreaResponseDto<>(closureService.parishes(administrativeAreaType, partOfCode));
 
     }
 
@@ -620,20 +529,36 @@ public class AdministrativeAreaServiceImpl implements AdministrativeAreaService
         }
 
         AdministrativeAreaType administrativeAreaType = optionalAdministrativeAreaType.get();
+        KeysetPage page = keysetPage(queryMap);
+
+        if (gazetteerService.isEnabled()) {
+            Gazetteer gazetteer = gazetteerService.current();
+            List<GazetteerNode> nodes = administrativeAreaType != AdministrativeAreaType.REGION && notNullEmpty(partOf)
+                    ? gazetteer.children(administrativeAreaType, partOf)
+                    : gazetteer.list(administrativeAreaType);
+            if (page != null) {
+                nodes = Gazetteer.page(nodes, page.getAfter(), page.getLimit());
+            }
+            return new AdministrativeAreaResponseDto<>(nodes.stream().map(this::convertAdministrativeAreaDto).toList());
+        }
+
+        if (page != null) {
+            return searchListPage(administrativeAreaType, partOf, page);
+        }
 
         return switch (administrativeAreaType) {
             case REGION -> {
-                List<RegionDto> regionDtos = dbRegionService.dbList().parallelStream().map(AdministrativeAreaServiceImpl::convertRegionDto).sorted(Comparator.comparing(RegionDto::getCode)).toList();
+                List<RegionDto> regionDtos = dbRegionService.dbList().stream().map(AdministrativeAreaServiceImpl::convertRegionDto).sorted(Comparator.comparing(RegionDto::getCode)).toList();
                 yield new AdministrativeAreaResponseDto<>(regionDtos);
             }
             case SUBREGION -> {
 
                 List<SubRegionDto> subRegionDtos;
                 if (notNullEmpty(partOf)) {
-                    subRegionDtos = dbSubRegionService.dbByRegionCode(partOf).parallelStream().map(AdministrativeAreaServiceImpl::convertSubRegionDto).sorted(Comparator.comparing(SubRegionDto::getCode)).toList();
+                    subRegionDtos = dbSubRegionService.dbByRegionCode(partOf).stream().map(AdministrativeAreaServiceImpl::convertSubRegionDto).sorted(Comparator.comparing(SubRegionDto::getCode)).toList();
                 } else {
                     subRegionDtos = dbSubRegionService.dbList()
-                            .parallelStream().map(AdministrativeAreaServiceImpl::convertSubRegionDto).sorted(Comparator.comparing(SubRegionDto::getCode)).toList();
+                            .stream().map(AdministrativeAreaServiceImpl::convertSubRegionDto).sorted(Comparator.comparing(SubRegionDto::getCode)).toList();
                 }
                 yield new AdministrativeAreaResponseDto<>(subRegionDtos);
 
@@ -641,40 +566,40 @@ public class AdministrativeAreaServiceImpl implements AdministrativeAreaService
             case LOCALGOVERNMENT -> {
                 List<LocalGovernmentDto> localGovernmentDtos;
                 if (notNullEmpty(partOf)) {
-                    localGovernmentDtos = dbLocalGovernmentService.dbBySubRegionCode(partOf).parallelStream().map(this::convertLocalGovernmentDto).sorted(Comparator.comparing(LocalGovernmentDto::getCode)).toList();
+                    localGovernmentDtos = dbLocalGovernmentService.dbBySubRegionCode(partOf).stream().map(this::convertLocalGovernmentDto).sorted(Comparator.comparing(LocalGovernmentDto::getCode)).toList();
                 } else {
                     localGovernmentDtos = dbLocalGovernmentService.dbList()
-                            .parallelStream().map(this::convertLocalGovernmentDto).sorted(Comparator.comparing(LocalGovernmentDto::getCode)).toList();
+                            .stream().map(this::convertLocalGovernmentDto).sorted(Comparator.comparing(LocalGovernmentDto::getCode)).toList();
                 }
                 yield new AdministrativeAreaResponseDto<>(localGovernmentDtos);
             }
             case COUNTY -> {
                 List<CountyDto> countyDtos;
                 if (notNullEmpty(partOf)) {
-                    countyDtos = dbCountyService.dbAllByLocalGovernmentCode(partOf).parallelStream().map(this::convertCountyDto).sorted(Comparator.comparing(CountyDto::getCode)).toList();
+                    countyDtos = dbCountyService.dbAllByLocalGovernmentCode(partOf).stream().map(this::convertCountyDto).sorted(Comparator.comparing(CountyDto::getCode)).toList();
                 } else {
                     countyDtos = dbCountyService.dbList()
-                            .parallelStream().map(this::convertCountyDto).sorted(Comparator.comparing(CountyDto::getCode)).toList();
+                            .stream().map(this::convertCountyDto).sorted(Comparator.comparing(CountyDto::getCode)).toList();
                 }
                 yield new AdministrativeAreaResponseDto<>(countyDtos);
             }
             case SUBCOUNTY -> {
                 List<SubCountyDto> subCountyDtos;
                 if (notNullEmpty(partOf)) {
-                    subCountyDtos = dbSubCountyService.dbByCountyCode(partOf).parallelStream().map(this::convertSubCountyDto).sorted(Comparator.comparing(SubCountyDto::getCode)).toList();
+                    subCountyDtos = dbSubCountyService.dbByCountyCode(partOf).stream().map(this::convertSubCountyDto).sorted(Comparator.comparing(SubCountyDto::getCode)).toList();
                 } else {
                     subCountyDtos = dbSubCountyService.dbList()
-                            .parallelStream().map(this::convertSubCountyDto).sorted(Comparator.comparing(SubCountyDto::getCode)).toList();
+                            .stream().map(this::convertSubCountyDto).sorted(Comparator.comparing(SubCountyDto::getCode)).toList();
                 }
                 yield new AdministrativeAreaResponseDto<>(subCountyDtos);
             }
             case PARISH -> {
                 List<ParishDto> parishDtos;
                 if (notNullEmpty(partOf)) {
-                    parishDtos = dbParishService.dbBySubCountyCode(partOf).parallelStream().map(this::convertParishDto).sorted(Comparator.comparing(ParishDto::getCode)).toList();
+                    parishDtos = dbParishService.dbBySubCountyCode(partOf).stream().map(this::convertParishDto).sorted(Comparator.comparing(ParishDto::getCode)).toList();
                 } else {
                     parishDtos = dbParishService.dbList()
-                            .parallelStream().map(this::convertParishDto).sorted(Comparator.comparing(ParishDto::getCode)).toList();
+                            .stream().map(this::convertParishDto).sorted(Comparator.comparing(ParishDto::getCode)).toList();
                 }
                 yield new AdministrativeAreaResponseDto<>(parishDtos);
             }
@@ -682,6 +607,46 @@ public class AdministrativeAreaServiceImpl implements AdministrativeAreaService
 
     }
 
+    // ORDER BY code LIMIT n on the code indexes, only one page is ever loaded
+    private AdministrativeAreaResponseDto<List<CodeNameDto>> filterListPage(AdministrativeAreaType administrativeAreaType, String partOf, KeysetPage page) {
+        if (administrativeAreaType != AdministrativeAreaType.REGION && !notNullEmpty(partOf)) {
+            throw new MissingDataException("Missing Administrative Area partOf");
+        }
+
+        String after = page.getAfter();
+        int limit = page.getLimit();
+        List<CodeNameDto> codeNameDtoList = switch (administrativeAreaType) {
+            case REGION -> dbRegionService.dbCodeNamesPage(after, limit);
+            case SUBREGION -> dbSubRegionService.dbCodeNamesPageByRegionCode(partOf, after, limit);
+            case LOCALGOVERNMENT -> dbLocalGovernmentService.dbCodeNamesPageBySubRegionCode(partOf, after, limit);
+            case COUNTY -> dbCountyService.dbCodeNamesPageByLocalGovernmentCode(partOf, after, limit);
+            case SUBCOUNTY -> dbSubCountyService.dbCodeNamesPageByCountyCode(partOf, after, limit);
+            case PARISH -> dbParishService.dbCodeNamesPageBySubCountyCode(partOf, after, limit);
+        };
+        return new AdministrativeAreaResponseDto<>(codeNameDtoList);
+    }
+
+    private AdministrativeAreaResponseDto<List<? extends AdministrativeAreaDto>> searchListPage(AdministrativeAreaType administrativeAreaType, String partOf, KeysetPage page) {
+        String after = page.getAfter();
+        int limit = page.getLimit();
+        boolean byPartOf = notNullEmpty(partOf);
+        List<? extends AdministrativeAreaDto> dtos = switch (administrativeAreaType) {
+            case REGION -> dbRegionService.dbPage(after, limit).stream()
+                    .map(AdministrativeAreaServiceImpl::convertRegionDto).toList();
+            case SUBREGION -> (byPartOf ? dbSubRegionService.dbPageByRegionCode(partOf, after, limit) : dbSubRegionService.dbPage(after, limit)).stream()
+                    .map(AdministrativeAreaServiceImpl::convertSubRegionDto).toList();
+            case LOCALGOVERNMENT -> (byPartOf ? dbLocalGovernmentService.dbPageBySubRegionCode(partOf, after, limit) : dbLocalGovernmentService.dbPage(after, limit)).stream()
+                    .map(this::convertLocalGovernmentDto).toList();
+            case COUNTY -> (byPartOf ? dbCountyService.dbPageByLocalGovernmentCode(partOf, after, limit) : dbCountyService.dbPage(after, limit)).stream()
+                    .map(this::convertCountyDto).toList();
+            case SUBCOUNTY -> (byPartOf ? dbSubCountyService.dbPageByCountyCode(partOf, after, limit) : dbSubCountyService.dbPage(after, limit)).stream()
+                    .map(this::convertSubCountyDto).toList();
+            case PARISH -> (byPartOf ? dbParishService.dbPageBySubCountyCode(partOf, after, limit) : dbParishService.dbPage(after, limit)).stream()
+                    .map(this::convertParishDto).toList();
+        };
+        return new AdministrativeAreaResponseDto<>(dtos);
+    }
+
     @Override
     public AdministrativeAreaResponseDto<? extends AdministrativeAreaDto> searchOne(Map<String, String> queryMap) {
         String type = queryMap.get("type");
@@ -698,6 +663,11 @@ public class AdministrativeAreaServiceImpl implements AdministrativeAreaService
 
         AdministrativeAreaType administrativeAreaType = optionalAdministrativeAreaType.get();
 
+        if (gazetteerService.isEnabled()) {
+            GazetteerNode node = gazetteerService.current().byCode(administrativeAreaType, code).orElseThrow(() -> new NotFoundException(administrativeAreaType.getAdministrativeAreaType() + " not found"));
+            return new AdministrativeAreaResponseDto<>(convertAdministrativeAreaDto(node));
+        }
+
         return switch (administrativeAreaType) {
             case REGION -> {
                 Region region = dbRegionService.dbByCode(code).orElseThrow(() -> new NotFoundException("Region  not found"));
@@ -729,310 +699,29 @@ public class AdministrativeAreaServiceImpl implements AdministrativeAreaService
     }
 
     @Override
-    public AdministrativeAreaResponseDto<String> upload(List<AdministrativeAreaExcelDto> dtoList) {
-//        System.out.println(dtoList);
-        uploadAdministrativeAreas(dtoList);
-        return new AdministrativeAreaResponseDto<>("Successfully updated " + dtoList.size());
-    }
-
-    @Async
-    public void uploadAdministrativeAreas(List<AdministrativeAreaExcelDto> dtoList) {
-        // REGION
-        uploadRegions(dtoList);
-
-//        //LOCALGOVERNMENT
-//        uploadLocalGovernment(dtoList);
-//
-//        //COUNTY
-//        uploadCounty(dtoList);
-//
-//        //SUBCOUNTY
-//        uploadSubCounty(dtoList);
-//
-//        //PARISH
-//        uploadParishes(dtoList);
-    }
-
-    private void uploadParishes(List<AdministrativeAreaExcelDto> dtoList) {
-        List<Parish> dbParishes = dbParishService.dbList();
-
-        Set<UParish> newParishSet = dtoList.parallelStream().filter(dto -> dbParishes.stream().noneMatch(dbParish -> {
-            SubCounty subCounty = dbParish.getSubCounty();
-            County county = subCounty.getCounty();
-            LocalGovernment localGovernment = county.getLocalGovernment();
-            SubRegion subRegion = localGovernment.getSubRegion();
-            Region region = subRegion.getRegion();
-            return (dbParish.getName().equalsIgnoreCase(dto.getParish())
-                    && subCounty.getName().equalsIgnoreCase(dto.getSubCounty())
-                    && county.getName().equalsIgnoreCase(dto.getCounty())
-                    && localGovernment.getName().equalsIgnoreCase(dto.getLocalGovernment())
-                    && subRegion.getName().equalsIgnoreCase(dto.getSubRegion())
-                    && region.getName().equalsIgnoreCase(dto.getRegion()));
-        })).map(dto -> new UParish(dto.getParish(), dto.getDbSubCounty())).collect(Collectors.toSet());
-
-
-        if (newParishSet.size() > 0) {
-            List<Parish> newParishes = newParishSet.stream().map(UP -> {
-                        Parish parish = new Parish();
-                        parish.setCode(generateCode(AdministrativeAreaType.PARISH));
-                        parish.setName(UP.name());
-                        parish.setSubCounty(UP.subCounty());
-                        return parish;
-                    })
-                    .toList();
-            dbParishService.dbNew(newParishes);
-        }
-
-    }
-
-    private void uploadSubCounty(List<AdministrativeAreaExcelDto> dtoList) {
-        List<SubCounty> dbSubCounties = dbSubCountyService.dbList();
-
-        Set<USubCounty> newSubCountySet = dtoList.parallelStream().filter(dto -> dbSubCounties.stream().noneMatch(dbSubCounty -> {
-            County county = dbSubCounty.getCounty();
-            LocalGovernment localGovernment = county.getLocalGovernment();
-            SubRegion subRegion = localGovernment.getSubRegion();
-            Region region = subRegion.getRegion();
-            return (dbSubCounty.getName().equalsIgnoreCase(dto.getSubCounty())
-                    && county.getName().equalsIgnoreCase(dto.getCounty())
-                    && localGovernment.getName().equalsIgnoreCase(dto.getLocalGovernment())
-                    && subRegion.getName().equalsIgnoreCase(dto.getSubRegion())
-                    && region.getName().equalsIgnoreCase(dto.getRegion()));
-        })).map(dto -> new USubCounty(dto.getSubCounty(), dto.getDbCounty())).collect(Collectors.toSet());
-
-
-        List<SubCounty> dbSubCounties2;
-        if (newSubCountySet.size() > 0) {
-            List<SubCounty> newSubCounties = newSubCountySet.stream().map(dto -> {
-                SubCounty subCounty = new SubCounty();
-                subCounty.setCode(generateCode(AdministrativeAreaType.SUBCOUNTY));
-                subCounty.setName(dto.name());
-                subCounty.setCounty(dto.county());
-                return subCounty;
-            }).toList();
-
-            dbSubCountyService.dbNew(newSubCounties);
-            dbSubCounties2 = dbSubCountyService.dbList();
-        } else {
-            dbSubCounties2 = dbSubCounties;
-        }
-
-
-        // ADDING Subcounty TO LIST
-        List<SubCounty> finalDbSubCounties = dbSubCounties2;
-        List<AdministrativeAreaExcelDto> newDtos = dtoList.parallelStream()
-                .flatMap(oldDto -> finalDbSubCounties.stream()
-                        .filter(dbSubCounty -> {
-                            County county = dbSubCounty.getCounty();
-                            LocalGovernment localGovernment = county.getLocalGovernment();
-                            SubRegion subRegion = localGovernment.getSubRegion();
-                            Region region = subRegion.getRegion();
-                            return (dbSubCounty.getName().equalsIgnoreCase(oldDto.getSubCounty())
-                                    && county.getName().equalsIgnoreCase(oldDto.getCounty())
-                                    && localGovernment.getName().equalsIgnoreCase(oldDto.getLocalGovernment())
-                                    && subRegion.getName().equalsIgnoreCase(oldDto.getSubRegion())
-                                    && region.getName().equalsIgnoreCase(oldDto.getRegion())
-                            );
-                        })
-                        .map(subCounty -> {
-                            oldDto.setDbSubCounty(subCounty);
-                            return oldDto;
-                        })).toList();
-
-
-        /// UPLOAD Parishes
-        uploadParishes(newDtos);
-
-    }
-
-    private void uploadCounty(List<AdministrativeAreaExcelDto> dtoList) {
-        List<County> dbCounties = dbCountyService.dbList();
-
-        Set<UCounty> newCountSet = dtoList.parallelStream().filter(dto -> dbCounties.stream().parallel().noneMatch(dbCounty -> {
-            LocalGovernment localGovernment = dbCounty.getLocalGovernment();
-            SubRegion subRegion = localGovernment.getSubRegion();
-            Region region = subRegion.getRegion();
-            return (dbCounty.getName().equalsIgnoreCase(dto.getCounty())
-                    && localGovernment.getName().equalsIgnoreCase(dto.getLocalGovernment())
-                    && subRegion.getName().equalsIgnoreCase(dto.getSubRegion())
-                    && region.getName().equalsIgnoreCase(dto.getRegion()));
-        })).map(dto -> new UCounty(dto.getCounty(), dto.getDbLocalGovernment())).collect(Collectors.toSet());
-
-        List<County> dbCounties2;
-        if (newCountSet.size() > 0) {
-            List<County> newCounties = newCountSet.stream().map(UC -> {
-                County county = new County();
-                county.setCode(generateCode(AdministrativeAreaType.COUNTY));
-                county.setName(UC.name());
-                county.setLocalGovernment(UC.localGovernment());
-                return county;
-            }).toList();
-            dbCountyService.dbNew(newCounties);
-            dbCounties2 = dbCountyService.dbList();
-        } else {
-            dbCounties2 = dbCounties;
-        }
-
-
-        // ADDING Count TO LIST
-
-
-        List<AdministrativeAreaExcelDto> newDtos = dtoList.parallelStream()
-                .flatMap(oldDto -> dbCounties2.stream()
-                        .filter(dbCounty -> {
-                            LocalGovernment localGovernment = dbCounty.getLocalGovernment();
-                            SubRegion subRegion = localGovernment.getSubRegion();
-                            Region region = subRegion.getRegion();
-                            return (dbCounty.getName().equalsIgnoreCase(oldDto.getCounty())
-                                    && localGovernment.getName().equalsIgnoreCase(oldDto.getLocalGovernment())
-                                    && subRegion.getName().equalsIgnoreCase(oldDto.getSubRegion())
-                                    && region.getName().equalsIgnoreCase(oldDto.getRegion()));
-                        })
-                        .map(county -> {
-                            oldDto.setDbCounty(county);
-                            return oldDto;
-                        })).toList();
-
-        /// UPLOAD SUB COUNTYe());
-        uploadSubCounty(newDtos);
-
-    }
-
-    private void uploadLocalGovernment(List<AdministrativeAreaExcelDto> dtoList) {
-        List<LocalGovernment> dbLocalGovernments = dbLocalGovernmentService.dbList();
-
-        Set<ULocalGovernment> newLocalGovernmentSet = dtoList.parallelStream().filter(dto -> dbLocalGovernments.stream().noneMatch(dbLocalGovernment -> {
-            SubRegion subRegion = dto.getDbSubRegion();
-            Region region = dto.getDbRegion();
-            return (dbLocalGovernment.getName().equalsIgnoreCase(dto.getLocalGovernment())
-                    && subRegion.getName().equalsIgnoreCase(dto.getSubRegion())
-                    && region.getName().equalsIgnoreCase(dto.getRegion()));
-        })).map(dto -> new ULocalGovernment(dto.getLocalGovernment(), dto.getDbSubRegion())).collect(Collectors.toSet());
-
-
-        List<LocalGovernment> dbLocalGovernments2;
-        if (newLocalGovernmentSet.size() > 0) {
-            List<LocalGovernment> newLocalGovernments = newLocalGovernmentSet.stream().map(uL -> {
-                LocalGovernment localGovernment = new LocalGovernment();
-                localGovernment.setCode(generateCode(AdministrativeAreaType.LOCALGOVERNMENT));
-                localGovernment.setName(uL.name());
-                localGovernment.setSubRegion(uL.subRegion());
-                return localGovernment;
-            }).toList();
-            dbLocalGovernmentService.dbNew(newLocalGovernments);
-            dbLocalGovernments2 = dbLocalGovernmentService.dbList();
-        } else {
-            dbLocalGovernments2 = dbLocalGovernments;
-        }
-
-
-        // ADDING LOCAL GOVERNMENT TO LIST
-        List<AdministrativeAreaExcelDto> newDtos = dtoList.parallelStream()
-                .flatMap(oldDto -> dbLocalGovernments2.stream()
-                        .filter(dbLocalGovernment -> {
-                            SubRegion subRegion = dbLocalGovernment.getSubRegion();
-                            Region region = subRegion.getRegion();
-                            return (dbLocalGovernment.getName().equalsIgnoreCase(oldDto.getLocalGovernment())
-                                    && subRegion.getName().equalsIgnoreCase(oldDto.getSubRegion())
-                                    && region.getName().equalsIgnoreCase(oldDto.getRegion()));
-                        })
-                        .map(localGovernment -> {
-                            oldDto.setDbLocalGovernment(localGovernment);
-                            return oldDto;
-                        })).toList();
-
-
-        /// UPLOAD COUNTY
-        uploadCounty(newDtos);
-
-    }
-
-    private void uploadSubRegions(List<AdministrativeAreaExcelDto> dtoList) {
-        List<SubRegion> dbSubRegions = dbSubRegionService.dbList();
-
-        Set<USubRegion> newSubRegionSet = dtoList.stream().filter(dto -> dbSubRegions.stream().noneMatch(dbSubRegion -> {
-                    Region region = dto.getDbRegion();
-                    return (dbSubRegion.getName().equalsIgnoreCase(dto.getSubRegion()) && region.getName().equalsIgnoreCase(dto.getRegion()));
-                })).map(dto -> new USubRegion(dto.getSubRegion(), dto.getDbRegion()))
-                .collect(Collectors.toSet());
-
-        List<SubRegion> dbSubRegions2;
-        if (newSubRegionSet.size() > 0) {
-            List<SubRegion> newSubRegions = newSubRegionSet.stream().map(uSubRegion -> {
-                SubRegion subRegion = new SubRegion();
-                subRegion.setCode(generateCode(AdministrativeAreaType.SUBREGION));
-                subRegion.setName(uSubRegion.name());
-                // region
-                subRegion.setRegion(uSubRegion.region());
-                return subRegion;
-            }).toList();
-            dbSubRegionService.dbNew(newSubRegions);
-            dbSubRegions2 = dbSubRegionService.dbList();
-        } else {
-            dbSubRegions2 = dbSubRegions;
-        }
-
-
-        //Update list with db SubREGION
-        List<AdministrativeAreaExcelDto> newDtos = dtoList.parallelStream()
-                .flatMap(oldDto -> dbSubRegions2.stream()
-                        .filter(dbSubRegion -> {
-                            Region region = dbSubRegion.getRegion();
-                            return (dbSubRegion.getName().equalsIgnoreCase(oldDto.getSubRegion()) && region.getName().equalsIgnoreCase(oldDto.getRegion()));
-                        })
-                        .map(subRegion -> {
-                            oldDto.setDbSubRegion(subRegion);
-                            return oldDto;
-                        })).toList();
-
-
-        // UPLOAD LOCAL GOVERNMENT
-        uploadLocalGovernment(newDtos);
-
-    }
-
-    @Transactional
-    void uploadRegions(List<AdministrativeAreaExcelDto> dtoList) {
-        List<Region> dbRegions = dbRegionService.dbList();
-        // exclude existing regions
-        List<Region> newRegions = dtoList.parallelStream().filter(dto -> dbRegions.stream().noneMatch(dbRegion -> (dbRegion.getName().equalsIgnoreCase(dto.getRegion()))))
-                .filter(distinctByKey(AdministrativeAreaExcelDto::getRegion))
-                .map(dto -> {
-                    Region region = new Region();
-                    region.setCode(generateCode(AdministrativeAreaType.REGION));
-                    region.setName(dto.getRegion());
-                    return region;
-                })
-                .toList();
-
-        List<Region> dbRegions2;
-        if (newRegions.size() > 0) {
-            dbRegionService.dbNew(newRegions);
-            dbRegions2 = dbRegionService.dbList();
-        } else {
-            dbRegions2 = dbRegions;
+    public void upload(Path file, UploadFormat format, UploadProgress progress) {
+        Gazetteer before = gazetteerBeforeWrite();
+        try {
+            uploadPipeline.run(file, format, progress);
+        } catch (RuntimeException e) {
+            // the chunks saved before the failure are committed, they are published like any other write
+            try {
+                closureService.rebuild();
+                areaWritePublisher.published(before);
+            } catch (RuntimeException publishFailure) {
+                e.addSuppressed(publishFailure);
+            }
+            throw e;
         }
-
-
-        //Update list with db Region
-        List<AdministrativeAreaExcelDto> newDtos = dtoList.parallelStream()
-                .flatMap(oldDto -> dbRegions2.stream().filter(region -> region.getName().equalsIgnoreCase(oldDto.getRegion()))
-                        .map(region -> {
-                            oldDto.setDbRegion(region);
-                            return oldDto;
-                        })).toList();
-        uploadSubRegions(newDtos);
-    }
-
-    public static <T> Predicate<T> distinctByKey(
-            Function<? super T, ?> keyExtractor) {
-
-        Map<Object, Boolean> seen = new ConcurrentHashMap<>();
-        return t -> seen.putIfAbsent(keyExtractor.apply(t), Boolean.TRUE) == null;
+        // one set based rebuild instead of maintaining the closure row by row for the whole file
+        closureService.rebuild();
+        areaWritePublisher.published(before);
     }
 
     @Override
+    @Transactional
     public AdministrativeAreaResponseDto<String> updateOne(Map<String, String> queryMap, UpdateAdministrativeAreaDto dto) {
+        Gazetteer before = gazetteerBeforeWrite();
         String type = queryMap.get("type");
 
 
@@ -1043,7 +732,7 @@ public class AdministrativeAreaServiceImpl implements AdministrativeAreaService
 
         AdministrativeAreaType administrativeAreaType = optionalAdministrativeAreaType.get();
 
-        return switch (administrativeAreaType) {
+        AdministrativeAreaResponseDto<String> response = switch (administrativeAreaType) {
             case REGION -> {
                 Region region = dbRegionService.dbByCode(dto.getCode()).orElseThrow(() -> new InvalidException("Invalid PartOfCode"));
                 if (notNullEmpty(dto.getName())) {
@@ -1090,9 +779,13 @@ public class AdministrativeAreaServiceImpl implements AdministrativeAreaService
                     subRegion.setDescription(dto.getDescription());
                 }
 
+                boolean moved = !subRegion.getRegion().getId().equals(region.getId());
                 subRegion.setRegion(region);
 
                 dbSubRegionService.dbNew(subRegion);
+                if (moved) {
+                    closureService.moved(AdministrativeAreaType.SUBREGION, subRegion.getCode());
+                }
                 yield new AdministrativeAreaResponseDto<>("SUCCESS");
             }
             case LOCALGOVERNMENT -> {
@@ -1120,9 +813,13 @@ public class AdministrativeAreaServiceImpl implements AdministrativeAreaService
                     localGovernment.setDescription(dto.getDescription());
                 }
 
+                boolean moved = !localGovernment.getSubRegion().getId().equals(subRegion.getId());
                 localGovernment.setSubRegion(subRegion);
 
                 dbLocalGovernmentService.dbNew(localGovernment);
+                if (moved) {
+                    closureService.moved(AdministrativeAreaType.LOCALGOVERNMENT, localGovernment.getCode());
+                }
                 yield new AdministrativeAreaResponseDto<>("SUCCESS");
             }
             case COUNTY -> {
@@ -1150,9 +847,13 @@ public class AdministrativeAreaServiceImpl implements AdministrativeAreaService
                     county.setDescription(dto.getDescription());
                 }
 
+                boolean moved = !county.getLocalGovernment().getId().equals(localGovernment.getId());
                 county.setLocalGovernment(localGovernment);
 
                 dbCountyService.dbNew(county);
+                if (moved) {
+                    closureService.moved(AdministrativeAreaType.COUNTY, county.getCode());
+                }
                 yield new AdministrativeAreaResponseDto<>("SUCCESS");
             }
             case SUBCOUNTY -> {
@@ -1180,9 +881,13 @@ public class AdministrativeAreaServiceImpl implements AdministrativeAreaService
                     subCounty.setDescription(dto.getDescription());
                 }
 
+                boolean moved = !subCounty.getCounty().getId().equals(county.getId());
                 subCounty.setCounty(county);
 
                 dbSubCountyService.dbNew(subCounty);
+                if (moved) {
+                    closureService.moved(AdministrativeAreaType.SUBCOUNTY, subCounty.getCode());
+                }
                 yield new AdministrativeAreaResponseDto<>("SUCCESS");
             }
             case PARISH -> {
@@ -1210,13 +915,20 @@ public class AdministrativeAreaServiceImpl implements AdministrativeAreaService
                     parish.setDescription(dto.getDescription());
                 }
 
+                boolean moved = !parish.getSubCounty().getId().equals(subCounty.getId());
                 parish.setSubCounty(subCounty);
 
                 dbParishService.dbNew(parish);
+                if (moved) {
+                    closureService.moved(AdministrativeAreaType.PARISH, parish.getCode());
+                }
                 yield new AdministrativeAreaResponseDto<>("SUCCESS");
             }
         };
 
+        afterCommit(before);
+        return response;
+
     }
 
 
@@ -1290,6 +1002,47 @@ public class AdministrativeAreaServiceImpl implements AdministrativeAreaService
         return dto;
     }
 
+    private CodeNameDto convertCodeNameDto(GazetteerNode node) {
+        return new CodeNameDto(node.getCode(), node.getName());
+    }
+
+    private AdministrativeAreaDto convertAdministrativeAreaDto(GazetteerNode node) {
+        AdministrativeAreaDto dto = switch (node.getType()) {
+            case REGION -> new RegionDto();
+            case SUBREGION -> {
+                SubRegionDto subRegionDto = new SubRegionDto();
+                subRegionDto.setRegion((RegionDto) convertAdministrativeAreaDto(node.getParent()));
+                yield subRegionDto;
+            }
+            case LOCALGOVERNMENT -> {
+                LocalGovernmentDto localGovernmentDto = new LocalGovernmentDto();
+                localGovernmentDto.setSubRegion((SubRegionDto) convertAdministrativeAreaDto(node.getParent()));
+                yield localGovernmentDto;
+            }
+            case COUNTY -> {
+                CountyDto countyDto = new CountyDto();
+                countyDto.setLocalGovernment((LocalGovernmentDto) convertAdministrativeAreaDto(node.getParent()));
+                yield countyDto;
+            }
+            case SUBCOUNTY -> {
+                SubCountyDto subCountyDto = new SubCountyDto();
+                subCountyDto.setCounty((CountyDto) convertAdministrativeAreaDto(node.getParent()));
+                yield subCountyDto;
+            }
+            case PARISH -> {
+                ParishDto parishDto = new ParishDto();
+                parishDto.setSubCounty((SubCountyDto) convertAdministrativeAreaDto(node.getParent()));
+                yield parishDto;
+            }
+        };
+
+        dto.setCode(node.getCode());
+        dto.setName(node.getName());
+        dto.setLatitude(node.getLatitude() != null ? String.valueOf(node.getLatitude()) : "");
+        dto.setLongitude(node.getLongitude() != null ? String.valueOf(node.getLongitude()) : "");
+        return dto;
+    }
+
 
 //    private final AdministrativeAreaRepository administrativeAreaRepository;
 //
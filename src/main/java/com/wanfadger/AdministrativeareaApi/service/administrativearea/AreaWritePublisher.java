@@ -0,0 +1,70 @@
+package com.wanfadger.AdministrativeareaApi.service.administrativearea;
+
+import com.wanfadger.AdministrativeareaApi.service.datasetversion.DatasetVersionService;
+import com.wanfadger.AdministrativeareaApi.service.gazetteer.Gazetteer;
+import com.wanfadger.AdministrativeareaApi.service.gazetteer.GazetteerService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+ * Publishes committed writes: the gazetteer is rebuilt, the cache entries its diff touches are evicted and the dataset
+ * version moves last, so a client that sees the new ETag never gets a stale cached response.
+ * The rebuild reads every table, it runs on its own thread instead of holding the request. Writes that commit while a
+ * rebuild is queued share it, diffed from the oldest snapshot among them. Until it is done reads still see the old data.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AreaWritePublisher {
+    private final GazetteerService gazetteerService;
+    private final AdministrativeAreaCacheEvictor administrativeAreaCacheEvictor;
+    private final DatasetVersionService datasetVersionService;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("gazetteer-rebuild").factory());
+
+    // the snapshot taken before the oldest write the queued rebuild is for, null while none is queued
+    private Gazetteer queued;
+
+    public void published(Gazetteer before) {
+        if (!gazetteerService.isEnabled()) {
+            administrativeAreaCacheEvictor.clear();
+            datasetVersionService.refresh();
+            return;
+        }
+
+        synchronized (this) {
+            // the queued rebuild has not read the tables yet, it picks this write up
+            if (queued != null) {
+                return;
+            }
+            queued = before;
+        }
+        executor.execute(this::rebuild);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    private void rebuild() {
+        Gazetteer before;
+        synchronized (this) {
+            before = queued;
+            queued = null;
+        }
+
+        try {
+            administrativeAreaCacheEvictor.evict(before, gazetteerService.refresh());
+        } catch (RuntimeException e) {
+            log.error("Gazetteer rebuild after a write failed, clearing the administrative area caches", e);
+            administrativeAreaCacheEvictor.clear();
+        }
+        datasetVersionService.refresh();
+    }
+}
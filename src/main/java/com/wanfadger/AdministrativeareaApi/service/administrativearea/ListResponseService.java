@@ -0,0 +1,24 @@
+package com.wanfadger.AdministrativeareaApi.service.administrativearea;
+
+import com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaDto;
+import com.wanfadger.AdministrativeareaApi.dto.CodeNameDto;
+import com.wanfadger.AdministrativeareaApi.shared.reponses.AdministrativeAreaResponseDto;
+import com.wanfadger.AdministrativeareaApi.shared.reponses.RenderedResponse;
+
+import java.util.List;
+import java.util.Map;
+
+// cached responses of the list endpoints, either as dtos or as pre-rendered JSON
+public interface ListResponseService {
+
+    boolean isRendered();
+
+    AdministrativeAreaResponseDto<List<CodeNameDto>> filterList(Map<String, String> queryMap);
+    AdministrativeAreaResponseDto<List<CodeNameDto>> getParishByPartOf(Map<String, String> queryMap);
+    AdministrativeAreaResponseDto<List<? extends AdministrativeAreaDto>> searchList(Map<String, String> queryMap);
+
+    RenderedResponse filterListJson(Map<String, String> queryMap);
+    RenderedResponse getParishByPartOfJson(Map<String, String> queryMap);
+    RenderedResponse searchListJson(Map<String, String> queryMap);
+
+}
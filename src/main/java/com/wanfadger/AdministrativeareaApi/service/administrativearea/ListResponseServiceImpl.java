@@ -0,0 +1,98 @@
+package com.wanfadger.AdministrativeareaApi.service.administrativearea;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaDto;
+import com.wanfadger.AdministrativeareaApi.dto.CodeNameDto;
+import com.wanfadger.AdministrativeareaApi.shared.cache.AdministrativeAreaKeyGenerator;
+import com.wanfadger.AdministrativeareaApi.shared.reponses.AdministrativeAreaResponseDto;
+import com.wanfadger.AdministrativeareaApi.shared.reponses.RenderedResponse;
+import com.wanfadger.AdministrativeareaApi.shared.util.CacheKeys;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/*
+ * With rendered responses enabled the list endpoints cache the serialized envelope instead of the dtos,
+ * a hit is written to the client without going through Jackson or allocating the dtos again.
+ * Rendering uses the same ObjectMapper as Spring MVC so the bytes match what the dto variant produces.
+ * Large bodies are also gzipped once here, so compression is paid once per dataset version instead of per request.
+ */
+@Service
+@RequiredArgsConstructor
+public class ListResponseServiceImpl implements ListResponseService {
+    private final AdministrativeAreaService administrativeAreaService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${administrative-area.rendered-responses.enabled:true}")
+    private boolean rendered;
+
+    @Value("${administrative-area.rendered-responses.gzip-min-bytes:1024}")
+    private int gzipMinBytes;
+
+    @Override
+    public boolean isRendered() {
+        return rendered;
+    }
+
+    @Override
+    @Cacheable(value = CacheKeys.ADMINISTRATIVE_AREAS_FILTER, keyGenerator = AdministrativeAreaKeyGenerator.NAME, cacheManager = "weekCacheManager", sync = true)
+    public AdministrativeAreaResponseDto<List<CodeNameDto>> filterList(Map<String, String> queryMap) {
+        return administrativeAreaService.filterList(queryMap);
+    }
+
+    @Override
+    @Cacheable(value = CacheKeys.ADMINISTRATIVE_AREAS, keyGenerator = AdministrativeAreaKeyGenerator.NAME, cacheManager = "weekCacheManager", sync = true)
+    public AdministrativeAreaResponseDto<List<CodeNameDto>> getParishByPartOf(Map<String, String> queryMap) {
+        return administrativeAreaService.getParishByPartOf(queryMap);
+    }
+
+    @Override
+    @Cacheable(value = CacheKeys.ADMINISTRATIVE_AREAS, keyGenerator = AdministrativeAreaKeyGenerator.NAME, sync = true)
+    public AdministrativeAreaResponseDto<List<? extends AdministrativeAreaDto>> searchList(Map<String, String> queryMap) {
+        return administrativeAreaService.searchList(queryMap);
+    }
+
+    @Override
+    @Cacheable(value = CacheKeys.ADMINISTRATIVE_AREAS_FILTER, keyGenerator = AdministrativeAreaKeyGenerator.NAME, cacheManager = "weekCacheManager", sync = true)
+    public RenderedResponse filterListJson(Map<String, String> queryMap) {
+        return render(administrativeAreaService.filterList(queryMap));
+    }
+
+    @Override
+    @Cacheable(value = CacheKeys.ADMINISTRATIVE_AREAS, keyGenerator = AdministrativeAreaKeyGenerator.NAME, cacheManager = "weekCacheManager", sync = true)
+    public RenderedResponse getParishByPartOfJson(Map<String, String> queryMap) {
+        return render(administrativeAreaService.getParishByPartOf(queryMap));
+    }
+
+    @Override
+    @Cacheable(value = CacheKeys.ADMINISTRATIVE_AREAS, keyGenerator = AdministrativeAreaKeyGenerator.NAME, sync = true)
+    public RenderedResponse searchListJson(Map<String, String> queryMap) {
+        return render(administrativeAreaService.searchList(queryMap));
+    }
+
+    private RenderedResponse render(Object response) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(response);
+            return new RenderedResponse(body, body.length >= gzipMinBytes ? gzip(body) : null);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        // done once per cached entry, so spend the CPU on the best ratio
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {{ def.setLevel(Deflater.BEST_COMPRESSION); }}) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
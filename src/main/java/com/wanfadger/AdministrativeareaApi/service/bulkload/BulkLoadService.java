@@ -0,0 +1,13 @@
+package com.wanfadger.AdministrativeareaApi.service.bulkload;
+
+import com.wanfadger.AdministrativeareaApi.entity.AdministrativeAreaType;
+import com.wanfadger.AdministrativeareaApi.entity.BaseEntity;
+
+import java.util.List;
+
+public interface BulkLoadService {
+
+    // inserts new areas of one level outside the persistence context, ids and timestamps are set on the given entities
+    long load(AdministrativeAreaType type, List<? extends BaseEntity> areas);
+
+}
@@ -0,0 +1,161 @@
+package com.wanfadger.AdministrativeareaApi.service.bulkload;
+
+import com.wanfadger.AdministrativeareaApi.entity.*;
+import com.wanfadger.AdministrativeareaApi.shared.administrativeareaexceptions.InvalidException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/*
+ * PostgreSQL gets the rows through COPY FROM STDIN in CSV format, one statement streamed in buffer sized chunks.
+ * Other databases fall back to batched INSERTs.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkLoadServiceImpl implements BulkLoadService {
+    private static final String COLUMNS = "id, code, name, description, latitude, longitude, createdDateTime, updatedDateTime";
+    private static final int BATCH_SIZE = 1000;
+    private static final int COPY_BUFFER_CHARS = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public long load(AdministrativeAreaType type, List<? extends BaseEntity> areas) {
+        if (areas.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (BaseEntity area : areas) {
+            if (area.getId() == null) {
+                area.setId(UUID.randomUUID().toString());
+            }
+            area.setCreatedDateTime(now);
+            area.setUpdatedDateTime(now);
+        }
+
+        long rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> connection.isWrapperFor(PGConnection.class)
+                ? copy(connection.unwrap(PGConnection.class), type, areas)
+                : batchInsert(type, areas));
+        log.debug("Bulk loaded {} {} rows", rows, type.getTable());
+        return rows;
+    }
+
+    private long copy(PGConnection connection, AdministrativeAreaType type, List<? extends BaseEntity> areas) throws SQLException {
+        CopyIn copyIn = connection.getCopyAPI().copyIn("COPY " + type.getTable() + " (" + columns(type) + ") FROM STDIN WITH (FORMAT csv)");
+        try {
+            StringBuilder buffer = new StringBuilder(COPY_BUFFER_CHARS + 1024);
+            for (BaseEntity area : areas) {
+                appendRow(buffer, type, area);
+                if (buffer.length() >= COPY_BUFFER_CHARS) {
+                    write(copyIn, buffer);
+                }
+            }
+            write(copyIn, buffer);
+            return copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private long batchInsert(AdministrativeAreaType type, List<? extends BaseEntity> areas) {
+        String columns = columns(type);
+        String placeholders = String.join(", ", Collections.nCopies(columns.split(", ").length, "?"));
+        jdbcTemplate.batchUpdate("INSERT INTO " + type.getTable() + " (" + columns + ") VALUES (" + placeholders + ")", areas, BATCH_SIZE, (statement, area) -> {
+            statement.setString(1, area.getId());
+            statement.setString(2, area.getCode());
+            statement.setString(3, name(area));
+            statement.setString(4, area.getDescription());
+            statement.setObject(5, area.getLatitude(), Types.DOUBLE);
+            statement.setObject(6, area.getLongitude(), Types.DOUBLE);
+            statement.setTimestamp(7, Timestamp.valueOf(area.getCreatedDateTime()));
+            statement.setTimestamp(8, Timestamp.valueOf(area.getUpdatedDateTime()));
+            if (type.getParentColumn() != null) {
+                statement.setString(9, parentId(area));
+            }
+        });
+        return areas.size();
+    }
+
+    private static String columns(AdministrativeAreaType type) {
+        return type.getParentColumn() == null ? COLUMNS : COLUMNS + ", " + type.getParentColumn();
+    }
+
+    private static void appendRow(StringBuilder buffer, AdministrativeAreaType type, BaseEntity area) {
+        appendText(buffer, area.getId()).append(',');
+        appendText(buffer, area.getCode()).append(',');
+        appendText(buffer, name(area)).append(',');
+        appendText(buffer, area.getDescription()).append(',');
+        appendValue(buffer, area.getLatitude()).append(',');
+        appendValue(buffer, area.getLongitude()).append(',');
+        appendValue(buffer, area.getCreatedDateTime()).append(',');
+        appendValue(buffer, area.getUpdatedDateTime());
+        if (type.getParentColumn() != null) {
+            appendText(buffer.append(','), parentId(area));
+        }
+        buffer.append('\n');
+    }
+
+    // in CSV format an unquoted empty field is NULL and a quoted one the empty string
+    private static StringBuilder appendText(StringBuilder buffer, String value) {
+        if (value == null) {
+            return buffer;
+        }
+        return buffer.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static StringBuilder appendValue(StringBuilder buffer, Object value) {
+        return value == null ? buffer : buffer.append(value);
+    }
+
+    private static void write(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    private static String name(BaseEntity area) {
+        return switch (area) {
+            case Region region -> region.getName();
+            case SubRegion subRegion -> subRegion.getName();
+            case LocalGovernment localGovernment -> localGovernment.getName();
+            case County county -> county.getName();
+            case SubCounty subCounty -> subCounty.getName();
+            case Parish parish -> parish.getName();
+            default -> throw new InvalidException("Not an administrative area " + area.getClass().getSimpleName());
+        };
+    }
+
+    private static String parentId(BaseEntity area) {
+        BaseEntity parent = switch (area) {
+            case SubRegion subRegion -> subRegion.getRegion();
+            case LocalGovernment localGovernment -> localGovernment.getSubRegion();
+            case County county -> county.getLocalGovernment();
+            case SubCounty subCounty -> subCounty.getCounty();
+            case Parish parish -> parish.getSubCounty();
+            default -> null;
+        };
+        if (parent == null || parent.getId() == null) {
+            throw new InvalidException("Administrative area " + name(area) + " has no saved parent");
+        }
+        return parent.getId();
+    }
+}
@@ -0,0 +1,25 @@
+package com.wanfadger.AdministrativeareaApi.service.closure;
+
+import com.wanfadger.AdministrativeareaApi.dto.CodeNameDto;
+import com.wanfadger.AdministrativeareaApi.entity.AdministrativeAreaType;
+
+import java.util.List;
+
+public interface ClosureService {
+
+    // every parish below the area identified by (type, code), sorted by code
+    List<CodeNameDto> parishes(AdministrativeAreaType type, String code);
+
+    // closure rows of new areas of one level, their parents have to be in the closure already
+    void added(AdministrativeAreaType type, List<String> codes);
+
+    // the area got a new parent, the ancestors of the area and of everything below it are replaced
+    void moved(AdministrativeAreaType type, String code);
+
+    // everything from scratch, for bulk uploads
+    void rebuild();
+
+    // rebuilds when the closure does not cover every area, e.g. on the first start against existing data
+    void rebuildIfIncomplete();
+
+}
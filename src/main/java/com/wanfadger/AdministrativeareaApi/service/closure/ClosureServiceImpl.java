@@ -0,0 +1,139 @@
+package com.wanfadger.AdministrativeareaApi.service.closure;
+
+import com.wanfadger.AdministrativeareaApi.dto.CodeNameDto;
+import com.wanfadger.AdministrativeareaApi.entity.AdministrativeAreaType;
+import com.wanfadger.AdministrativeareaApi.repository.AdministrativeAreaClosureRepository;
+import com.wanfadger.AdministrativeareaApi.service.county.DbCountyService;
+import com.wanfadger.AdministrativeareaApi.service.localgovernment.DbLocalGovernmentService;
+import com.wanfadger.AdministrativeareaApi.service.parish.DbParishService;
+import com.wanfadger.AdministrativeareaApi.service.region.DbRegionService;
+import com.wanfadger.AdministrativeareaApi.service.subRegion.DbSubRegionService;
+import com.wanfadger.AdministrativeareaApi.service.subcounty.DbSubCountyService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/*
+ * Single area writes maintain the closure incrementally: a new area gets its parent's ancestor rows plus its
+ * depth 0 row, a moved area swaps the ancestors of its whole subtree. Bulk uploads rebuild it set based inside
+ * the database, one INSERT ... SELECT over the parent joins of all ancestor/descendant level pairs.
+ * Readers keep seeing the previous closure until the change commits.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClosureServiceImpl implements ClosureService {
+    private static final String COLUMNS = "INSERT INTO AdministrativeAreaClosure (ancestorType, ancestorCode, descendantType, descendantCode, depth) ";
+    private static final String REBUILD = rebuildSql();
+    private static final int CODES_PER_STATEMENT = 1000;
+
+    private final AdministrativeAreaClosureRepository closureRepository;
+    private final DbRegionService dbRegionService;
+    private final DbSubRegionService dbSubRegionService;
+    private final DbLocalGovernmentService dbLocalGovernmentService;
+    private final DbCountyService dbCountyService;
+    private final DbSubCountyService dbSubCountyService;
+    private final DbParishService dbParishService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<CodeNameDto> parishes(AdministrativeAreaType type, String code) {
+        return closureRepository.findParishes(type, code);
+    }
+
+    @Override
+    @Transactional
+    public void added(AdministrativeAreaType type, List<String> codes) {
+        String sql = addedSql(type);
+        int rows = 0;
+        for (int from = 0; from < codes.size(); from += CODES_PER_STATEMENT) {
+            rows += entityManager.createNativeQuery(sql)
+                    .setParameter("codes", codes.subList(from, Math.min(codes.size(), from + CODES_PER_STATEMENT)))
+                    .executeUpdate();
+        }
+        log.debug("Added {} administrative area closure rows for {} {} areas", rows, codes.size(), type);
+    }
+
+    @Override
+    @Transactional
+    public void moved(AdministrativeAreaType type, String code) {
+        AdministrativeAreaType parent = type.parent().orElseThrow(() -> new IllegalArgumentException(type + " has no parent"));
+        // the rows linking the subtree to the old ancestors, the rows inside the subtree stay
+        int deleted = entityManager.createNativeQuery("DELETE FROM AdministrativeAreaClosure WHERE descendantCode IN "
+                        + "(SELECT s.descendantCode FROM AdministrativeAreaClosure s WHERE s.ancestorCode = :code) AND ancestorCode NOT IN "
+                        + "(SELECT s.descendantCode FROM AdministrativeAreaClosure s WHERE s.ancestorCode = :code)")
+                .setParameter("code", code)
+                .executeUpdate();
+        int inserted = entityManager.createNativeQuery(COLUMNS + "SELECT a.ancestorType, a.ancestorCode, s.descendantType, s.descendantCode, a.depth + s.depth + 1 FROM "
+                        + type.getTable() + " t JOIN " + parent.getTable() + " p ON p.id = t." + type.getParentColumn()
+                        + " JOIN AdministrativeAreaClosure a ON a.descendantCode = p.code JOIN AdministrativeAreaClosure s ON s.ancestorCode = t.code WHERE t.code = :code")
+                .setParameter("code", code)
+                .executeUpdate();
+        log.debug("Moved {} {} in the administrative area closure, {} rows replaced by {}", type, code, deleted, inserted);
+    }
+
+    @Override
+    @Transactional
+    public void rebuild() {
+        // serializes concurrent rebuilds, plain reads are not blocked
+        entityManager.createNativeQuery("LOCK TABLE AdministrativeAreaClosure IN EXCLUSIVE MODE").executeUpdate();
+        entityManager.createNativeQuery("DELETE FROM AdministrativeAreaClosure").executeUpdate();
+        int rows = entityManager.createNativeQuery(REBUILD).executeUpdate();
+        log.debug("Administrative area closure rebuilt with {} rows", rows);
+    }
+
+    @Override
+    @Transactional
+    public void rebuildIfIncomplete() {
+        long areas = dbRegionService.dbCount() + dbSubRegionService.dbCount() + dbLocalGovernmentService.dbCount()
+                + dbCountyService.dbCount() + dbSubCountyService.dbCount() + dbParishService.dbCount();
+        if (closureRepository.countByDepth(0) != areas) {
+            log.info("Administrative area closure does not cover all {} areas, rebuilding", areas);
+            rebuild();
+        }
+    }
+
+    /*
+     * The depth 0 row of each new area and one row per ancestor of its parent. An area a concurrent rebuild already
+     * covered is skipped, it would collide with the rows the rebuild wrote.
+     */
+    private static String addedSql(AdministrativeAreaType type) {
+        String notCovered = " t.code IN (:codes) AND NOT EXISTS (SELECT 1 FROM AdministrativeAreaClosure x WHERE x.descendantCode = t.code)";
+        String literal = "'" + type.name() + "'";
+        String sql = COLUMNS + "SELECT " + literal + ", t.code, " + literal + ", t.code, 0 FROM " + type.getTable() + " t WHERE" + notCovered;
+        Optional<AdministrativeAreaType> parent = type.parent();
+        if (parent.isPresent()) {
+            sql += " UNION ALL SELECT a.ancestorType, a.ancestorCode, " + literal + ", t.code, a.depth + 1 FROM " + type.getTable() + " t JOIN "
+                    + parent.get().getTable() + " p ON p.id = t." + type.getParentColumn()
+                    + " JOIN AdministrativeAreaClosure a ON a.descendantCode = p.code WHERE" + notCovered;
+        }
+        return sql;
+    }
+
+    private static String rebuildSql() {
+        AdministrativeAreaType[] types = AdministrativeAreaType.values();
+        List<String> selects = new ArrayList<>();
+        for (int ancestor = 0; ancestor < types.length; ancestor++) {
+            for (int descendant = ancestor; descendant < types.length; descendant++) {
+                StringBuilder select = new StringBuilder("SELECT '").append(types[ancestor].name()).append("', t").append(ancestor).append(".code, '")
+                        .append(types[descendant].name()).append("', t").append(descendant).append(".code, ").append(descendant - ancestor)
+                        .append(" FROM ").append(types[descendant].getTable()).append(" t").append(descendant);
+                for (int level = descendant; level > ancestor; level--) {
+                    select.append(" JOIN ").append(types[level - 1].getTable()).append(" t").append(level - 1)
+                            .append(" ON t").append(level - 1).append(".id = t").append(level).append('.').append(types[level].getParentColumn());
+                }
+                selects.add(select.toString());
+            }
+        }
+        return COLUMNS + String.join(" UNION ALL ", selects);
+    }
+}
@@ -1,19 +1,31 @@
 package com.wanfadger.AdministrativeareaApi.service.county;
 
+import com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaExportDto;
+import com.wanfadger.AdministrativeareaApi.dto.CodeNameDto;
+import com.wanfadger.AdministrativeareaApi.entity.AdministrativeAreaType;
 import com.wanfadger.AdministrativeareaApi.entity.County;
 import com.wanfadger.AdministrativeareaApi.repository.CountyRepository;
+import com.wanfadger.AdministrativeareaApi.service.bulkload.BulkLoadService;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class CountyServiceImpl implements DbCountyService  {
 
     final CountyRepository countyRepository;
+    final BulkLoadService bulkLoadService;
 
     @Override
     public County dbNew(@NonNull County county) {
@@ -25,6 +37,11 @@ public class CountyServiceImpl implements DbCountyService  {
         return countyRepository.saveAll(counties);
     }
 
+    @Override
+    public long dbBulkNew(List<County> counties) {
+        return bulkLoadService.load(AdministrativeAreaType.COUNTY, counties);
+    }
+
     @Override
     public List<County> dbList() {
         return countyRepository.findAll();
@@ -32,17 +49,17 @@ public class CountyServiceImpl implements DbCountyService  {
 
     @Override
     public List<County> dbAllByLocalGovernmentCode(String code) {
-        return countyRepository.findAllByLocalGovernment_Code(code);
+        return countyRepository.findAllByLocalGovernment_CodeIgnoreCase(code);
     }
 
     @Override
     public List<County> dbAllByLocalGovernmentCodes(List<String> codes) {
-        return countyRepository.findAllByLocalGovernmentCodes(codes);
+        return countyRepository.findAllByLocalGovernmentCodes(codes.stream().map(code -> code.toUpperCase(Locale.ROOT)).toList());
     }
 
     @Override
     public Optional<County> dbByName_LocalGovernment_Code(String name, String localGovernmentCode) {
-        return countyRepository.findByNameIgnoreCaseAndLocalGovernment_Code( name ,localGovernmentCode);
+        return countyRepository.findByNameIgnoreCaseAndLocalGovernment_CodeIgnoreCase( name ,localGovernmentCode);
     }
 
     @Override
@@ -50,6 +67,56 @@ public class CountyServiceImpl implements DbCountyService  {
         return countyRepository.findByCodeIgnoreCase(code);
     }
 
+    @Override
+    public List<County> dbByCodes(Collection<String> codes) {
+        return codes.isEmpty() ? List.of() : countyRepository.findAllByUpperCodeIn(codes);
+    }
+
+    @Override
+    public Set<String> dbExistingNames(Collection<String> localGovernmentIds, Collection<String> names) {
+        return localGovernmentIds.isEmpty() || names.isEmpty() ? Set.of() : new HashSet<>(countyRepository.findParentNameKeysIn(localGovernmentIds, names));
+    }
+
+    @Override
+    public List<County> dbPage(String after, int limit) {
+        return countyRepository.findAllByCodeGreaterThanOrderByCodeAsc(after, Limit.of(limit));
+    }
+
+    @Override
+    public List<County> dbPageByLocalGovernmentCode(String code, String after, int limit) {
+        return countyRepository.findAllByLocalGovernment_CodeIgnoreCaseAndCodeGreaterThanOrderByCodeAsc(code, after, Limit.of(limit));
+    }
+
+    @Override
+    public Optional<CodeNameDto> dbCodeNameByCode(String code) {
+        return countyRepository.findCodeNameByCode(code);
+    }
+
+    @Override
+    public List<CodeNameDto> dbCodeNamesByLocalGovernmentCode(String code) {
+        return countyRepository.findCodeNamesByLocalGovernmentCode(code);
+    }
+
+    @Override
+    public List<CodeNameDto> dbCodeNamesPageByLocalGovernmentCode(String code, String after, int limit) {
+        return countyRepository.findCodeNamesByLocalGovernmentCodeAfter(code, after, Limit.of(limit));
+    }
+
+    @Override
+    public Stream<AdministrativeAreaExportDto> dbExport() {
+        return countyRepository.streamExport();
+    }
+
+    @Override
+    public long dbCount() {
+        return countyRepository.count();
+    }
+
+    @Override
+    public Optional<LocalDateTime> dbLastUpdated() {
+        return countyRepository.findLastUpdatedDateTime();
+    }
+
 
 
 
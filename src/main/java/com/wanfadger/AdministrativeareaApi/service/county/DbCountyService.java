@@ -1,15 +1,22 @@
 package com.wanfadger.AdministrativeareaApi.service.county;
 
 
+import com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaExportDto;
+import com.wanfadger.AdministrativeareaApi.dto.CodeNameDto;
 import com.wanfadger.AdministrativeareaApi.entity.County;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface DbCountyService {
 
     County dbNew(County county);
     List<County> dbNew(List<County> counties);
+    long dbBulkNew(List<County> counties);
 
     List<County> dbList();
     List<County> dbAllByLocalGovernmentCode(String code);
@@ -17,6 +24,19 @@ public interface DbCountyService {
 
     Optional<County> dbByName_LocalGovernment_Code(String name , String localGovernmentCode);
     Optional<County> dbByCode(String code);
+    List<County> dbByCodes(Collection<String> codes);
+    Set<String> dbExistingNames(Collection<String> localGovernmentIds, Collection<String> names);
 
+    List<County> dbPage(String after, int limit);
+    List<County> dbPageByLocalGovernmentCode(String code, String after, int limit);
+
+    Optional<CodeNameDto> dbCodeNameByCode(String code);
+    List<CodeNameDto> dbCodeNamesByLocalGovernmentCode(String code);
+    List<CodeNameDto> dbCodeNamesPageByLocalGovernmentCode(String code, String after, int limit);
+
+    Stream<AdministrativeAreaExportDto> dbExport();
+
+    long dbCount();
+    Optional<LocalDateTime> dbLastUpdated();
 
 }
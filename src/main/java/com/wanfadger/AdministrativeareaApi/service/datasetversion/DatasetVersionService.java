@@ -0,0 +1,10 @@
+package com.wanfadger.AdministrativeareaApi.service.datasetversion;
+
+public interface DatasetVersionService {
+
+    // epoch millis of the latest updatedDateTime across all administrative areas, never goes backwards
+    long current();
+
+    long refresh();
+
+}
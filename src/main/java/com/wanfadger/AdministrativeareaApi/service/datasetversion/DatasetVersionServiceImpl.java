@@ -0,0 +1,74 @@
+package com.wanfadger.AdministrativeareaApi.service.datasetversion;
+
+import com.wanfadger.AdministrativeareaApi.service.county.DbCountyService;
+import com.wanfadger.AdministrativeareaApi.service.gazetteer.GazetteerService;
+import com.wanfadger.AdministrativeareaApi.service.localgovernment.DbLocalGovernmentService;
+import com.wanfadger.AdministrativeareaApi.service.parish.DbParishService;
+import com.wanfadger.AdministrativeareaApi.service.region.DbRegionService;
+import com.wanfadger.AdministrativeareaApi.service.subRegion.DbSubRegionService;
+import com.wanfadger.AdministrativeareaApi.service.subcounty.DbSubCountyService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class DatasetVersionServiceImpl implements DatasetVersionService {
+    private static final long UNKNOWN = -1;
+
+    private final DbRegionService dbRegionService;
+    private final DbSubRegionService dbSubRegionService;
+    private final DbLocalGovernmentService dbLocalGovernmentService;
+    private final DbCountyService dbCountyService;
+    private final DbSubCountyService dbSubCountyService;
+    private final DbParishService dbParishService;
+    private final GazetteerService gazetteerService;
+
+    private final AtomicLong version = new AtomicLong(UNKNOWN);
+
+    @Override
+    public long current() {
+        long current = version.get();
+        return current != UNKNOWN ? current : refresh();
+    }
+
+    // called by the write paths once caches and gazetteer are up to date
+    @Override
+    public long refresh() {
+        return version.accumulateAndGet(dbLastUpdated(), Math::max);
+    }
+
+    // writes made by other instances, the gazetteer has to catch up before clients see the new version
+    @Scheduled(fixedDelayString = "${administrative-area.dataset-version.refresh-interval:10000}", initialDelayString = "${administrative-area.dataset-version.refresh-interval:10000}")
+    public void poll() {
+        long lastUpdated = dbLastUpdated();
+        if (lastUpdated > version.get()) {
+            gazetteerService.refreshIfStale();
+            version.accumulateAndGet(lastUpdated, Math::max);
+        }
+    }
+
+    private long dbLastUpdated() {
+        return Stream.of(
+                        dbRegionService.dbLastUpdated(),
+                        dbSubRegionService.dbLastUpdated(),
+                        dbLocalGovernmentService.dbLastUpdated(),
+                        dbCountyService.dbLastUpdated(),
+                        dbSubCountyService.dbLastUpdated(),
+                        dbParishService.dbLastUpdated())
+                .flatMap(Optional::stream)
+                .map(this::toEpochMilli)
+                .max(Long::compare)
+                .orElse(0L);
+    }
+
+    private long toEpochMilli(LocalDateTime localDateTime) {
+        return localDateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
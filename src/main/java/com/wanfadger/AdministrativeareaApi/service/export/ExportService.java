@@ -0,0 +1,11 @@
+package com.wanfadger.AdministrativeareaApi.service.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportService {
+
+    // every area as one NDJSON line, parents before their children
+    void export(OutputStream outputStream) throws IOException;
+
+}
@@ -0,0 +1,72 @@
+package com.wanfadger.AdministrativeareaApi.service.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaExportDto;
+import com.wanfadger.AdministrativeareaApi.service.county.DbCountyService;
+import com.wanfadger.AdministrativeareaApi.service.localgovernment.DbLocalGovernmentService;
+import com.wanfadger.AdministrativeareaApi.service.parish.DbParishService;
+import com.wanfadger.AdministrativeareaApi.service.region.DbRegionService;
+import com.wanfadger.AdministrativeareaApi.service.subRegion.DbSubRegionService;
+import com.wanfadger.AdministrativeareaApi.service.subcounty.DbSubCountyService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/*
+ * Streams the whole hierarchy level by level from database cursors, rows are written as they are fetched
+ * so memory use does not depend on the size of the dataset.
+ * All levels are read in one repeatable read transaction, a write during the export cannot leave a child
+ * without its parent in the output.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+    private final DbRegionService dbRegionService;
+    private final DbSubRegionService dbSubRegionService;
+    private final DbLocalGovernmentService dbLocalGovernmentService;
+    private final DbCountyService dbCountyService;
+    private final DbSubCountyService dbSubCountyService;
+    private final DbParishService dbParishService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void export(OutputStream outputStream) throws IOException {
+        List<Supplier<Stream<AdministrativeAreaExportDto>>> levels = List.of(
+                dbRegionService::dbExport,
+                dbSubRegionService::dbExport,
+                dbLocalGovernmentService::dbExport,
+                dbCountyService::dbExport,
+                dbSubCountyService::dbExport,
+                dbParishService::dbExport);
+
+        // the servlet container flushes its buffer as it fills, not after every line
+        ObjectWriter writer = objectMapper.writerFor(AdministrativeAreaExportDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+        generator.setRootValueSeparator(null);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        for (Supplier<Stream<AdministrativeAreaExportDto>> level : levels) {
+            try (Stream<AdministrativeAreaExportDto> stream = level.get()) {
+                Iterator<AdministrativeAreaExportDto> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    writer.writeValue(generator, iterator.next());
+                    generator.writeRaw('\n');
+                }
+            }
+        }
+        generator.close();
+    }
+}
@@ -0,0 +1,133 @@
+package com.wanfadger.AdministrativeareaApi.service.gazetteer;
+
+import com.wanfadger.AdministrativeareaApi.entity.AdministrativeAreaType;
+import lombok.Getter;
+
+import java.util.*;
+
+/*
+ * Immutable, in-memory view of the whole Region -> Parish hierarchy.
+ * A new instance is built after every write and swapped in by GazetteerService, readers never see a half built tree.
+ */
+public final class Gazetteer {
+    private static final Comparator<GazetteerNode> BY_CODE = Comparator.comparing(GazetteerNode::getCode);
+
+    private final Map<AdministrativeAreaType, Map<String, GazetteerNode>> byCode;
+    private final Map<AdministrativeAreaType, GazetteerNode[]> sorted;
+
+    @Getter
+    private final String stamp;
+
+    private Gazetteer(Map<AdministrativeAreaType, Map<String, GazetteerNode>> byCode, Map<AdministrativeAreaType, GazetteerNode[]> sorted, String stamp) {
+        this.byCode = byCode;
+        this.sorted = sorted;
+        this.stamp = stamp;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Optional<GazetteerNode> byCode(AdministrativeAreaType type, String code) {
+        if (code == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(byCode.get(type).get(normalize(code)));
+    }
+
+    public List<GazetteerNode> list(AdministrativeAreaType type) {
+        return Collections.unmodifiableList(Arrays.asList(sorted.get(type)));
+    }
+
+    // direct children of the given type under the area identified by partOfCode
+    public List<GazetteerNode> children(AdministrativeAreaType type, String partOfCode) {
+        return type.parent()
+                .flatMap(parentType -> byCode(parentType, partOfCode))
+                .map(GazetteerNode::getChildren)
+                .orElse(Collections.emptyList());
+    }
+
+    // every area of type descendantType below the area identified by (type, code), sorted by code
+    public List<GazetteerNode> descendants(AdministrativeAreaType type, String code, AdministrativeAreaType descendantType) {
+        Optional<GazetteerNode> optionalNode = byCode(type, code);
+        if (optionalNode.isEmpty() || descendantType.ordinal() <= type.ordinal()) {
+            return Collections.emptyList();
+        }
+
+        List<GazetteerNode> result = new ArrayList<>();
+        optionalNode.get().collectDescendants(descendantType, result);
+        result.sort(BY_CODE);
+        return result;
+    }
+
+    // at most limit nodes with a code after the given one, nodes has to be sorted by code
+    public static List<GazetteerNode> page(List<GazetteerNode> nodes, String after, int limit) {
+        int low = 0;
+        int high = nodes.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (nodes.get(mid).getCode().compareTo(after) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return nodes.subList(low, Math.min(nodes.size(), low + limit));
+    }
+
+    public int size() {
+        return sorted.values().stream().mapToInt(nodes -> nodes.length).sum();
+    }
+
+    private static String normalize(String code) {
+        return code.toLowerCase(Locale.ROOT);
+    }
+
+    public static final class Builder {
+        private final Map<AdministrativeAreaType, Map<String, GazetteerNode>> byCode = new EnumMap<>(AdministrativeAreaType.class);
+        private final Map<GazetteerNode, List<GazetteerNode>> children = new HashMap<>();
+
+        private Builder() {
+            for (AdministrativeAreaType type : AdministrativeAreaType.values()) {
+                byCode.put(type, new HashMap<>());
+            }
+        }
+
+        // levels must be added top down, areas whose parent is unknown are skipped
+        public Builder add(AdministrativeAreaType type, String code, String name, Double latitude, Double longitude, String parentCode) {
+            GazetteerNode parent = null;
+            Optional<AdministrativeAreaType> parentType = type.parent();
+            if (parentType.isPresent()) {
+                parent = parentCode == null ? null : byCode.get(parentType.get()).get(normalize(parentCode));
+                if (parent == null) {
+                    return this;
+                }
+            }
+
+            GazetteerNode node = new GazetteerNode(type, code, name, latitude, longitude, parent);
+            byCode.get(type).put(normalize(code), node);
+            if (parent != null) {
+                children.computeIfAbsent(parent, key -> new ArrayList<>()).add(node);
+            }
+            return this;
+        }
+
+        public Gazetteer build(String stamp) {
+            children.forEach((parent, nodes) -> {
+                nodes.sort(BY_CODE);
+                parent.setChildren(nodes.toArray(GazetteerNode.NO_CHILDREN));
+            });
+
+            Map<AdministrativeAreaType, Map<String, GazetteerNode>> frozenByCode = new EnumMap<>(AdministrativeAreaType.class);
+            Map<AdministrativeAreaType, GazetteerNode[]> sorted = new EnumMap<>(AdministrativeAreaType.class);
+            byCode.forEach((type, nodes) -> {
+                frozenByCode.put(type, Map.copyOf(nodes));
+                GazetteerNode[] array = nodes.values().toArray(GazetteerNode.NO_CHILDREN);
+                Arrays.sort(array, BY_CODE);
+                sorted.put(type, array);
+            });
+
+            return new Gazetteer(frozenByCode, sorted, stamp);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.wanfadger.AdministrativeareaApi.service.gazetteer;
+
+import com.wanfadger.AdministrativeareaApi.entity.AdministrativeAreaType;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+@Getter
+public final class GazetteerNode {
+    static final GazetteerNode[] NO_CHILDREN = new GazetteerNode[0];
+
+    private final AdministrativeAreaType type;
+    private final String code;
+    private final String name;
+    private final Double latitude;
+    private final Double longitude;
+    private final GazetteerNode parent;
+
+    // sorted by code, assigned once while the snapshot is being built
+    private GazetteerNode[] children = NO_CHILDREN;
+
+    GazetteerNode(AdministrativeAreaType type, String code, String name, Double latitude, Double longitude, GazetteerNode parent) {
+        this.type = type;
+        this.code = code;
+        this.name = name;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.parent = parent;
+    }
+
+    void setChildren(GazetteerNode[] children) {
+        this.children = children;
+    }
+
+    public List<GazetteerNode> getChildren() {
+        return Collections.unmodifiableList(Arrays.asList(children));
+    }
+
+    public Optional<GazetteerNode> ancestor(AdministrativeAreaType ancestorType) {
+        GazetteerNode node = this;
+        while (node != null && node.type != ancestorType) {
+            node = node.parent;
+        }
+        return Optional.ofNullable(node);
+    }
+
+    void collectDescendants(AdministrativeAreaType descendantType, List<GazetteerNode> result) {
+        for (GazetteerNode child : children) {
+            if (child.type == descendantType) {
+                result.add(child);
+            } else {
+                child.collectDescendants(descendantType, result);
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.wanfadger.AdministrativeareaApi.service.gazetteer;
+
+public interface GazetteerService {
+
+    boolean isEnabled();
+
+    Gazetteer current();
+
+    Gazetteer refresh();
+    void refreshIfStale();
+
+}
@@ -0,0 +1,99 @@
+package com.wanfadger.AdministrativeareaApi.service.gazetteer;
+
+import com.wanfadger.AdministrativeareaApi.entity.*;
+import com.wanfadger.AdministrativeareaApi.service.county.DbCountyService;
+import com.wanfadger.AdministrativeareaApi.service.localgovernment.DbLocalGovernmentService;
+import com.wanfadger.AdministrativeareaApi.service.parish.DbParishService;
+import com.wanfadger.AdministrativeareaApi.service.region.DbRegionService;
+import com.wanfadger.AdministrativeareaApi.service.subRegion.DbSubRegionService;
+import com.wanfadger.AdministrativeareaApi.service.subcounty.DbSubCountyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GazetteerServiceImpl implements GazetteerService {
+    private final DbRegionService dbRegionService;
+    private final DbSubRegionService dbSubRegionService;
+    private final DbLocalGovernmentService dbLocalGovernmentService;
+    private final DbCountyService dbCountyService;
+    private final DbSubCountyService dbSubCountyService;
+    private final DbParishService dbParishService;
+
+    private final AtomicReference<Gazetteer> snapshot = new AtomicReference<>();
+
+    @Value("${administrative-area.gazetteer.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public Gazetteer current() {
+        Gazetteer gazetteer = snapshot.get();
+        return gazetteer != null ? gazetteer : refresh();
+    }
+
+    @Override
+    public synchronized Gazetteer refresh() {
+        // read the stamp first so a write racing with the load is picked up by the next stale check
+        String stamp = dbStamp();
+        Gazetteer.Builder builder = Gazetteer.builder();
+
+        for (Region region : dbRegionService.dbList()) {
+            builder.add(AdministrativeAreaType.REGION, region.getCode(), region.getName(), region.getLatitude(), region.getLongitude(), null);
+        }
+        for (SubRegion subRegion : dbSubRegionService.dbList()) {
+            builder.add(AdministrativeAreaType.SUBREGION, subRegion.getCode(), subRegion.getName(), subRegion.getLatitude(), subRegion.getLongitude(), subRegion.getRegion().getCode());
+        }
+        for (LocalGovernment localGovernment : dbLocalGovernmentService.dbList()) {
+            builder.add(AdministrativeAreaType.LOCALGOVERNMENT, localGovernment.getCode(), localGovernment.getName(), localGovernment.getLatitude(), localGovernment.getLongitude(), localGovernment.getSubRegion().getCode());
+        }
+        for (County county : dbCountyService.dbList()) {
+            builder.add(AdministrativeAreaType.COUNTY, county.getCode(), county.getName(), county.getLatitude(), county.getLongitude(), county.getLocalGovernment().getCode());
+        }
+        for (SubCounty subCounty : dbSubCountyService.dbList()) {
+            builder.add(AdministrativeAreaType.SUBCOUNTY, subCounty.getCode(), subCounty.getName(), subCounty.getLatitude(), subCounty.getLongitude(), subCounty.getCounty().getCode());
+        }
+        for (Parish parish : dbParishService.dbList()) {
+            builder.add(AdministrativeAreaType.PARISH, parish.getCode(), parish.getName(), parish.getLatitude(), parish.getLongitude(), parish.getSubCounty().getCode());
+        }
+
+        Gazetteer gazetteer = builder.build(stamp);
+        snapshot.set(gazetteer);
+        log.info("Gazetteer refreshed with {} administrative areas", gazetteer.size());
+        return gazetteer;
+    }
+
+    // picks up writes made by other instances, a cheap count/max(updatedDateTime) per table
+    @Override
+    @Scheduled(fixedDelayString = "${administrative-area.gazetteer.refresh-interval:30000}", initialDelayString = "${administrative-area.gazetteer.refresh-interval:30000}")
+    public void refreshIfStale() {
+        Gazetteer gazetteer = snapshot.get();
+        if (!enabled || gazetteer == null) {
+            return;
+        }
+
+        if (!gazetteer.getStamp().equals(dbStamp())) {
+            refresh();
+        }
+    }
+
+    private String dbStamp() {
+        return String.join("|",
+                dbRegionService.dbCount() + ":" + dbRegionService.dbLastUpdated().orElse(null),
+                dbSubRegionService.dbCount() + ":" + dbSubRegionService.dbLastUpdated().orElse(null),
+                dbLocalGovernmentService.dbCount() + ":" + dbLocalGovernmentService.dbLastUpdated().orElse(null),
+                dbCountyService.dbCount() + ":" + dbCountyService.dbLastUpdated().orElse(null),
+                dbSubCountyService.dbCount() + ":" + dbSubCountyService.dbLastUpdated().orElse(null),
+                dbParishService.dbCount() + ":" + dbParishService.dbLastUpdated().orElse(null));
+    }
+}
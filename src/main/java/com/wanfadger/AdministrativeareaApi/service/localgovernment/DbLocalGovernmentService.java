@@ -1,15 +1,22 @@
 package com.wanfadger.AdministrativeareaApi.service.localgovernment;
 
 
+import com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaExportDto;
+import com.wanfadger.AdministrativeareaApi.dto.CodeNameDto;
 import com.wanfadger.AdministrativeareaApi.entity.LocalGovernment;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface DbLocalGovernmentService {
 
     LocalGovernment dbNew(LocalGovernment localGovernment);
     List<LocalGovernment> dbNew(List<LocalGovernment> localGovernments);
+    long dbBulkNew(List<LocalGovernment> localGovernments);
 
     List<LocalGovernment> dbList();
     List<LocalGovernment> dbBySubRegionCode(String subRegionCode);
@@ -17,5 +24,19 @@ public interface DbLocalGovernmentService {
 
     Optional<LocalGovernment> dbByName_SubRegionCode(String name , String subRegionCode);
     Optional<LocalGovernment> dbByCode(String code);
+    List<LocalGovernment> dbByCodes(Collection<String> codes);
+    Set<String> dbExistingNames(Collection<String> names);
+
+    List<LocalGovernment> dbPage(String after, int limit);
+    List<LocalGovernment> dbPageBySubRegionCode(String code, String after, int limit);
+
+    Optional<CodeNameDto> dbCodeNameByCode(String code);
+    List<CodeNameDto> dbCodeNamesBySubRegionCode(String code);
+    List<CodeNameDto> dbCodeNamesPageBySubRegionCode(String code, String after, int limit);
+
+    Stream<AdministrativeAreaExportDto> dbExport();
+
+    long dbCount();
+    Optional<LocalDateTime> dbLastUpdated();
 
 }
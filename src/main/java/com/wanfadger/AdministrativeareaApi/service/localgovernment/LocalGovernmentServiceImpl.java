@@ -1,19 +1,31 @@
 package com.wanfadger.AdministrativeareaApi.service.localgovernment;
 
 
+import com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaExportDto;
+import com.wanfadger.AdministrativeareaApi.dto.CodeNameDto;
+import com.wanfadger.AdministrativeareaApi.entity.AdministrativeAreaType;
 import com.wanfadger.AdministrativeareaApi.entity.LocalGovernment;
 import com.wanfadger.AdministrativeareaApi.repository.LocalGovernmentRepository;
+import com.wanfadger.AdministrativeareaApi.service.bulkload.BulkLoadService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class LocalGovernmentServiceImpl implements DbLocalGovernmentService  {
 
     final LocalGovernmentRepository localGovernmentRepository;
+    final BulkLoadService bulkLoadService;
 
     @Override
     public LocalGovernment dbNew(LocalGovernment localGovernment) {
@@ -25,6 +37,11 @@ public class LocalGovernmentServiceImpl implements DbLocalGovernmentService  {
         return localGovernmentRepository.saveAll(localGovernments);
     }
 
+    @Override
+    public long dbBulkNew(List<LocalGovernment> localGovernments) {
+        return bulkLoadService.load(AdministrativeAreaType.LOCALGOVERNMENT, localGovernments);
+    }
+
     @Override
     public List<LocalGovernment> dbList() {
         return localGovernmentRepository.findAll();
@@ -32,17 +49,17 @@ public class LocalGovernmentServiceImpl implements DbLocalGovernmentService  {
 
     @Override
     public List<LocalGovernment> dbBySubRegionCode(String subRegionCode) {
-        return localGovernmentRepository.findAllBySubRegion_Code(subRegionCode);
+        return localGovernmentRepository.findAllBySubRegion_CodeIgnoreCase(subRegionCode);
     }
 
     @Override
     public List<LocalGovernment> dbBySubRegionCodes(List<String> subRegionCodes) {
-        return localGovernmentRepository.findAllBySubRegionCodes(subRegionCodes);
+        return localGovernmentRepository.findAllBySubRegionCodes(subRegionCodes.stream().map(code -> code.toUpperCase(Locale.ROOT)).toList());
     }
 
     @Override
     public Optional<LocalGovernment> dbByName_SubRegionCode(String name, String subRegionCode) {
-        return localGovernmentRepository.findByNameIgnoreCaseAndSubRegion_Code(name, subRegionCode);
+        return localGovernmentRepository.findByNameIgnoreCaseAndSubRegion_CodeIgnoreCase(name, subRegionCode);
     }
 
     @Override
@@ -50,6 +67,56 @@ public class LocalGovernmentServiceImpl implements DbLocalGovernmentService  {
         return localGovernmentRepository.findByCodeIgnoreCase(code);
     }
 
+    @Override
+    public List<LocalGovernment> dbByCodes(Collection<String> codes) {
+        return codes.isEmpty() ? List.of() : localGovernmentRepository.findAllByUpperCodeIn(codes);
+    }
+
+    @Override
+    public Set<String> dbExistingNames(Collection<String> names) {
+        return names.isEmpty() ? Set.of() : new HashSet<>(localGovernmentRepository.findUpperNamesIn(names));
+    }
+
+    @Override
+    public List<LocalGovernment> dbPage(String after, int limit) {
+        return localGovernmentRepository.findAllByCodeGreaterThanOrderByCodeAsc(after, Limit.of(limit));
+    }
+
+    @Override
+    public List<LocalGovernment> dbPageBySubRegionCode(String code, String after, int limit) {
+        return localGovernmentRepository.findAllBySubRegion_CodeIgnoreCaseAndCodeGreaterThanOrderByCodeAsc(code, after, Limit.of(limit));
+    }
+
+    @Override
+    public Optional<CodeNameDto> dbCodeNameByCode(String code) {
+        return localGovernmentRepository.findCodeNameByCode(code);
+    }
+
+    @Override
+    public List<CodeNameDto> dbCodeNamesBySubRegionCode(String code) {
+        return localGovernmentRepository.findCodeNamesBySubRegionCode(code);
+    }
+
+    @Override
+    public List<CodeNameDto> dbCodeNamesPageBySubRegionCode(String code, String after, int limit) {
+        return localGovernmentRepository.findCodeNamesBySubRegionCodeAfter(code, after, Limit.of(limit));
+    }
+
+    @Override
+    public Stream<AdministrativeAreaExportDto> dbExport() {
+        return localGovernmentRepository.streamExport();
+    }
+
+    @Override
+    public long dbCount() {
+        return localGovernmentRepository.count();
+    }
+
+    @Override
+    public Optional<LocalDateTime> dbLastUpdated() {
+        return localGovernmentRepository.findLastUpdatedDateTime();
+    }
+
 
 
 //    @Override
@@ -125,6 +192,4 @@ public class LocalGovernmentServiceImpl implements DbLocalGovernmentService  {
 //    private boolean notNullEmpty(String value) {
 //        return value != null && !value.isEmpty();
 //    }
-
-
 }
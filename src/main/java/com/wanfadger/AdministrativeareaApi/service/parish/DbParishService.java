@@ -1,19 +1,39 @@
 package com.wanfadger.AdministrativeareaApi.service.parish;
 
 
+import com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaExportDto;
+import com.wanfadger.AdministrativeareaApi.dto.CodeNameDto;
 import com.wanfadger.AdministrativeareaApi.entity.Parish;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface DbParishService {
     Parish dbNew(Parish parish);
     List<Parish> dbNew(List<Parish> parishes);
+    long dbBulkNew(List<Parish> parishes);
     List<Parish> dbList();
     List<Parish> dbBySubCountyCode(String code);
     List<Parish> dbBySubCountyCodes(List<String> codes);
 
     Optional<Parish> dbByName_SubCountyCode(String name , String subCountyCode);
     Optional<Parish> dbByCode(String subCountyCode);
+    Set<String> dbExistingNames(Collection<String> subCountyIds, Collection<String> names);
+
+    List<Parish> dbPage(String after, int limit);
+    List<Parish> dbPageBySubCountyCode(String code, String after, int limit);
+
+    Optional<CodeNameDto> dbCodeNameByCode(String code);
+    List<CodeNameDto> dbCodeNamesBySubCountyCode(String code);
+    List<CodeNameDto> dbCodeNamesPageBySubCountyCode(String code, String after, int limit);
+
+    Stream<AdministrativeAreaExportDto> dbExport();
+
+    long dbCount();
+    Optional<LocalDateTime> dbLastUpdated();
 
 }
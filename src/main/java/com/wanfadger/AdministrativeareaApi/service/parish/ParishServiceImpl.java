@@ -1,19 +1,31 @@
 package com.wanfadger.AdministrativeareaApi.service.parish;
 
 
+import com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaExportDto;
+import com.wanfadger.AdministrativeareaApi.dto.CodeNameDto;
+import com.wanfadger.AdministrativeareaApi.entity.AdministrativeAreaType;
 import com.wanfadger.AdministrativeareaApi.entity.Parish;
 import com.wanfadger.AdministrativeareaApi.repository.ParishRepository;
+import com.wanfadger.AdministrativeareaApi.service.bulkload.BulkLoadService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ParishServiceImpl implements DbParishService {
 
     final ParishRepository parishRepository;
+    final BulkLoadService bulkLoadService;
 
     @Override
     public Parish dbNew(Parish parish) {
@@ -25,6 +37,11 @@ public class ParishServiceImpl implements DbParishService {
         return parishRepository.saveAll(parishes);
     }
 
+    @Override
+    public long dbBulkNew(List<Parish> parishes) {
+        return bulkLoadService.load(AdministrativeAreaType.PARISH, parishes);
+    }
+
     @Override
     public List<Parish> dbList() {
         return parishRepository.findAll();
@@ -32,17 +49,17 @@ public class ParishServiceImpl implements DbParishService {
 
     @Override
     public List<Parish> dbBySubCountyCode(String code) {
-        return parishRepository.findAllBySubCounty_Code(code);
+        return parishRepository.findAllBySubCounty_CodeIgnoreCase(code);
     }
 
     @Override
     public List<Parish> dbBySubCountyCodes(List<String> codes) {
-        return parishRepository.findAllBySubCountyCodes(codes);
+        return parishRepository.findAllBySubCountyCodes(codes.stream().map(code -> code.toUpperCase(Locale.ROOT)).toList());
     }
 
     @Override
     public Optional<Parish> dbByName_SubCountyCode(String name, String subCountyCode) {
-        return parishRepository.findByNameIgnoreCaseAndSubCounty_Code(name, subCountyCode);
+        return parishRepository.findByNameIgnoreCaseAndSubCounty_CodeIgnoreCase(name, subCountyCode);
     }
 
     @Override
@@ -50,6 +67,51 @@ public class ParishServiceImpl implements DbParishService {
         return parishRepository.findByCodeIgnoreCase(subCountyCode);
     }
 
+    @Override
+    public Set<String> dbExistingNames(Collection<String> subCountyIds, Collection<String> names) {
+        return subCountyIds.isEmpty() || names.isEmpty() ? Set.of() : new HashSet<>(parishRepository.findParentNameKeysIn(subCountyIds, names));
+    }
+
+    @Override
+    public List<Parish> dbPage(String after, int limit) {
+        return parishRepository.findAllByCodeGreaterThanOrderByCodeAsc(after, Limit.of(limit));
+    }
+
+    @Override
+    public List<Parish> dbPageBySubCountyCode(String code, String after, int limit) {
+        return parishRepository.findAllBySubCounty_CodeIgnoreCaseAndCodeGreaterThanOrderByCodeAsc(code, after, Limit.of(limit));
+    }
+
+    @Override
+    public Optional<CodeNameDto> dbCodeNameByCode(String code) {
+        return parishRepository.findCodeNameByCode(code);
+    }
+
+    @Override
+    public List<CodeNameDto> dbCodeNamesBySubCountyCode(String code) {
+        return parishRepository.findCodeNamesBySubCountyCode(code);
+    }
+
+    @Override
+    public List<CodeNameDto> dbCodeNamesPageBySubCountyCode(String code, String after, int limit) {
+        return parishRepository.findCodeNamesBySubCountyCodeAfter(code, after, Limit.of(limit));
+    }
+
+    @Override
+    public Stream<AdministrativeAreaExportDto> dbExport() {
+        return parishRepository.streamExport();
+    }
+
+    @Override
+    public long dbCount() {
+        return parishRepository.count();
+    }
+
+    @Override
+    public Optional<LocalDateTime> dbLastUpdated() {
+        return parishRepository.findLastUpdatedDateTime();
+    }
+
 
 
 //
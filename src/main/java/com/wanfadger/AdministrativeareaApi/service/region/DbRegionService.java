@@ -1,20 +1,42 @@
 package com.wanfadger.AdministrativeareaApi.service.region;
 
 
+import com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaExportDto;
+import com.wanfadger.AdministrativeareaApi.dto.CodeNameDto;
 import com.wanfadger.AdministrativeareaApi.entity.Region;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface DbRegionService {
 
     Region dbNew(Region region);
     List<Region> dbNew(List<Region> regions);
+    long dbBulkNew(List<Region> regions);
 
     List<Region> dbList();
 
     Optional<Region> dbByName(String name);
     Optional<Region> dbByCode(String code);
+    List<Region> dbByCodes(Collection<String> codes);
+    Set<String> dbExistingNames(Collection<String> names);
 //    List<CodeNameProjection> dbCodeNameList();
 //    Optional<CodeNameProjection> dbCodeName(String code);
+
+    List<Region> dbPage(String after, int limit);
+
+    // has to be consumed and closed inside a transaction
+    Optional<CodeNameDto> dbCodeNameByCode(String code);
+    List<CodeNameDto> dbCodeNames();
+    List<CodeNameDto> dbCodeNamesPage(String after, int limit);
+
+    Stream<AdministrativeAreaExportDto> dbExport();
+
+    long dbCount();
+    Optional<LocalDateTime> dbLastUpdated();
+
 }
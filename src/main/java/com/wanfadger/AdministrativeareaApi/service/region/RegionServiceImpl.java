@@ -1,19 +1,30 @@
 package com.wanfadger.AdministrativeareaApi.service.region;
 
 
+import com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaExportDto;
+import com.wanfadger.AdministrativeareaApi.dto.CodeNameDto;
+import com.wanfadger.AdministrativeareaApi.entity.AdministrativeAreaType;
 import com.wanfadger.AdministrativeareaApi.entity.Region;
 import com.wanfadger.AdministrativeareaApi.repository.RegionRepository;
+import com.wanfadger.AdministrativeareaApi.service.bulkload.BulkLoadService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class RegionServiceImpl implements DbRegionService  {
 
     final RegionRepository regionRepository;
+    final BulkLoadService bulkLoadService;
 
 //    @Override
 //    @Transactional
@@ -74,6 +85,11 @@ public class RegionServiceImpl implements DbRegionService  {
         return regionRepository.saveAll(regions);
     }
 
+    @Override
+    public long dbBulkNew(List<Region> regions) {
+        return bulkLoadService.load(AdministrativeAreaType.REGION, regions);
+    }
+
     @Override
     public List<Region> dbList() {
         return regionRepository.findAll();
@@ -89,5 +105,48 @@ public class RegionServiceImpl implements DbRegionService  {
         return regionRepository.findByCodeIgnoreCase(code);
     }
 
+    @Override
+    public List<Region> dbByCodes(Collection<String> codes) {
+        return codes.isEmpty() ? List.of() : regionRepository.findAllByUpperCodeIn(codes);
+    }
+
+    @Override
+    public Set<String> dbExistingNames(Collection<String> names) {
+        return names.isEmpty() ? Set.of() : new HashSet<>(regionRepository.findUpperNamesIn(names));
+    }
+
+    @Override
+    public List<Region> dbPage(String after, int limit) {
+        return regionRepository.findAllByCodeGreaterThanOrderByCodeAsc(after, Limit.of(limit));
+    }
+
+    @Override
+    public Optional<CodeNameDto> dbCodeNameByCode(String code) {
+        return regionRepository.findCodeNameByCode(code);
+    }
+
+    @Override
+    public List<CodeNameDto> dbCodeNames() {
+        return regionRepository.findCodeNames();
+    }
+
+    @Override
+    public List<CodeNameDto> dbCodeNamesPage(String after, int limit) {
+        return regionRepository.findCodeNamesAfter(after, Limit.of(limit));
+    }
+
+    @Override
+    public Stream<AdministrativeAreaExportDto> dbExport() {
+        return regionRepository.streamExport();
+    }
 
+    @Override
+    public long dbCount() {
+        return regionRepository.count();
+    }
+
+    @Override
+    public Optional<LocalDateTime> dbLastUpdated() {
+        return regionRepository.findLastUpdatedDateTime();
+    }
 }
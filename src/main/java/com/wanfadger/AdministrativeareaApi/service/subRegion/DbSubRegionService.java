@@ -1,15 +1,22 @@
 package com.wanfadger.AdministrativeareaApi.service.subRegion;
 
 
+import com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaExportDto;
+import com.wanfadger.AdministrativeareaApi.dto.CodeNameDto;
 import com.wanfadger.AdministrativeareaApi.entity.SubRegion;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface DbSubRegionService {
 
     SubRegion dbNew(SubRegion subRegion);
     List<SubRegion> dbNew(List<SubRegion> subRegions);
+    long dbBulkNew(List<SubRegion> subRegions);
 
     List<SubRegion> dbList();
     List<SubRegion> dbByRegionCode(String regionCode);
@@ -17,7 +24,19 @@ public interface DbSubRegionService {
 
     Optional<SubRegion> dbByName_RegionCode(String name , String regionCode);
     Optional<SubRegion> dbByCode(String code);
+    List<SubRegion> dbByCodes(Collection<String> codes);
+    Set<String> dbExistingNames(Collection<String> names);
 
+    List<SubRegion> dbPage(String after, int limit);
+    List<SubRegion> dbPageByRegionCode(String code, String after, int limit);
 
+    Optional<CodeNameDto> dbCodeNameByCode(String code);
+    List<CodeNameDto> dbCodeNamesByRegionCode(String code);
+    List<CodeNameDto> dbCodeNamesPageByRegionCode(String code, String after, int limit);
+
+    Stream<AdministrativeAreaExportDto> dbExport();
+
+    long dbCount();
+    Optional<LocalDateTime> dbLastUpdated();
 
 }
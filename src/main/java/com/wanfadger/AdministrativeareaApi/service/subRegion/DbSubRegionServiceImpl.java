@@ -1,17 +1,28 @@
 package com.wanfadger.AdministrativeareaApi.service.subRegion;
 
+import com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaExportDto;
+import com.wanfadger.AdministrativeareaApi.dto.CodeNameDto;
+import com.wanfadger.AdministrativeareaApi.entity.AdministrativeAreaType;
 import com.wanfadger.AdministrativeareaApi.entity.SubRegion;
 import com.wanfadger.AdministrativeareaApi.repository.SubRegionRepository;
+import com.wanfadger.AdministrativeareaApi.service.bulkload.BulkLoadService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class DbSubRegionServiceImpl implements DbSubRegionService{
     final SubRegionRepository subRegionRepository;
+    final BulkLoadService bulkLoadService;
 
 
     @Override
@@ -24,6 +35,11 @@ public class DbSubRegionServiceImpl implements DbSubRegionService{
         return subRegionRepository.saveAll(subRegions);
     }
 
+    @Override
+    public long dbBulkNew(List<SubRegion> subRegions) {
+        return bulkLoadService.load(AdministrativeAreaType.SUBREGION, subRegions);
+    }
+
     @Override
     public List<SubRegion> dbList() {
         return subRegionRepository.findAll();
@@ -31,14 +47,14 @@ public class DbSubRegionServiceImpl implements DbSubRegionService{
 
     @Override
     public List<SubRegion> dbByRegionCode(String regionCode) {
-        return subRegionRepository.findAllByRegion_Code(regionCode);
+        return subRegionRepository.findAllByRegion_CodeIgnoreCase(regionCode);
     }
 
 
 
     @Override
     public Optional<SubRegion> dbByName_RegionCode(String name, String regionCode) {
-        return subRegionRepository.findByNameIgnoreCaseAndRegion_Code(name, regionCode);
+        return subRegionRepository.findByNameIgnoreCaseAndRegion_CodeIgnoreCase(name, regionCode);
     }
 
     @Override
@@ -46,6 +62,56 @@ public class DbSubRegionServiceImpl implements DbSubRegionService{
         return subRegionRepository.findByCodeIgnoreCase(code);
     }
 
+    @Override
+    public List<SubRegion> dbByCodes(Collection<String> codes) {
+        return codes.isEmpty() ? List.of() : subRegionRepository.findAllByUpperCodeIn(codes);
+    }
+
+    @Override
+    public Set<String> dbExistingNames(Collection<String> names) {
+        return names.isEmpty() ? Set.of() : new HashSet<>(subRegionRepository.findUpperNamesIn(names));
+    }
+
+    @Override
+    public List<SubRegion> dbPage(String after, int limit) {
+        return subRegionRepository.findAllByCodeGreaterThanOrderByCodeAsc(after, Limit.of(limit));
+    }
+
+    @Override
+    public List<SubRegion> dbPageByRegionCode(String code, String after, int limit) {
+        return subRegionRepository.findAllByRegion_CodeIgnoreCaseAndCodeGreaterThanOrderByCodeAsc(code, after, Limit.of(limit));
+    }
+
+    @Override
+    public Optional<CodeNameDto> dbCodeNameByCode(String code) {
+        return subRegionRepository.findCodeNameByCode(code);
+    }
+
+    @Override
+    public List<CodeNameDto> dbCodeNamesByRegionCode(String code) {
+        return subRegionRepository.findCodeNamesByRegionCode(code);
+    }
+
+    @Override
+    public List<CodeNameDto> dbCodeNamesPageByRegionCode(String code, String after, int limit) {
+        return subRegionRepository.findCodeNamesByRegionCodeAfter(code, after, Limit.of(limit));
+    }
+
+    @Override
+    public Stream<AdministrativeAreaExportDto> dbExport() {
+        return subRegionRepository.streamExport();
+    }
+
+    @Override
+    public long dbCount() {
+        return subRegionRepository.count();
+    }
+
+    @Override
+    public Optional<LocalDateTime> dbLastUpdated() {
+        return subRegionRepository.findLastUpdatedDateTime();
+    }
+
 
 
 
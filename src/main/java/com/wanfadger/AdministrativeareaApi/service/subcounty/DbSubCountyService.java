@@ -1,14 +1,21 @@
 package com.wanfadger.AdministrativeareaApi.service.subcounty;
 
 
+import com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaExportDto;
+import com.wanfadger.AdministrativeareaApi.dto.CodeNameDto;
 import com.wanfadger.AdministrativeareaApi.entity.SubCounty;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface DbSubCountyService {
     SubCounty dbNew(SubCounty subCounty);
     List<SubCounty> dbNew(List<SubCounty> subCounties);
+    long dbBulkNew(List<SubCounty> subCounties);
 
     List<SubCounty> dbList();
     List<SubCounty> dbByCountyCode(String countyCode);
@@ -17,5 +24,19 @@ public interface DbSubCountyService {
     Optional<SubCounty> dbByName_CountyCode(String name , String countyCode);
 
     Optional<SubCounty> dbByCode(String code);
+    List<SubCounty> dbByCodes(Collection<String> codes);
+    Set<String> dbExistingNames(Collection<String> countyIds, Collection<String> names);
+
+    List<SubCounty> dbPage(String after, int limit);
+    List<SubCounty> dbPageByCountyCode(String code, String after, int limit);
+
+    Optional<CodeNameDto> dbCodeNameByCode(String code);
+    List<CodeNameDto> dbCodeNamesByCountyCode(String code);
+    List<CodeNameDto> dbCodeNamesPageByCountyCode(String code, String after, int limit);
+
+    Stream<AdministrativeAreaExportDto> dbExport();
+
+    long dbCount();
+    Optional<LocalDateTime> dbLastUpdated();
 
 }
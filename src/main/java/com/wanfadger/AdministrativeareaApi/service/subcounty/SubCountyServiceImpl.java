@@ -1,19 +1,31 @@
 package com.wanfadger.AdministrativeareaApi.service.subcounty;
 
 
+import com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaExportDto;
+import com.wanfadger.AdministrativeareaApi.dto.CodeNameDto;
+import com.wanfadger.AdministrativeareaApi.entity.AdministrativeAreaType;
 import com.wanfadger.AdministrativeareaApi.entity.SubCounty;
 import com.wanfadger.AdministrativeareaApi.repository.SubCountyRepository;
+import com.wanfadger.AdministrativeareaApi.service.bulkload.BulkLoadService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class SubCountyServiceImpl implements DbSubCountyService  {
 
     final SubCountyRepository subCountyRepository;
+    final BulkLoadService bulkLoadService;
 
     @Override
     public SubCounty dbNew(SubCounty subCounty) {
@@ -25,6 +37,11 @@ public class SubCountyServiceImpl implements DbSubCountyService  {
         return subCountyRepository.saveAll(subCounties);
     }
 
+    @Override
+    public long dbBulkNew(List<SubCounty> subCounties) {
+        return bulkLoadService.load(AdministrativeAreaType.SUBCOUNTY, subCounties);
+    }
+
     @Override
     public List<SubCounty> dbList() {
         return subCountyRepository.findAll();
@@ -32,12 +49,12 @@ public class SubCountyServiceImpl implements DbSubCountyService  {
 
     @Override
     public List<SubCounty> dbByCountyCode(String countyCode) {
-        return subCountyRepository.findAllByCounty_Code(countyCode);
+        return subCountyRepository.findAllByCounty_CodeIgnoreCase(countyCode);
     }
 
     @Override
     public List<SubCounty> dbByCountyCodes(List<String> countyCodes) {
-        return subCountyRepository.findAllByCountyCodes(countyCodes);
+        return subCountyRepository.findAllByCountyCodes(countyCodes.stream().map(code -> code.toUpperCase(Locale.ROOT)).toList());
     }
 
     @Override
@@ -50,6 +67,56 @@ public class SubCountyServiceImpl implements DbSubCountyService  {
         return subCountyRepository.findByCodeIgnoreCase(code);
     }
 
+    @Override
+    public List<SubCounty> dbByCodes(Collection<String> codes) {
+        return codes.isEmpty() ? List.of() : subCountyRepository.findAllByUpperCodeIn(codes);
+    }
+
+    @Override
+    public Set<String> dbExistingNames(Collection<String> countyIds, Collection<String> names) {
+        return countyIds.isEmpty() || names.isEmpty() ? Set.of() : new HashSet<>(subCountyRepository.findParentNameKeysIn(countyIds, names));
+    }
+
+    @Override
+    public List<SubCounty> dbPage(String after, int limit) {
+        return subCountyRepository.findAllByCodeGreaterThanOrderByCodeAsc(after, Limit.of(limit));
+    }
+
+    @Override
+    public List<SubCounty> dbPageByCountyCode(String code, String after, int limit) {
+        return subCountyRepository.findAllByCounty_CodeIgnoreCaseAndCodeGreaterThanOrderByCodeAsc(code, after, Limit.of(limit));
+    }
+
+    @Override
+    public Optional<CodeNameDto> dbCodeNameByCode(String code) {
+        return subCountyRepository.findCodeNameByCode(code);
+    }
+
+    @Override
+    public List<CodeNameDto> dbCodeNamesByCountyCode(String code) {
+        return subCountyRepository.findCodeNamesByCountyCode(code);
+    }
+
+    @Override
+    public List<CodeNameDto> dbCodeNamesPageByCountyCode(String code, String after, int limit) {
+        return subCountyRepository.findCodeNamesByCountyCodeAfter(code, after, Limit.of(limit));
+    }
+
+    @Override
+    public Stream<AdministrativeAreaExportDto> dbExport() {
+        return subCountyRepository.streamExport();
+    }
+
+    @Override
+    public long dbCount() {
+        return subCountyRepository.count();
+    }
+
+    @Override
+    public Optional<LocalDateTime> dbLastUpdated() {
+        return subCountyRepository.findLastUpdatedDateTime();
+    }
+
 
 //
 //    @Override
@@ -0,0 +1,49 @@
+package com.wanfadger.AdministrativeareaApi.service.upload;
+
+import com.wanfadger.AdministrativeareaApi.entity.BaseEntity;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/*
+ * Areas of one level keyed by their path, the id of the parent and the normalized name. The parent is already
+ * resolved when its children are reconciled, so the key identifies the whole region/sub region/.../name path
+ * without walking the ancestors. Levels whose names are unique in the whole table have no parent in their key.
+ * New areas get their id as soon as they are created, their children are keyed by it before any of them is saved.
+ */
+final class AreaPathIndex<T extends BaseEntity> {
+    private final Map<String, T> areas = new HashMap<>();
+    private List<T> created = new ArrayList<>();
+
+    AreaPathIndex(List<T> existing, Function<T, BaseEntity> parentOf, Function<T, String> nameOf) {
+        for (T area : existing) {
+            areas.putIfAbsent(key(parentOf.apply(area), nameOf.apply(area)), area);
+        }
+    }
+
+    // the area named name under parent, created by factory (and remembered as new) when there is none yet
+    T resolve(BaseEntity parent, String name, Supplier<T> factory) {
+        return areas.computeIfAbsent(key(parent, name), key -> {
+            T area = factory.get();
+            area.setId(UUID.randomUUID().toString());
+            created.add(area);
+            return area;
+        });
+    }
+
+    // the areas created since the last call, they stay in the index for the rows that follow
+    List<T> drainCreated() {
+        List<T> drained = created;
+        created = new ArrayList<>();
+        return drained;
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String key(BaseEntity parent, String name) {
+        return (parent == null ? "" : parent.getId()) + '/' + normalize(name);
+    }
+}
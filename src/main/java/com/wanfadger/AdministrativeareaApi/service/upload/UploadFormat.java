@@ -0,0 +1,40 @@
+package com.wanfadger.AdministrativeareaApi.service.upload;
+
+import lombok.Getter;
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+@Getter
+public enum UploadFormat {
+    // an array of row objects, keys as in AdministrativeAreaExcelDto
+    JSON(MediaType.APPLICATION_JSON_VALUE, ".json"),
+    // a header line with the same keys, one row per line
+    CSV("text/csv", ".csv"),
+    // the Excel sheet itself, header row as for CSV, only the first sheet is read
+    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", ".xlsx");
+
+    private final String contentType;
+    private final String suffix;
+
+    UploadFormat(String contentType, String suffix) {
+        this.contentType = contentType;
+        this.suffix = suffix;
+    }
+
+    public static UploadFormat of(MediaType mediaType) {
+        return Arrays.stream(values())
+                .filter(format -> mediaType != null && mediaType.isCompatibleWith(MediaType.parseMediaType(format.contentType)))
+                .findFirst()
+                .orElse(JSON);
+    }
+
+    // a multipart file, by its extension first, clients often send spreadsheets as application/octet-stream
+    public static UploadFormat of(String filename, String contentType) {
+        return Arrays.stream(values())
+                .filter(format -> filename != null && filename.toLowerCase(Locale.ROOT).endsWith(format.suffix))
+                .findFirst()
+                .orElseGet(() -> of(contentType == null ? null : MediaType.parseMediaType(contentType)));
+    }
+}
@@ -0,0 +1,17 @@
+package com.wanfadger.AdministrativeareaApi.service.upload;
+
+import com.wanfadger.AdministrativeareaApi.dto.UploadJobDto;
+import com.wanfadger.AdministrativeareaApi.shared.reponses.AdministrativeAreaResponseDto;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface UploadJobService {
+
+    // 202 with the queued job once the body is spooled to a temporary file, the import runs in the background
+    ResponseEntity<AdministrativeAreaResponseDto<UploadJobDto>> submit(InputStream body, UploadFormat format) throws IOException;
+
+    AdministrativeAreaResponseDto<UploadJobDto> status(String id);
+
+}
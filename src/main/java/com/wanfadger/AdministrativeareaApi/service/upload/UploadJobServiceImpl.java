@@ -0,0 +1,198 @@
+package com.wanfadger.AdministrativeareaApi.service.upload;
+
+import com.wanfadger.AdministrativeareaApi.dto.UploadJobDto;
+import com.wanfadger.AdministrativeareaApi.entity.AdministrativeAreaType;
+import com.wanfadger.AdministrativeareaApi.entity.UploadJob;
+import com.wanfadger.AdministrativeareaApi.entity.UploadJobStatus;
+import com.wanfadger.AdministrativeareaApi.repository.UploadJobRepository;
+import com.wanfadger.AdministrativeareaApi.service.administrativearea.AdministrativeAreaService;
+import com.wanfadger.AdministrativeareaApi.shared.administrativeareaexceptions.NotFoundException;
+import com.wanfadger.AdministrativeareaApi.shared.administrativeareaexceptions.TooManyRequestsException;
+import com.wanfadger.AdministrativeareaApi.shared.reponses.AdministrativeAreaResponseDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/*
+ * Uploads run on a small pool of their own with a bounded queue, a full queue turns new uploads away with a 429
+ * instead of piling up files on disk. One thread by default, two imports running side by side could both
+ * create the same new area.
+ * The request body is copied to a temporary file before the 202, the request stream is gone once the response
+ * is sent. The job streams the file and deletes it when it is done.
+ * Jobs carry the id of the instance that queued them and a lease it keeps renewing. Another instance only fails
+ * a job once its lease ran out, a restart fails the jobs left by an earlier process with the same instance id.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UploadJobServiceImpl implements UploadJobService {
+    private static final int MAX_ERROR_LENGTH = 2000;
+    private static final List<UploadJobStatus> UNFINISHED = List.of(UploadJobStatus.QUEUED, UploadJobStatus.RUNNING);
+
+    private final UploadJobRepository uploadJobRepository;
+    private final AdministrativeAreaService administrativeAreaService;
+
+    @Value("${administrative-area.upload.threads:1}")
+    private int threads;
+
+    @Value("${administrative-area.upload.queue-capacity:4}")
+    private int queueCapacity;
+
+    @Value("${administrative-area.upload.instance-id:}")
+    private String instanceId;
+
+    @Value("${administrative-area.upload.lease-ms:60000}")
+    private long leaseMs;
+
+    private String owner;
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void start() {
+        // without a configured id the jobs of an earlier process are only failed once their lease runs out
+        owner = instanceId.isBlank() ? UUID.randomUUID().toString() : instanceId;
+        failInterruptedJobs();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("upload-", 1).factory());
+    }
+
+    // the queue lives in memory only, jobs left queued or running by the previous process will never finish
+    void failInterruptedJobs() {
+        int interrupted = uploadJobRepository.finishOwned(owner, UNFINISHED, UploadJobStatus.FAILED, "interrupted by restart", LocalDateTime.now());
+        if (interrupted > 0) {
+            log.warn("Marked {} upload jobs interrupted by a restart as failed", interrupted);
+        }
+        failAbandonedJobs();
+    }
+
+    // jobs of other instances are left alone while those keep renewing their leases
+    void failAbandonedJobs() {
+        int abandoned = uploadJobRepository.finishExpired(UNFINISHED, UploadJobStatus.FAILED, "abandoned, its instance stopped", LocalDateTime.now());
+        if (abandoned > 0) {
+            log.warn("Marked {} upload jobs whose lease ran out as failed", abandoned);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${administrative-area.upload.lease-renewal-interval:15000}", initialDelayString = "${administrative-area.upload.lease-renewal-interval:15000}")
+    void renewLeases() {
+        uploadJobRepository.renewLeases(owner, UNFINISHED, LocalDateTime.now().plus(Duration.ofMillis(leaseMs)));
+        failAbandonedJobs();
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public ResponseEntity<AdministrativeAreaResponseDto<UploadJobDto>> submit(InputStream body, UploadFormat format) throws IOException {
+        // checked again by execute, this only saves spooling a body that would be turned away
+        if (executor.getQueue().remainingCapacity() == 0) {
+            throw tooManyUploads();
+        }
+
+        Path file = Files.createTempFile("upload-", format.getSuffix());
+        try {
+            Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        UploadJob queued = new UploadJob(UploadJobStatus.QUEUED);
+        queued.setOwner(owner);
+        queued.setLeaseExpiresAt(LocalDateTime.now().plus(Duration.ofMillis(leaseMs)));
+        UploadJob job = uploadJobRepository.save(queued);
+        try {
+            executor.execute(() -> run(job.getId(), file, format));
+        } catch (RejectedExecutionException e) {
+            uploadJobRepository.delete(job);
+            delete(file);
+            throw tooManyUploads();
+        }
+        return new ResponseEntity<>(new AdministrativeAreaResponseDto<>(new UploadJobDto(job), "upload queued"), HttpStatus.ACCEPTED);
+    }
+
+    @Override
+    public AdministrativeAreaResponseDto<UploadJobDto> status(String id) {
+        UploadJob job = uploadJobRepository.findById(id).orElseThrow(() -> new NotFoundException("upload job not found"));
+        return new AdministrativeAreaResponseDto<>(new UploadJobDto(job));
+    }
+
+    private void run(String id, Path file, UploadFormat format) {
+        try {
+            update(id, job -> job.setStatus(UploadJobStatus.RUNNING));
+            administrativeAreaService.upload(file, format, (rows, created) -> update(id, job -> {
+                job.setProcessedRows(job.getProcessedRows() + rows);
+                job.setProcessedChunks(job.getProcessedChunks() + 1);
+                created.forEach((type, count) -> addCreated(job, type, count));
+            }));
+            update(id, job -> {
+                job.setStatus(UploadJobStatus.COMPLETED);
+                job.setFinishedDateTime(LocalDateTime.now());
+            });
+        } catch (Throwable e) {
+            // errors too, a job left RUNNING would be polled forever
+            log.error("Upload job {} failed", id, e);
+            String error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            update(id, job -> {
+                job.setStatus(UploadJobStatus.FAILED);
+                job.setError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+                job.setFinishedDateTime(LocalDateTime.now());
+            });
+            if (e instanceof Error fatal) {
+                throw fatal;
+            }
+        } finally {
+            delete(file);
+        }
+    }
+
+    private static TooManyRequestsException tooManyUploads() {
+        return new TooManyRequestsException("Too many uploads in progress, try again later");
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete upload file {}", file, e);
+        }
+    }
+
+    private void update(String id, Consumer<UploadJob> change) {
+        uploadJobRepository.findById(id).ifPresent(job -> {
+            change.accept(job);
+            uploadJobRepository.save(job);
+        });
+    }
+
+    private static void addCreated(UploadJob job, AdministrativeAreaType type, int created) {
+        switch (type) {
+            case REGION -> job.setCreatedRegions(job.getCreatedRegions() + created);
+            case SUBREGION -> job.setCreatedSubRegions(job.getCreatedSubRegions() + created);
+            case LOCALGOVERNMENT -> job.setCreatedLocalGovernments(job.getCreatedLocalGovernments() + created);
+            case COUNTY -> job.setCreatedCounties(job.getCreatedCounties() + created);
+            case SUBCOUNTY -> job.setCreatedSubCounties(job.getCreatedSubCounties() + created);
+            case PARISH -> job.setCreatedParishes(job.getCreatedParishes() + created);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.wanfadger.AdministrativeareaApi.service.upload;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaExcelDto;
+import com.wanfadger.AdministrativeareaApi.entity.AdministrativeAreaType;
+import com.wanfadger.AdministrativeareaApi.entity.BaseEntity;
+import com.wanfadger.AdministrativeareaApi.service.bulkload.BulkLoadService;
+import com.wanfadger.AdministrativeareaApi.service.county.DbCountyService;
+import com.wanfadger.AdministrativeareaApi.service.localgovernment.DbLocalGovernmentService;
+import com.wanfadger.AdministrativeareaApi.service.parish.DbParishService;
+import com.wanfadger.AdministrativeareaApi.service.region.DbRegionService;
+import com.wanfadger.AdministrativeareaApi.service.subRegion.DbSubRegionService;
+import com.wanfadger.AdministrativeareaApi.service.subcounty.DbSubCountyService;
+import com.wanfadger.AdministrativeareaApi.shared.administrativeareaexceptions.InvalidException;
+import com.wanfadger.AdministrativeareaApi.shared.concurrency.DbTaskExecutor;
+import com.wanfadger.AdministrativeareaApi.shared.util.AreaCodeGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/*
+ * Imports an upload file in fixed size chunks through three stages, each on its own thread:
+ * parse (streaming JSON, CSV or XLSX reader, names trimmed) -> reconcile (rows bound to existing or new areas)
+ * -> persist (bulk load of the new areas, top down). The stages are connected by bounded queues, so at most
+ * a few chunks of rows are in memory whatever the size of the file, and a slow stage holds the faster ones back.
+ * The reconciler is not bounded that way: it indexes every existing area of every level, and keeps the ones the
+ * upload creates, so memory still grows with the size of the dataset.
+ * New areas get their ids while reconciling, chunk n + 1 is reconciled while chunk n is written. The persist
+ * stage keeps the order of the chunks, a parent is always saved before its children.
+ */
+@Service
+@RequiredArgsConstructor
+public class UploadPipeline {
+    // compared by identity, the empty chunk that tells the next stage there is nothing more
+    private static final List<AdministrativeAreaExcelDto> END_OF_ROWS = new ArrayList<>();
+    private static final Map<AdministrativeAreaType, List<? extends BaseEntity>> END_OF_AREAS = new EnumMap<>(AdministrativeAreaType.class);
+
+    private final DbRegionService dbRegionService;
+    private final DbSubRegionService dbSubRegionService;
+    private final DbLocalGovernmentService dbLocalGovernmentService;
+    private final DbCountyService dbCountyService;
+    private final DbSubCountyService dbSubCountyService;
+    private final DbParishService dbParishService;
+    private final BulkLoadService bulkLoadService;
+    private final DbTaskExecutor dbTaskExecutor;
+    private final ObjectMapper objectMapper;
+
+    private final CsvMapper csvMapper = new CsvMapper();
+
+    @Value("${administrative-area.upload.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${administrative-area.upload.stage-queue-capacity:4}")
+    private int stageQueueCapacity;
+
+    private interface Stage {
+        void run() throws Exception;
+    }
+
+    private record ReconciledChunk(int rows, Map<AdministrativeAreaType, List<? extends BaseEntity>> created) {
+    }
+
+    // returns once every chunk is saved, the first failure of any stage stops the others and is rethrown
+    public void run(Path file, UploadFormat format, UploadProgress progress) {
+        BlockingQueue<List<AdministrativeAreaExcelDto>> parsed = new ArrayBlockingQueue<>(stageQueueCapacity);
+        BlockingQueue<ReconciledChunk> reconciled = new ArrayBlockingQueue<>(stageQueueCapacity);
+        UploadReconciler reconciler = reconciler();
+
+        Thread persister = Thread.currentThread();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        List<Thread> stages = new ArrayList<>();
+        stages.add(stage("upload-parse", () -> parse(file, format, parsed), failure, stages, persister));
+        stages.add(stage("upload-reconcile", () -> reconcile(reconciler, parsed, reconciled), failure, stages, persister));
+        stages.forEach(Thread::start);
+        try {
+            persist(reconciled, progress);
+        } catch (Exception e) {
+            fail(e, failure, stages, null);
+        } finally {
+            join(stages);
+        }
+
+        Exception e = failure.get();
+        if (e != null) {
+            throw e instanceof RuntimeException runtimeException ? runtimeException : new IllegalStateException(e);
+        }
+    }
+
+    // the six levels are read side by side, each on its own connection
+    private UploadReconciler reconciler() {
+        List<List<? extends BaseEntity>> levels = dbTaskExecutor.invokeAll(List.of(dbRegionService::dbList, dbSubRegionService::dbList,
+                dbLocalGovernmentService::dbList, dbCountyService::dbList, dbSubCountyService::dbList, dbParishService::dbList));
+        return new UploadReconciler(level(levels, 0), level(levels, 1), level(levels, 2), level(levels, 3), level(levels, 4), level(levels, 5));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends BaseEntity> List<T> level(List<List<? extends BaseEntity>> levels, int index) {
+        return (List<T>) levels.get(index);
+    }
+
+    private void parse(Path file, UploadFormat format, BlockingQueue<List<AdministrativeAreaExcelDto>> parsed) throws InterruptedException {
+        RowChunker chunker = new RowChunker(parsed);
+        try {
+            if (format == UploadFormat.XLSX) {
+                XlsxRowReader.read(file, chunker);
+            } else {
+                try (MappingIterator<AdministrativeAreaExcelDto> iterator = reader(format).readValues(file.toFile())) {
+                    while (iterator.hasNextValue()) {
+                        chunker.accept(iterator.nextValue());
+                    }
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new InvalidException("Invalid upload: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        chunker.finish();
+    }
+
+    private static void reconcile(UploadReconciler reconciler, BlockingQueue<List<AdministrativeAreaExcelDto>> parsed,
+                                  BlockingQueue<ReconciledChunk> reconciled) throws InterruptedException {
+        for (List<AdministrativeAreaExcelDto> chunk = parsed.take(); chunk != END_OF_ROWS; chunk = parsed.take()) {
+            reconciled.put(new ReconciledChunk(chunk.size(), reconciler.reconcile(chunk)));
+        }
+        reconciled.put(new ReconciledChunk(0, END_OF_AREAS));
+    }
+
+    private void persist(BlockingQueue<ReconciledChunk> reconciled, UploadProgress progress) throws InterruptedException {
+        for (ReconciledChunk chunk = reconciled.take(); chunk.created() != END_OF_AREAS; chunk = reconciled.take()) {
+            Map<AdministrativeAreaType, Integer> created = new EnumMap<>(AdministrativeAreaType.class);
+            chunk.created().forEach((type, areas) -> {
+                bulkLoadService.load(type, AreaCodeGenerator.assign(areas));
+                created.put(type, areas.size());
+            });
+            progress.chunkCompleted(chunk.rows(), created);
+        }
+    }
+
+    private ObjectReader reader(UploadFormat format) {
+        // spreadsheets exported to CSV often carry extra columns, they are ignored
+        return format == UploadFormat.CSV
+                ? csvMapper.readerFor(AdministrativeAreaExcelDto.class)
+                        .with(CsvSchema.emptySchema().withHeader())
+                        .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                : objectMapper.readerFor(AdministrativeAreaExcelDto.class);
+    }
+
+    // trimmed names, blank ones become null so a row stops there
+    private static AdministrativeAreaExcelDto normalize(AdministrativeAreaExcelDto row) {
+        row.setRegion(normalize(row.getRegion()));
+        row.setSubRegion(normalize(row.getSubRegion()));
+        row.setLocalGovernment(normalize(row.getLocalGovernment()));
+        row.setCounty(normalize(row.getCounty()));
+        row.setSubCounty(normalize(row.getSubCounty()));
+        row.setParish(normalize(row.getParish()));
+        return row;
+    }
+
+    private static String normalize(String name) {
+        if (name == null) {
+            return null;
+        }
+        String trimmed = name.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    // cuts the parsed rows into chunks, the XLSX reader pushes its rows so the queue is fed from a callback
+    private final class RowChunker implements Consumer<AdministrativeAreaExcelDto> {
+        private final BlockingQueue<List<AdministrativeAreaExcelDto>> parsed;
+        private List<AdministrativeAreaExcelDto> chunk = new ArrayList<>(chunkSize);
+
+        private RowChunker(BlockingQueue<List<AdministrativeAreaExcelDto>> parsed) {
+            this.parsed = parsed;
+        }
+
+        @Override
+        public void accept(AdministrativeAreaExcelDto row) {
+            chunk.add(normalize(row));
+            if (chunk.size() == chunkSize) {
+                try {
+                    parsed.put(chunk);
+                } catch (InterruptedException e) {
+                    // another stage failed, its error is the one reported
+                    Thread.currentThread().interrupt();
+                    throw new CancellationException("upload cancelled");
+                }
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+
+        private void finish() throws InterruptedException {
+            if (!chunk.isEmpty()) {
+                parsed.put(chunk);
+            }
+            parsed.put(END_OF_ROWS);
+        }
+    }
+
+    private static Thread stage(String name, Stage stage, AtomicReference<Exception> failure, List<Thread> stages, Thread persister) {
+        return Thread.ofVirtual().name(name).unstarted(() -> {
+            try {
+                stage.run();
+            } catch (Exception e) {
+                fail(e, failure, stages, persister);
+            }
+        });
+    }
+
+    // the first failure wins, the other stages are interrupted out of their queues and their own errors dropped
+    private static void fail(Exception e, AtomicReference<Exception> failure, List<Thread> stages, Thread persister) {
+        if (failure.compareAndSet(null, e)) {
+            stages.stream().filter(thread -> thread != Thread.currentThread()).forEach(Thread::interrupt);
+            if (persister != null) {
+                persister.interrupt();
+            }
+        }
+    }
+
+    // a failing stage may have interrupted the persister, that interrupt must not leak to the caller
+    private static void join(List<Thread> stages) {
+        for (Thread thread : stages) {
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    // the failure is recorded already, keep waiting for the stage to stop
+                }
+            }
+        }
+        Thread.interrupted();
+    }
+}
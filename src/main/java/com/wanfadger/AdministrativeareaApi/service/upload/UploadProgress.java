@@ -0,0 +1,13 @@
+package com.wanfadger.AdministrativeareaApi.service.upload;
+
+import com.wanfadger.AdministrativeareaApi.entity.AdministrativeAreaType;
+
+import java.util.Map;
+
+@FunctionalInterface
+public interface UploadProgress {
+
+    // called once per chunk, in file order, when its new areas are saved; created counts this chunk only
+    void chunkCompleted(int rows, Map<AdministrativeAreaType, Integer> created);
+
+}
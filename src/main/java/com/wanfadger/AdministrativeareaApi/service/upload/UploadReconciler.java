@@ -0,0 +1,116 @@
+package com.wanfadger.AdministrativeareaApi.service.upload;
+
+import com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaExcelDto;
+import com.wanfadger.AdministrativeareaApi.entity.*;
+import com.wanfadger.AdministrativeareaApi.shared.administrativeareaexceptions.InvalidException;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Binds the rows of an upload to the areas they name, level by level, creating the ones that do not exist yet.
+ * The indexes live as long as the upload, a later chunk finds the areas an earlier one created whether or
+ * not they are saved by then. Only used by the reconcile stage thread.
+ */
+final class UploadReconciler {
+    private final AreaPathIndex<Region> regions;
+    private final AreaPathIndex<SubRegion> subRegions;
+    private final AreaPathIndex<LocalGovernment> localGovernments;
+    private final AreaPathIndex<County> counties;
+    private final AreaPathIndex<SubCounty> subCounties;
+    private final AreaPathIndex<Parish> parishes;
+
+    UploadReconciler(List<Region> regions, List<SubRegion> subRegions, List<LocalGovernment> localGovernments,
+                     List<County> counties, List<SubCounty> subCounties, List<Parish> parishes) {
+        this.regions = new AreaPathIndex<>(regions, region -> null, Region::getName);
+        // sub region and local government names are unique in the whole table, they are keyed by name alone
+        this.subRegions = new AreaPathIndex<>(subRegions, subRegion -> null, SubRegion::getName);
+        this.localGovernments = new AreaPathIndex<>(localGovernments, localGovernment -> null, LocalGovernment::getName);
+        this.counties = new AreaPathIndex<>(counties, County::getLocalGovernment, County::getName);
+        this.subCounties = new AreaPathIndex<>(subCounties, SubCounty::getCounty, SubCounty::getName);
+        this.parishes = new AreaPathIndex<>(parishes, Parish::getSubCounty, Parish::getName);
+    }
+
+    // the areas the chunk adds, per level top down; a row stops at its first missing name
+    Map<AdministrativeAreaType, List<? extends BaseEntity>> reconcile(List<AdministrativeAreaExcelDto> rows) {
+        for (AdministrativeAreaExcelDto row : rows) {
+            if (row.getRegion() == null) {
+                continue;
+            }
+            Region region = regions.resolve(null, row.getRegion(), () -> {
+                Region newRegion = new Region();
+                newRegion.setName(row.getRegion());
+                return newRegion;
+            });
+
+            if (row.getSubRegion() == null) {
+                continue;
+            }
+            SubRegion subRegion = subRegions.resolve(null, row.getSubRegion(), () -> {
+                SubRegion newSubRegion = new SubRegion();
+                newSubRegion.setName(row.getSubRegion());
+                newSubRegion.setRegion(region);
+                return newSubRegion;
+            });
+            checkParent(subRegion.getRegion(), region, "SUB REGION " + row.getSubRegion(), "REGION " + row.getRegion());
+
+            if (row.getLocalGovernment() == null) {
+                continue;
+            }
+            LocalGovernment localGovernment = localGovernments.resolve(null, row.getLocalGovernment(), () -> {
+                LocalGovernment newLocalGovernment = new LocalGovernment();
+                newLocalGovernment.setName(row.getLocalGovernment());
+                newLocalGovernment.setSubRegion(subRegion);
+                return newLocalGovernment;
+            });
+            checkParent(localGovernment.getSubRegion(), subRegion, "LOCAL GOVERNMENT " + row.getLocalGovernment(), "SUB REGION " + row.getSubRegion());
+
+            if (row.getCounty() == null) {
+                continue;
+            }
+            County county = counties.resolve(localGovernment, row.getCounty(), () -> {
+                County newCounty = new County();
+                newCounty.setName(row.getCounty());
+                newCounty.setLocalGovernment(localGovernment);
+                return newCounty;
+            });
+
+            if (row.getSubCounty() == null) {
+                continue;
+            }
+            SubCounty subCounty = subCounties.resolve(county, row.getSubCounty(), () -> {
+                SubCounty newSubCounty = new SubCounty();
+                newSubCounty.setName(row.getSubCounty());
+                newSubCounty.setCounty(county);
+                return newSubCounty;
+            });
+
+            if (row.getParish() == null) {
+                continue;
+            }
+            parishes.resolve(subCounty, row.getParish(), () -> {
+                Parish newParish = new Parish();
+                newParish.setName(row.getParish());
+                newParish.setSubCounty(subCounty);
+                return newParish;
+            });
+        }
+
+        Map<AdministrativeAreaType, List<? extends BaseEntity>> created = new EnumMap<>(AdministrativeAreaType.class);
+        created.put(AdministrativeAreaType.REGION, regions.drainCreated());
+        created.put(AdministrativeAreaType.SUBREGION, subRegions.drainCreated());
+        created.put(AdministrativeAreaType.LOCALGOVERNMENT, localGovernments.drainCreated());
+        created.put(AdministrativeAreaType.COUNTY, counties.drainCreated());
+        created.put(AdministrativeAreaType.SUBCOUNTY, subCounties.drainCreated());
+        created.put(AdministrativeAreaType.PARISH, parishes.drainCreated());
+        return created;
+    }
+
+    // an area found by name alone has to sit under the parent the row names, moving it is not what an upload does
+    private static void checkParent(BaseEntity parent, BaseEntity rowParent, String area, String rowParentName) {
+        if (!parent.getId().equals(rowParent.getId())) {
+            throw new InvalidException("Invalid upload: " + area + " already exists outside " + rowParentName);
+        }
+    }
+}
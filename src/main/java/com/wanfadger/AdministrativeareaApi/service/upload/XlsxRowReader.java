@@ -0,0 +1,124 @@
+package com.wanfadger.AdministrativeareaApi.service.upload;
+
+import com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaExcelDto;
+import com.wanfadger.AdministrativeareaApi.shared.administrativeareaexceptions.InvalidException;
+import org.apache.poi.openxml4j.exceptions.NotOfficeXmlFileException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/*
+ * Reads the first sheet of an .xlsx upload with the POI event API, rows are handed out as the sheet XML is parsed
+ * and the workbook is never built in memory. The first row names the columns as in AdministrativeAreaExcelDto
+ * (SUB REGION is read as SUB_REGION), other columns are ignored. Cells are read as Excel displays them.
+ */
+final class XlsxRowReader {
+    private static final Map<String, BiConsumer<AdministrativeAreaExcelDto, String>> COLUMNS = Map.of(
+            "REGION", AdministrativeAreaExcelDto::setRegion,
+            "SUB_REGION", AdministrativeAreaExcelDto::setSubRegion,
+            "LOCAL_GOVERNMENT", AdministrativeAreaExcelDto::setLocalGovernment,
+            "COUNTY", AdministrativeAreaExcelDto::setCounty,
+            "SUB_COUNTY", AdministrativeAreaExcelDto::setSubCounty,
+            "PARISH", AdministrativeAreaExcelDto::setParish);
+
+    private XlsxRowReader() {
+    }
+
+    static void read(Path file, Consumer<AdministrativeAreaExcelDto> rows) throws IOException {
+        OPCPackage workbook;
+        try {
+            workbook = OPCPackage.open(file.toFile(), PackageAccess.READ);
+        } catch (OpenXML4JException | NotOfficeXmlFileException e) {
+            throw new InvalidException("Invalid upload: not an xlsx workbook");
+        }
+
+        try {
+            XSSFReader reader = new XSSFReader(workbook);
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+
+            XMLReader xmlReader = XMLHelper.newXMLReader();
+            xmlReader.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(), new ReadOnlySharedStringsTable(workbook),
+                    new RowHandler(rows), new DataFormatter(), false));
+            try (InputStream sheet = sheets.next()) {
+                xmlReader.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new InvalidException("Invalid upload: " + e.getMessage());
+        } finally {
+            // read only, close() would try to save it
+            workbook.revert();
+        }
+    }
+
+    private static final class RowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final Consumer<AdministrativeAreaExcelDto> rows;
+        // setters by column index, empty until the header row is read
+        private final Map<Integer, BiConsumer<AdministrativeAreaExcelDto, String>> columns = new HashMap<>();
+        private boolean header = true;
+        private boolean regionColumn;
+        private AdministrativeAreaExcelDto row;
+        private int column;
+
+        private RowHandler(Consumer<AdministrativeAreaExcelDto> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            row = new AdministrativeAreaExcelDto();
+            column = -1;
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            // the reference is optional in the file format, cells without one follow the previous cell
+            column = cellReference == null ? column + 1 : new CellReference(cellReference).getCol();
+            if (header) {
+                BiConsumer<AdministrativeAreaExcelDto, String> setter = COLUMNS.get(formattedValue.trim().toUpperCase(Locale.ROOT).replace(' ', '_'));
+                if (setter != null) {
+                    columns.put(column, setter);
+                    regionColumn |= formattedValue.trim().equalsIgnoreCase("REGION");
+                }
+            } else {
+                BiConsumer<AdministrativeAreaExcelDto, String> setter = columns.get(column);
+                if (setter != null) {
+                    setter.accept(row, formattedValue);
+                }
+            }
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (!header) {
+                rows.accept(row);
+            } else if (!regionColumn) {
+                throw new InvalidException("Invalid upload: the first row must name the columns, REGION is missing");
+            } else {
+                header = false;
+            }
+        }
+    }
+}
@@ -33,6 +33,11 @@ public class GlobalExceptionHandler  {
         return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST , exception.getMessage());
     }
 
+    @ExceptionHandler({TooManyRequestsException.class})
+    public ProblemDetail handleTooManyRequestsException(TooManyRequestsException exception) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.TOO_MANY_REQUESTS , exception.getMessage());
+    }
+
     @ExceptionHandler({ExpiredJwtException.class})
     public ProblemDetail handleExpiredJwtException(ExpiredJwtException exception) {
         return ProblemDetail.forStatusAndDetail(HttpStatus.UNAUTHORIZED , exception.getMessage());
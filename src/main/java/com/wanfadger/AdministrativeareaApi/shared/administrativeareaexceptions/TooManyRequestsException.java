@@ -0,0 +1,7 @@
+package com.wanfadger.AdministrativeareaApi.shared.administrativeareaexceptions;
+
+public class TooManyRequestsException extends RuntimeException{
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
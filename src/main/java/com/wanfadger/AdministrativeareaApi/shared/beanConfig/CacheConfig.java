@@ -1,21 +1,37 @@
 package com.wanfadger.AdministrativeareaApi.shared.beanConfig;
 
+import com.wanfadger.AdministrativeareaApi.shared.cache.CacheGenerations;
+import com.wanfadger.AdministrativeareaApi.shared.cache.CacheInvalidationBus;
+import com.wanfadger.AdministrativeareaApi.shared.cache.CacheSingleFlight;
+import com.wanfadger.AdministrativeareaApi.shared.cache.CacheValueSerializers;
+import com.wanfadger.AdministrativeareaApi.shared.cache.RedisCacheErrorHandler;
+import com.wanfadger.AdministrativeareaApi.shared.cache.RedisCircuitBreaker;
+import com.wanfadger.AdministrativeareaApi.shared.cache.TwoTierCacheManager;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.interceptor.CacheErrorHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.cache.CacheKeyPrefix;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisClientConfiguration;
 import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
 
 import java.time.Duration;
 
 @Configuration
-public class CacheConfig {
+public class CacheConfig implements CachingConfigurer {
 
     @Value("${spring.data.redis.host}")
     String host;
@@ -23,10 +39,45 @@ public class CacheConfig {
     @Value("${spring.data.redis.port}")
     int port;
 
+    // entries of a cleared generation are only removed by their TTL, so the primary manager needs one too
+    @Value("${administrative-area.cache.default-ttl-hours:24}")
+    long defaultTtlHours;
+
+    @Value("${administrative-area.cache.serializer:compact}")
+    String serializer;
+
+    @Value("${administrative-area.cache.compression-threshold-bytes:1024}")
+    int compressionThresholdBytes;
+
+    private RedisSerializationContext.SerializationPair<Object> valueSerializer;
+
+    @PostConstruct
+    void valueSerializer() {
+        valueSerializer = RedisSerializationContext.SerializationPair.fromSerializer(CacheValueSerializers.of(serializer, compressionThresholdBytes));
+    }
+
+    @Value("${administrative-area.cache.local.maximum-size:1000}")
+    long localMaximumSize;
+
+    @Value("${administrative-area.cache.local.ttl-seconds:600}")
+    long localTtlSeconds;
+
+    @Value("${spring.data.redis.connect-timeout:500ms}")
+    Duration connectTimeout;
+
+    @Value("${spring.data.redis.timeout:500ms}")
+    Duration readTimeout;
+
     @Bean
     public JedisConnectionFactory jedisConnectionFactory(){
         RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(host, port);
-        return new JedisConnectionFactory(config);
+        // bounded so a slow redis costs a cached request at most the timeout before it falls back to the database
+        JedisClientConfiguration clientConfiguration = JedisClientConfiguration.builder()
+                .connectTimeout(connectTimeout)
+                .readTimeout(readTimeout)
+                .usePooling()
+                .build();
+        return new JedisConnectionFactory(config, clientConfiguration);
 //        return new JedisConnectionFactory();
     }
 
@@ -45,65 +96,94 @@ public class CacheConfig {
         return redisTemplate;
     }
 
+    @Override
+    public CacheErrorHandler errorHandler() {
+        return new RedisCacheErrorHandler();
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory redisConnectionFactory, CacheInvalidationBus cacheInvalidationBus) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(cacheInvalidationBus, new ChannelTopic(CacheInvalidationBus.CHANNEL));
+        return container;
+    }
+
+    // <package>.<cacheName>:<serializer>:<generation>:: , a cleared cache moves to a new generation and the old keys expire by TTL
+    // switching the serializer also moves to new keys instead of reading values written in the other format
+    private CacheKeyPrefix generationPrefix(CacheGenerations cacheGenerations) {
+        return cacheName -> this.getClass().getPackageName() + "." + cacheName + ":" + serializer + ":" + cacheGenerations.generation(cacheName) + CacheKeyPrefix.SEPARATOR;
+    }
+
+    // local copies never outlive the redis entry they were read from
+    private CacheManager twoTier(RedisConnectionFactory connectionFactory, RedisCacheConfiguration config, Duration ttl, CacheInvalidationBus cacheInvalidationBus, CacheGenerations cacheGenerations, CacheSingleFlight cacheSingleFlight, RedisCircuitBreaker redisCircuitBreaker) {
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory) //
+                .cacheDefaults(config) //
+                .build();
+        redisCacheManager.afterPropertiesSet();
+
+        Duration localTtl = Duration.ofSeconds(localTtlSeconds);
+        if (!ttl.isZero() && ttl.compareTo(localTtl) < 0) {
+            localTtl = ttl;
+        }
+        return new TwoTierCacheManager(redisCacheManager, localMaximumSize, localTtl, cacheInvalidationBus, cacheGenerations, cacheSingleFlight, redisCircuitBreaker);
+    }
+
 
     @Bean
     @Primary
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory, CacheInvalidationBus cacheInvalidationBus, CacheGenerations cacheGenerations, CacheSingleFlight cacheSingleFlight, RedisCircuitBreaker redisCircuitBreaker) {
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig() //
-                .prefixCacheNameWith(this.getClass().getPackageName() + ".") //
+                .computePrefixWith(generationPrefix(cacheGenerations)) //
+                .serializeValuesWith(valueSerializer) //
+                .entryTtl(Duration.ofHours(defaultTtlHours)) //
                 .disableCachingNullValues();
 
-        return RedisCacheManager.builder(connectionFactory) //
-                .cacheDefaults(config) //
-                .build();
+        return twoTier(connectionFactory, config, Duration.ofHours(defaultTtlHours), cacheInvalidationBus, cacheGenerations, cacheSingleFlight, redisCircuitBreaker);
     }
 
     @Bean("hourCacheManager")
-    public RedisCacheManager hourCacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager hourCacheManager(RedisConnectionFactory connectionFactory, CacheInvalidationBus cacheInvalidationBus, CacheGenerations cacheGenerations, CacheSingleFlight cacheSingleFlight, RedisCircuitBreaker redisCircuitBreaker) {
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig() //
-                .prefixCacheNameWith(this.getClass().getPackageName() + ".") //
+                .computePrefixWith(generationPrefix(cacheGenerations)) //
+                .serializeValuesWith(valueSerializer) //
                 .entryTtl(Duration.ofHours(1)) //
                 .disableCachingNullValues();
 
-        return RedisCacheManager.builder(connectionFactory) //
-                .cacheDefaults(config) //
-                .build();
+        return twoTier(connectionFactory, config, Duration.ofHours(1), cacheInvalidationBus, cacheGenerations, cacheSingleFlight, redisCircuitBreaker);
     }
 
     @Bean("_24HourCacheManager")
-    public RedisCacheManager _24HourCacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager _24HourCacheManager(RedisConnectionFactory connectionFactory, CacheInvalidationBus cacheInvalidationBus, CacheGenerations cacheGenerations, CacheSingleFlight cacheSingleFlight, RedisCircuitBreaker redisCircuitBreaker) {
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig() //
-                .prefixCacheNameWith(this.getClass().getPackageName() + ".") //
+                .computePrefixWith(generationPrefix(cacheGenerations)) //
+                .serializeValuesWith(valueSerializer) //
                 .entryTtl(Duration.ofHours(1*24)) //
                 .disableCachingNullValues();
 
-        return RedisCacheManager.builder(connectionFactory) //
-                .cacheDefaults(config) //
-                .build();
+        return twoTier(connectionFactory, config, Duration.ofHours(1*24), cacheInvalidationBus, cacheGenerations, cacheSingleFlight, redisCircuitBreaker);
     }
 
     @Bean("weekCacheManager")
-    public RedisCacheManager weekCacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager weekCacheManager(RedisConnectionFactory connectionFactory, CacheInvalidationBus cacheInvalidationBus, CacheGenerations cacheGenerations, CacheSingleFlight cacheSingleFlight, RedisCircuitBreaker redisCircuitBreaker) {
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig() //
-                .prefixCacheNameWith(this.getClass().getPackageName() + ".") //
+                .computePrefixWith(generationPrefix(cacheGenerations)) //
+                .serializeValuesWith(valueSerializer) //
                 .entryTtl(Duration.ofDays(7)) //
                 .disableCachingNullValues();
 
-        return RedisCacheManager.builder(connectionFactory) //
-                .cacheDefaults(config) //
-                .build();
+        return twoTier(connectionFactory, config, Duration.ofDays(7), cacheInvalidationBus, cacheGenerations, cacheSingleFlight, redisCircuitBreaker);
     }
 
 
     @Bean("monthCacheManager")
-    public RedisCacheManager monthCacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager monthCacheManager(RedisConnectionFactory connectionFactory, CacheInvalidationBus cacheInvalidationBus, CacheGenerations cacheGenerations, CacheSingleFlight cacheSingleFlight, RedisCircuitBreaker redisCircuitBreaker) {
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig() //
-                .prefixCacheNameWith(this.getClass().getPackageName() + ".") //
+                .computePrefixWith(generationPrefix(cacheGenerations)) //
+                .serializeValuesWith(valueSerializer) //
                 .entryTtl(Duration.ofDays(30)) //
                 .disableCachingNullValues();
 
-        return RedisCacheManager.builder(connectionFactory) //
-                .cacheDefaults(config) //
-                .build();
+        return twoTier(connectionFactory, config, Duration.ofDays(30), cacheInvalidationBus, cacheGenerations, cacheSingleFlight, redisCircuitBreaker);
     }
 }
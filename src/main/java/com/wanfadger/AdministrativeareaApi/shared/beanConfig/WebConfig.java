@@ -0,0 +1,20 @@
+package com.wanfadger.AdministrativeareaApi.shared.beanConfig;
+
+import com.wanfadger.AdministrativeareaApi.shared.web.DatasetVersionInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+    private final DatasetVersionInterceptor datasetVersionInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // upload job status changes without the dataset version moving, it must not be answered with a 304
+        registry.addInterceptor(datasetVersionInterceptor).addPathPatterns("/AdministrativeAreas/**")
+                .excludePathPatterns("/AdministrativeAreas/upload/**");
+    }
+}
@@ -0,0 +1,72 @@
+package com.wanfadger.AdministrativeareaApi.shared.cache;
+
+import com.wanfadger.AdministrativeareaApi.entity.AdministrativeAreaType;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.Map;
+
+/*
+ * Builds compact keys of the form endpoint:TYPE:value for the cached read endpoints.
+ * Only the query param the endpoint actually reads is kept, so casing, param order and extra params map to the same entry.
+ */
+@Component(AdministrativeAreaKeyGenerator.NAME)
+public class AdministrativeAreaKeyGenerator implements KeyGenerator {
+    public static final String NAME = "administrativeAreaKeyGenerator";
+
+    public static final String FILTER_ONE = "filterOne";
+    public static final String FILTER_LIST = "filterList";
+    public static final String PARISH_LIST_BY_PART_OF = "getParishByPartOf";
+    public static final String SEARCH_LIST = "searchList";
+    public static final String SEARCH_ONE = "searchOne";
+    // pre-rendered variants of the list endpoints, see ListResponseServiceImpl
+    public static final String FILTER_LIST_JSON = "filterListJson";
+    public static final String SEARCH_LIST_JSON = "searchListJson";
+    public static final String PARISH_LIST_BY_PART_OF_JSON = "getParishByPartOfJson";
+
+    // endpoint -> the query param that changes its result besides type
+    private static final Map<String, String> KEY_PARAMS = Map.of(
+            FILTER_ONE, "code",
+            FILTER_LIST, "partOf",
+            PARISH_LIST_BY_PART_OF, "partOfCode",
+            SEARCH_LIST, "partOf",
+            SEARCH_ONE, "code",
+            FILTER_LIST_JSON, "partOf",
+            SEARCH_LIST_JSON, "partOf",
+            PARISH_LIST_BY_PART_OF_JSON, "partOfCode"
+    );
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object generate(Object target, Method method, Object... params) {
+        String endpoint = method.getName();
+        String param = KEY_PARAMS.get(endpoint);
+        if (param == null || params.length == 0 || !(params[0] instanceof Map)) {
+            throw new IllegalStateException("No cache key defined for " + method);
+        }
+
+        Map<String, String> queryMap = (Map<String, String>) params[0];
+        String type = queryMap.get("type");
+        String value = queryMap.get(param);
+
+        return AdministrativeAreaType.administrativeAreaTypeStr(type)
+                .map(administrativeAreaType -> key(endpoint, administrativeAreaType, value))
+                // an unknown type fails in the service and is never cached, the key only has to be stable
+                .orElseGet(() -> endpoint + ":" + normalize(type) + ":" + normalize(value));
+    }
+
+    public static String key(String endpoint, AdministrativeAreaType administrativeAreaType, String value) {
+        // region lists ignore partOf
+        if (administrativeAreaType == AdministrativeAreaType.REGION && (FILTER_LIST.equals(endpoint) || SEARCH_LIST.equals(endpoint)
+                || FILTER_LIST_JSON.equals(endpoint) || SEARCH_LIST_JSON.equals(endpoint))) {
+            value = null;
+        }
+        return endpoint + ":" + administrativeAreaType.name() + ":" + normalize(value);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+}
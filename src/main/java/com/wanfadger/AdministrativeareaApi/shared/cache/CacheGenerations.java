@@ -0,0 +1,73 @@
+package com.wanfadger.AdministrativeareaApi.shared.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Generation number per cache name, part of every redis key of that cache.
+ * Clearing a cache is a single INCR, entries of older generations are never read again and expire by TTL.
+ * A clear whose INCR did not reach redis stays pending, the cache keeps away from redis until it gets through.
+ * The generation known locally is re-read after ttl-ms. A clear announced while this instance was not listening
+ * (lost message, subscriber reconnecting, circuit breaker open) is picked up then at the latest.
+ */
+@Component
+public class CacheGenerations {
+    public static final String KEY_PREFIX = "administrative-area:cache-generation:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final long ttlMs;
+
+    // read on every cache operation, reloaded from redis after a clear on any instance
+    private final Map<String, Generation> generations = new ConcurrentHashMap<>();
+    private final Set<String> pendingClears = ConcurrentHashMap.newKeySet();
+
+    public CacheGenerations(StringRedisTemplate stringRedisTemplate,
+                            @Value("${administrative-area.cache.generation.ttl-ms:30000}") long ttlMs) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.ttlMs = ttlMs;
+    }
+
+    public long generation(String cacheName) {
+        Generation known = generations.get(cacheName);
+        if (known != null && !known.isExpired(ttlMs)) {
+            return known.value();
+        }
+
+        // not inside computeIfAbsent, a slow redis would block every other cache name hashed to the same bin
+        String value = stringRedisTemplate.opsForValue().get(KEY_PREFIX + cacheName);
+        Generation read = new Generation(value == null ? 0L : Long.parseLong(value), System.currentTimeMillis());
+        // a read that raced with a clear of this instance must not take the old generation back
+        return generations.merge(cacheName, read, (current, fresh) -> current.value() > fresh.value() && !current.isExpired(ttlMs) ? current : fresh).value();
+    }
+
+    public long increment(String cacheName) {
+        Long generation = stringRedisTemplate.opsForValue().increment(KEY_PREFIX + cacheName);
+        long next = generation == null ? 0L : generation;
+        generations.put(cacheName, new Generation(next, System.currentTimeMillis()));
+        pendingClears.remove(cacheName);
+        return next;
+    }
+
+    void markClearPending(String cacheName) {
+        pendingClears.add(cacheName);
+    }
+
+    boolean isClearPending(String cacheName) {
+        return pendingClears.contains(cacheName);
+    }
+
+    void forget(String cacheName) {
+        generations.remove(cacheName);
+    }
+
+    private record Generation(long value, long readAt) {
+        boolean isExpired(long ttlMs) {
+            return System.currentTimeMillis() - readAt >= ttlMs;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.wanfadger.AdministrativeareaApi.shared.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/*
+ * Fans local cache invalidations out to every instance over a Redis pub/sub channel.
+ * Invalidations are applied by cache name to every TwoTierCacheManager, the same cache is reachable through several managers.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidationBus implements MessageListener {
+    public static final String CHANNEL = "administrative-area:cache-invalidation";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final CacheGenerations cacheGenerations;
+    private final RedisCircuitBreaker redisCircuitBreaker;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<TwoTierCacheManager> cacheManagers = new CopyOnWriteArrayList<>();
+
+    void register(TwoTierCacheManager cacheManager) {
+        cacheManagers.add(cacheManager);
+    }
+
+    public void evict(String cacheName, String key) {
+        cacheManagers.forEach(cacheManager -> cacheManager.evictLocal(cacheName, key));
+        publish(new CacheInvalidationMessage(nodeId, cacheName, key));
+    }
+
+    public void clear(String cacheName) {
+        cacheManagers.forEach(cacheManager -> cacheManager.clearLocal(cacheName));
+        publish(new CacheInvalidationMessage(nodeId, cacheName, null));
+    }
+
+    private void publish(CacheInvalidationMessage message) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        // when this is lost, other instances keep their local copy until the local TTL, and after a clear they keep
+        // reading the old generation from redis until they re-read it (administrative-area.cache.generation.ttl-ms)
+        redisCircuitBreaker.run("publish", () -> stringRedisTemplate.convertAndSend(CHANNEL, payload));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidationMessage invalidation;
+        try {
+            invalidation = objectMapper.readValue(message.getBody(), CacheInvalidationMessage.class);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable cache invalidation message", e);
+            return;
+        }
+
+        // already applied locally before publishing
+        if (nodeId.equals(invalidation.nodeId())) {
+            return;
+        }
+
+        if (invalidation.key() == null) {
+            // the generation was bumped by the sender
+            cacheGenerations.forget(invalidation.cacheName());
+            cacheManagers.forEach(cacheManager -> cacheManager.clearLocal(invalidation.cacheName()));
+        } else {
+            cacheManagers.forEach(cacheManager -> cacheManager.evictLocal(invalidation.cacheName(), invalidation.key()));
+        }
+    }
+
+    // key is null when the whole cache was cleared
+    record CacheInvalidationMessage(String nodeId, String cacheName, String key) {
+    }
+}
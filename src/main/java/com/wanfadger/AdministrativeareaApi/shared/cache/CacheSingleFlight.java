@@ -0,0 +1,116 @@
+package com.wanfadger.AdministrativeareaApi.shared.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/*
+ * One load per cache key at a time, shared by every TwoTierCacheManager.
+ * Concurrent misses in this JVM wait for the first caller's result. With the distributed lock enabled a short
+ * redis lock also makes other instances wait for the value to show up in redis instead of loading it themselves.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheSingleFlight {
+    public static final String LOCK_PREFIX = "administrative-area:cache-lock:";
+
+    // only delete the lock if it is still ours, it may have expired and been taken by another instance
+    private static final RedisScript<Long> UNLOCK = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisCircuitBreaker redisCircuitBreaker;
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${administrative-area.cache.single-flight.distributed-lock:false}")
+    private boolean distributedLock;
+
+    @Value("${administrative-area.cache.single-flight.lock-ttl-ms:5000}")
+    private long lockTtlMs;
+
+    @Value("${administrative-area.cache.single-flight.poll-interval-ms:50}")
+    private long pollIntervalMs;
+
+    /*
+     * probe re-reads the cache, it is checked again once this caller owns the load because the previous owner
+     * may have finished in between.
+     */
+    public Object load(String cacheName, String key, Supplier<Cache.ValueWrapper> probe, Callable<Object> loader) throws Exception {
+        String flightKey = cacheName + ":" + key;
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, flight);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            Object value = distributedLock ? loadLocked(flightKey, probe, loader) : loadChecked(probe, loader);
+            flight.complete(value);
+            return value;
+        } catch (Exception e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    private Object loadChecked(Supplier<Cache.ValueWrapper> probe, Callable<Object> loader) throws Exception {
+        Cache.ValueWrapper valueWrapper = probe.get();
+        if (valueWrapper != null && valueWrapper.get() != null) {
+            return valueWrapper.get();
+        }
+        return loader.call();
+    }
+
+    private Object loadLocked(String flightKey, Supplier<Cache.ValueWrapper> probe, Callable<Object> loader) throws Exception {
+        String lockKey = LOCK_PREFIX + flightKey;
+        String token = UUID.randomUUID().toString();
+
+        long deadline = System.currentTimeMillis() + lockTtlMs;
+        // without redis there is nothing to coordinate with, load as if the lock was ours
+        while (!redisCircuitBreaker.call("lock", () -> Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(lockKey, token, Duration.ofMillis(lockTtlMs))), () -> true)) {
+            Cache.ValueWrapper valueWrapper = probe.get();
+            if (valueWrapper != null && valueWrapper.get() != null) {
+                return valueWrapper.get();
+            }
+            // the other instance is too slow or gone, load it ourselves rather than wait any longer
+            if (System.currentTimeMillis() >= deadline) {
+                return loader.call();
+            }
+            Thread.sleep(pollIntervalMs);
+        }
+
+        try {
+            return loadChecked(probe, loader);
+        } finally {
+            redisCircuitBreaker.run("unlock", () -> stringRedisTemplate.execute(UNLOCK, List.of(lockKey), token));
+        }
+    }
+
+    private Object await(CompletableFuture<Object> flight) throws Exception {
+        try {
+            return flight.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.wanfadger.AdministrativeareaApi.shared.cache;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.wanfadger.AdministrativeareaApi.shared.administrativeareaexceptions.InvalidException;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/*
+ * Value serializers selectable with administrative-area.cache.serializer.
+ * jdk    - java serialization, the RedisCacheConfiguration default
+ * json   - Jackson JSON with type information
+ * compact - Jackson Smile (binary JSON) with type information, LZ4 compressed above the threshold
+ */
+public final class CacheValueSerializers {
+    public static final String JDK = "jdk";
+    public static final String JSON = "json";
+    public static final String COMPACT = "compact";
+
+    private CacheValueSerializers() {
+    }
+
+    public static RedisSerializer<Object> of(String name, int compressionThresholdBytes) {
+        return switch (name.toLowerCase()) {
+            case JDK -> new JdkSerializationRedisSerializer(CacheValueSerializers.class.getClassLoader());
+            case JSON -> new JacksonRedisSerializer(typed(new ObjectMapper()));
+            case COMPACT -> new CompressingRedisSerializer<>(new JacksonRedisSerializer(typed(SmileMapper.builder()
+                    // repeated names of the embedded parent areas are written once and back referenced
+                    .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                    .build())), compressionThresholdBytes);
+            default -> throw new InvalidException("Unknown cache serializer " + name);
+        };
+    }
+
+    // cached values are stored as Object, so the concrete dto classes have to travel with the data
+    private static ObjectMapper typed(ObjectMapper objectMapper) {
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        objectMapper.activateDefaultTyping(BasicPolymorphicTypeValidator.builder()
+                        .allowIfSubType("com.wanfadger.AdministrativeareaApi.")
+                        .allowIfSubType("java.util.")
+                        .allowIfSubType("java.lang.")
+                        .build(),
+                ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+        return objectMapper;
+    }
+}
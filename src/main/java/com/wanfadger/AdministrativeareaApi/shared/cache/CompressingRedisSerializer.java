@@ -0,0 +1,72 @@
+package com.wanfadger.AdministrativeareaApi.shared.cache;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+
+/*
+ * LZ4 compresses the output of another serializer once it is larger than the threshold.
+ * Every value starts with a one byte header, compressed values also carry their original length.
+ */
+public class CompressingRedisSerializer<T> implements RedisSerializer<T> {
+    static final byte RAW = 0;
+    static final byte LZ4 = 1;
+
+    private static final LZ4Factory LZ4_FACTORY = LZ4Factory.fastestInstance();
+
+    private final RedisSerializer<T> delegate;
+    private final int thresholdBytes;
+    private final LZ4Compressor compressor = LZ4_FACTORY.fastCompressor();
+    private final LZ4FastDecompressor decompressor = LZ4_FACTORY.fastDecompressor();
+
+    public CompressingRedisSerializer(RedisSerializer<T> delegate, int thresholdBytes) {
+        this.delegate = delegate;
+        this.thresholdBytes = thresholdBytes;
+    }
+
+    @Override
+    public byte[] serialize(T value) throws SerializationException {
+        byte[] bytes = delegate.serialize(value);
+        if (bytes == null) {
+            return null;
+        }
+
+        if (bytes.length < thresholdBytes) {
+            byte[] raw = new byte[bytes.length + 1];
+            raw[0] = RAW;
+            System.arraycopy(bytes, 0, raw, 1, bytes.length);
+            return raw;
+        }
+
+        byte[] compressed = new byte[5 + compressor.maxCompressedLength(bytes.length)];
+        int compressedLength = compressor.compress(bytes, 0, bytes.length, compressed, 5);
+        ByteBuffer.wrap(compressed, 0, 5).put(LZ4).putInt(bytes.length);
+        byte[] result = new byte[5 + compressedLength];
+        System.arraycopy(compressed, 0, result, 0, result.length);
+        return result;
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+
+        return switch (bytes[0]) {
+            case RAW -> {
+                byte[] raw = new byte[bytes.length - 1];
+                System.arraycopy(bytes, 1, raw, 0, raw.length);
+                yield delegate.deserialize(raw);
+            }
+            case LZ4 -> {
+                int length = ByteBuffer.wrap(bytes, 1, 4).getInt();
+                yield delegate.deserialize(decompressor.decompress(bytes, 5, length));
+            }
+            default -> throw new SerializationException("Unknown cache value header " + bytes[0]);
+        };
+    }
+}
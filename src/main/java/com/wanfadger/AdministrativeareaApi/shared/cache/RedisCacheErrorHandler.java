@@ -0,0 +1,30 @@
+package com.wanfadger.AdministrativeareaApi.shared.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+
+// last line of defence behind the circuit breaker, a cache failure never fails the request
+@Slf4j
+public class RedisCacheErrorHandler implements CacheErrorHandler {
+
+    @Override
+    public void handleCacheGetError(RuntimeException exception, Cache cache, Object key) {
+        log.warn("Cache get failed for {} {}, treating it as a miss: {}", cache.getName(), key, exception.getMessage());
+    }
+
+    @Override
+    public void handleCachePutError(RuntimeException exception, Cache cache, Object key, Object value) {
+        log.warn("Cache put failed for {} {}: {}", cache.getName(), key, exception.getMessage());
+    }
+
+    @Override
+    public void handleCacheEvictError(RuntimeException exception, Cache cache, Object key) {
+        log.warn("Cache evict failed for {} {}: {}", cache.getName(), key, exception.getMessage());
+    }
+
+    @Override
+    public void handleCacheClearError(RuntimeException exception, Cache cache) {
+        log.warn("Cache clear failed for {}: {}", cache.getName(), exception.getMessage());
+    }
+}
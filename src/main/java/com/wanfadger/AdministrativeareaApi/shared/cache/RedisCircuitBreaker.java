@@ -0,0 +1,118 @@
+package com.wanfadger.AdministrativeareaApi.shared.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/*
+ * Guards every redis call of the cache layer.
+ * After failure-threshold consecutive failures redis is bypassed for open-duration, the caches then behave as misses
+ * (reads go to the database, writes are skipped). After that a single trial call decides whether to close again.
+ */
+@Slf4j
+@Component
+public class RedisCircuitBreaker {
+    public enum State {CLOSED, HALF_OPEN, OPEN}
+
+    private final int failureThreshold;
+    private final long openDurationMs;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+    private volatile long openedAt;
+
+    public RedisCircuitBreaker(@Value("${administrative-area.cache.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                               @Value("${administrative-area.cache.circuit-breaker.open-duration-ms:30000}") long openDurationMs,
+                               MeterRegistry meterRegistry) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationMs = openDurationMs;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("cache.redis.circuit.state", state, current -> current.get().ordinal())
+                .description("0 closed, 1 half open, 2 open")
+                .register(meterRegistry);
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public <T> T call(String operation, Supplier<T> action, Supplier<T> fallback) {
+        if (!allowRequest()) {
+            return fallback.get();
+        }
+
+        try {
+            T result = action.get();
+            recordSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            recordFailure(operation, e);
+            return fallback.get();
+        }
+    }
+
+    public void run(String operation, Runnable action) {
+        call(operation, () -> {
+            action.run();
+            return null;
+        }, () -> null);
+    }
+
+    private boolean allowRequest() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+
+        if (current == State.OPEN && System.currentTimeMillis() - openedAt >= openDurationMs) {
+            transition(State.OPEN, State.HALF_OPEN);
+        }
+        // one trial call at a time while half open
+        return state.get() == State.HALF_OPEN && trialInFlight.compareAndSet(false, true);
+    }
+
+    private void recordSuccess() {
+        consecutiveFailures.set(0);
+        if (state.get() == State.HALF_OPEN) {
+            transition(State.HALF_OPEN, State.CLOSED);
+            trialInFlight.set(false);
+        }
+    }
+
+    void recordFailure(String operation, RuntimeException e) {
+        Counter.builder("cache.redis.errors").tag("operation", operation).register(meterRegistry).increment();
+
+        if (state.get() == State.HALF_OPEN) {
+            open(State.HALF_OPEN);
+            trialInFlight.set(false);
+            return;
+        }
+
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            open(State.CLOSED);
+        }
+        log.warn("Redis {} failed, treating it as a cache miss: {}", operation, e.getMessage());
+    }
+
+    private void open(State from) {
+        openedAt = System.currentTimeMillis();
+        transition(from, State.OPEN);
+    }
+
+    private void transition(State from, State to) {
+        if (state.compareAndSet(from, to)) {
+            log.warn("Redis circuit breaker {} -> {}", from, to);
+            Counter.builder("cache.redis.circuit.transitions").tag("from", from.name()).tag("to", to.name()).register(meterRegistry).increment();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.wanfadger.AdministrativeareaApi.shared.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+
+/*
+ * Local Caffeine cache (L1) in front of a remote Redis cache (L2).
+ * Evictions go to Redis and are broadcast through the CacheInvalidationBus so every instance drops its L1 copy.
+ * A clear bumps the cache generation instead of scanning and deleting the Redis keys. Until that bump reaches
+ * Redis the cache works on L1 alone, the entries of the old generation would bring the cleared values back.
+ * Loads (@Cacheable sync = true) go through CacheSingleFlight so a miss is computed once per key.
+ * Redis calls go through the RedisCircuitBreaker, a failing Redis is a miss and never fails the request.
+ */
+public class TwoTierCache implements Cache {
+    private final Cache remote;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final CacheGenerations cacheGenerations;
+    private final CacheSingleFlight cacheSingleFlight;
+    private final RedisCircuitBreaker redisCircuitBreaker;
+
+    public TwoTierCache(Cache remote, com.github.benmanes.caffeine.cache.Cache<String, Object> local, CacheInvalidationBus cacheInvalidationBus, CacheGenerations cacheGenerations, CacheSingleFlight cacheSingleFlight, RedisCircuitBreaker redisCircuitBreaker) {
+        this.remote = remote;
+        this.local = local;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.cacheGenerations = cacheGenerations;
+        this.cacheSingleFlight = cacheSingleFlight;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+    }
+
+    // Redis keys are rendered as strings too, so this is what other instances receive on eviction
+    static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    @Override
+    public String getName() {
+        return remote.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object value = local.getIfPresent(localKey(key));
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+
+        if (!remoteUsable()) {
+            return null;
+        }
+        ValueWrapper valueWrapper = redisCircuitBreaker.call("get", () -> remote.get(key), () -> null);
+        if (valueWrapper != null && valueWrapper.get() != null) {
+            local.put(localKey(key), valueWrapper.get());
+        }
+        return valueWrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper valueWrapper = get(key);
+        Object value = valueWrapper != null ? valueWrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper valueWrapper = get(key);
+        if (valueWrapper != null && valueWrapper.get() != null) {
+            return (T) valueWrapper.get();
+        }
+
+        // not remote.get(key, valueLoader), RedisCache serializes those loads on a single lock per cache
+        try {
+            return (T) cacheSingleFlight.load(getName(), localKey(key), () -> get(key), () -> {
+                T value = valueLoader.call();
+                if (value != null) {
+                    put(key, value);
+                }
+                return value;
+            });
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (remoteUsable()) {
+            redisCircuitBreaker.run("put", () -> remote.put(key, value));
+        }
+        if (value != null) {
+            local.put(localKey(key), value);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        // while redis is unreachable its copy outlives the eviction until the entry TTL
+        if (remoteUsable()) {
+            redisCircuitBreaker.run("evict", () -> remote.evict(key));
+        }
+        cacheInvalidationBus.evict(getName(), localKey(key));
+    }
+
+    @Override
+    public void clear() {
+        cacheGenerations.markClearPending(getName());
+        incrementGeneration();
+        cacheInvalidationBus.clear(getName());
+    }
+
+    // false while a clear still owes its INCR, every call retries it once the circuit breaker lets calls through again
+    private boolean remoteUsable() {
+        if (!cacheGenerations.isClearPending(getName())) {
+            return true;
+        }
+        if (!incrementGeneration()) {
+            return false;
+        }
+        // the publish of the clear most likely failed too, the other instances hear about it now
+        cacheInvalidationBus.clear(getName());
+        return true;
+    }
+
+    private boolean incrementGeneration() {
+        return redisCircuitBreaker.call("clear", () -> {
+            cacheGenerations.increment(getName());
+            return true;
+        }, () -> false);
+    }
+
+    void evictLocal(String key) {
+        local.invalidate(key);
+    }
+
+    void clearLocal() {
+        local.invalidateAll();
+    }
+}
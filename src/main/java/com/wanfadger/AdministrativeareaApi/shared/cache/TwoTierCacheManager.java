@@ -0,0 +1,75 @@
+package com.wanfadger.AdministrativeareaApi.shared.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class TwoTierCacheManager implements CacheManager, InitializingBean {
+    private final CacheManager remote;
+    private final long localMaximumSize;
+    private final Duration localTtl;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final CacheGenerations cacheGenerations;
+    private final CacheSingleFlight cacheSingleFlight;
+    private final RedisCircuitBreaker redisCircuitBreaker;
+
+    private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(CacheManager remote, long localMaximumSize, Duration localTtl, CacheInvalidationBus cacheInvalidationBus, CacheGenerations cacheGenerations, CacheSingleFlight cacheSingleFlight, RedisCircuitBreaker redisCircuitBreaker) {
+        this.remote = remote;
+        this.localMaximumSize = localMaximumSize;
+        this.localTtl = localTtl;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.cacheGenerations = cacheGenerations;
+        this.cacheSingleFlight = cacheSingleFlight;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+    }
+
+    // not from the constructor, the bus must not see a half built manager
+    @Override
+    public void afterPropertiesSet() {
+        cacheInvalidationBus.register(this);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoTierCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+
+        Cache remoteCache = remote.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, key -> new TwoTierCache(remoteCache, Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(localTtl)
+                .build(), cacheInvalidationBus, cacheGenerations, cacheSingleFlight, redisCircuitBreaker));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+
+    void evictLocal(String cacheName, String key) {
+        TwoTierCache cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.evictLocal(key);
+        }
+    }
+
+    void clearLocal(String cacheName) {
+        TwoTierCache cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.clearLocal();
+        }
+    }
+}
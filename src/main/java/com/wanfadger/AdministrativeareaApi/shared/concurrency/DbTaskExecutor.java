@@ -0,0 +1,76 @@
+package com.wanfadger.AdministrativeareaApi.shared.concurrency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/*
+ * Runs independent blocking database calls side by side, one virtual thread each. At most max-concurrency calls
+ * hold a connection at once across the whole application, so a fan-out never drains the Hikari pool the request
+ * threads need (keep it well below spring.datasource.hikari.maximum-pool-size). Database work never goes to the
+ * common ForkJoinPool, parallel streams are for CPU work only.
+ * Inside a transaction the tasks run one after the other on the caller thread.
+ */
+@Component
+public class DbTaskExecutor {
+    private final Semaphore permits;
+
+    public DbTaskExecutor(@Value("${administrative-area.db-fan-out.max-concurrency:8}") int maxConcurrency) {
+        this.permits = new Semaphore(maxConcurrency, true);
+    }
+
+    // results in the order of the tasks, the first failure cancels the others and is rethrown
+    public <T> List<T> invokeAll(List<Callable<T>> tasks) {
+        // a transaction is bound to the caller's connection, other threads would not see its uncommitted writes
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            List<T> results = new ArrayList<>(tasks.size());
+            for (Callable<T> task : tasks) {
+                results.add(call(task));
+            }
+            return results;
+        }
+
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("db-task-", 1).factory())) {
+            List<Future<T>> futures = new ArrayList<>(tasks.size());
+            tasks.forEach(task -> futures.add(executor.submit(() -> bounded(task))));
+
+            List<T> results = new ArrayList<>(tasks.size());
+            try {
+                for (Future<T> future : futures) {
+                    results.add(future.get());
+                }
+            } catch (ExecutionException e) {
+                futures.forEach(future -> future.cancel(true));
+                throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : new IllegalStateException(e.getCause());
+            } catch (InterruptedException e) {
+                futures.forEach(future -> future.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new CancellationException("database tasks interrupted");
+            }
+            return results;
+        }
+    }
+
+    private static <T> T call(Callable<T> task) {
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private <T> T bounded(Callable<T> task) throws Exception {
+        permits.acquire();
+        try {
+            return task.call();
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.wanfadger.AdministrativeareaApi.shared.reponses;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// the UTF-8 JSON of an AdministrativeAreaResponseDto, written to the client as is
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RenderedResponse implements Serializable {
+    private byte[] body;
+    // gzip encoded body, null when the body is too small to be worth it
+    private byte[] gzipBody;
+
+    public RenderedResponse(byte[] body) {
+        this.body = body;
+    }
+}
@@ -1,5 +1,7 @@
 package com.wanfadger.AdministrativeareaApi.shared.util;
 
+import com.wanfadger.AdministrativeareaApi.service.closure.ClosureService;
+import com.wanfadger.AdministrativeareaApi.service.gazetteer.GazetteerService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
@@ -8,11 +10,16 @@ import org.springframework.transaction.annotation.Transactional;
 @Component
 @RequiredArgsConstructor
 public class AdministrativeAreaRunner implements CommandLineRunner {
+    private final GazetteerService gazetteerService;
+    private final ClosureService closureService;
 
     @Override
     @Transactional
     public void run(String... args) throws Exception {
-
+        closureService.rebuildIfIncomplete();
+        if (gazetteerService.isEnabled()) {
+            gazetteerService.refresh();
+        }
     }
 
 
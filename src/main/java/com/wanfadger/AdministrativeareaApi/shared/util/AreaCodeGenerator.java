@@ -0,0 +1,64 @@
+package com.wanfadger.AdministrativeareaApi.shared.util;
+
+import com.wanfadger.AdministrativeareaApi.entity.BaseEntity;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+/*
+ * Codes of new areas, time ordered UUIDs (version 7, RFC 9562) in the usual 36 character form.
+ * 48 bits of milliseconds, a 12 bit counter that keeps codes of the same millisecond unique and ordered
+ * within the process, and 62 random bits that keep instances apart. No lookup is needed before an insert,
+ * the unique constraint on code stays the backstop.
+ */
+public final class AreaCodeGenerator {
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int MAX_COUNTER = 0xFFF;
+
+    private static long lastMillis = -1;
+    private static int counter;
+
+    private AreaCodeGenerator() {
+    }
+
+    public static String next() {
+        return next(1).get(0);
+    }
+
+    // count codes allocated under one lock, ascending in the order they are handed out
+    public static List<String> next(int count) {
+        List<String> codes = new ArrayList<>(count);
+        synchronized (AreaCodeGenerator.class) {
+            for (int i = 0; i < count; i++) {
+                codes.add(nextUuid().toString());
+            }
+        }
+        return codes;
+    }
+
+    // codes for a batch of new areas, allocated in one go
+    public static <T extends BaseEntity> List<T> assign(List<T> areas) {
+        Iterator<String> codes = next(areas.size()).iterator();
+        areas.forEach(area -> area.setCode(codes.next()));
+        return areas;
+    }
+
+    private static UUID nextUuid() {
+        long millis = System.currentTimeMillis();
+        if (millis > lastMillis) {
+            lastMillis = millis;
+            counter = 0;
+        } else if (++counter > MAX_COUNTER) {
+            // more than 4096 codes in one millisecond (or the clock went back), borrow the next millisecond
+            lastMillis++;
+            counter = 0;
+        }
+
+        long mostSigBits = (lastMillis << 16) | 0x7000L | counter;
+        long leastSigBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -0,0 +1,50 @@
+package com.wanfadger.AdministrativeareaApi.shared.util;
+
+import com.wanfadger.AdministrativeareaApi.shared.administrativeareaexceptions.InvalidException;
+import lombok.Getter;
+
+import java.util.Map;
+
+/*
+ * Keyset pagination of the list endpoints, after=<last code of the previous page>&limit=N.
+ * Pages are ordered by code, a page shorter than limit is the last one.
+ * The gazetteer orders codes with String.compareTo, the database with the collation of the code column. The two
+ * agree on the generated codes (lowercase UUIDv7) and on any code under the "C" collation, mixed case legacy codes
+ * may page differently, so every instance should run with the same administrative-area.gazetteer.enabled.
+ */
+@Getter
+public final class KeysetPage {
+    public static final String AFTER = "after";
+    public static final String LIMIT = "limit";
+
+    private final String after;
+    private final int limit;
+
+    private KeysetPage(String after, int limit) {
+        this.after = after;
+        this.limit = limit;
+    }
+
+    public static boolean isRequested(Map<String, String> queryMap) {
+        return queryMap.containsKey(AFTER) || queryMap.containsKey(LIMIT);
+    }
+
+    public static KeysetPage of(Map<String, String> queryMap, int defaultLimit, int maxLimit) {
+        String after = queryMap.get(AFTER);
+        String limit = queryMap.get(LIMIT);
+
+        int pageLimit = defaultLimit;
+        if (limit != null && !limit.isBlank()) {
+            try {
+                pageLimit = Integer.parseInt(limit.trim());
+            } catch (NumberFormatException e) {
+                throw new InvalidException("Invalid limit " + limit);
+            }
+            if (pageLimit < 1 || pageLimit > maxLimit) {
+                throw new InvalidException("limit must be between 1 and " + maxLimit);
+            }
+        }
+        // every code sorts after the empty string, no after means the first page
+        return new KeysetPage(after == null ? "" : after, pageLimit);
+    }
+}
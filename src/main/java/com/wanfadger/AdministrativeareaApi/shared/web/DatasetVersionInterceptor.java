@@ -0,0 +1,54 @@
+package com.wanfadger.AdministrativeareaApi.shared.web;
+
+import com.wanfadger.AdministrativeareaApi.service.datasetversion.DatasetVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/*
+ * Every GET response is tagged with the dataset version, a client that already has it gets a 304
+ * before the controller runs, so no cache or database work is done for it.
+ */
+@Component
+@RequiredArgsConstructor
+public class DatasetVersionInterceptor implements HandlerInterceptor {
+    // the version the ETag was computed from, handlers that change the representation derive their ETag from it
+    public static final String VERSION_ATTRIBUTE = DatasetVersionInterceptor.class.getName() + ".version";
+
+    private final DatasetVersionService datasetVersionService;
+
+    public static String etag(long version) {
+        return "\"" + Long.toString(version, 36) + "\"";
+    }
+
+    // strong ETags differ per content encoding, see AdministrativeAreaController.rendered
+    public static String gzipEtag(long version) {
+        return "\"" + Long.toString(version, 36) + "-gzip\"";
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+
+        long version = datasetVersionService.current();
+        // clients revalidate every time, the answer is a 304 as long as nothing was written
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        request.setAttribute(VERSION_ATTRIBUTE, version);
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && ifNoneMatch.contains(gzipEtag(version))) {
+            response.setHeader(HttpHeaders.ETAG, gzipEtag(version));
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return false;
+        }
+        // sets ETag and Last-Modified, or the 304 status when If-None-Match / If-Modified-Since match
+        return !new ServletWebRequest(request, response).checkNotModified(etag(version), version);
+    }
+}
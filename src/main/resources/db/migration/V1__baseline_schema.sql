@@ -0,0 +1,107 @@
+-- Schema as it was created by hibernate (ddl-auto=update) before the migrations.
+-- Every statement is idempotent so the script also runs on databases that already have these tables,
+-- the constraint names are the ones hibernate generated.
+
+CREATE TABLE IF NOT EXISTS Region (
+    id varchar(255) NOT NULL PRIMARY KEY,
+    code varchar(255) NOT NULL UNIQUE,
+    name varchar(255) NOT NULL UNIQUE,
+    description varchar(255),
+    latitude float(53),
+    longitude float(53),
+    createdDateTime timestamp(6),
+    updatedDateTime timestamp(6)
+);
+
+CREATE TABLE IF NOT EXISTS SubRegion (
+    id varchar(255) NOT NULL PRIMARY KEY,
+    code varchar(255) NOT NULL UNIQUE,
+    name varchar(255) NOT NULL UNIQUE,
+    description varchar(255),
+    latitude float(53),
+    longitude float(53),
+    createdDateTime timestamp(6),
+    updatedDateTime timestamp(6),
+    region_id varchar(255) NOT NULL,
+    CONSTRAINT FKaxtsax0g01n6rww5fn3chg8fi FOREIGN KEY (region_id) REFERENCES Region
+);
+
+CREATE TABLE IF NOT EXISTS LocalGovernment (
+    id varchar(255) NOT NULL PRIMARY KEY,
+    code varchar(255) NOT NULL UNIQUE,
+    name varchar(255) NOT NULL UNIQUE,
+    description varchar(255),
+    latitude float(53),
+    longitude float(53),
+    createdDateTime timestamp(6),
+    updatedDateTime timestamp(6),
+    subRegion_id varchar(255) NOT NULL,
+    CONSTRAINT FKgbsmx37l77laxg8v2nkiobt8i FOREIGN KEY (subRegion_id) REFERENCES SubRegion
+);
+
+CREATE TABLE IF NOT EXISTS County (
+    id varchar(255) NOT NULL PRIMARY KEY,
+    code varchar(255) NOT NULL UNIQUE,
+    name varchar(255) NOT NULL,
+    description varchar(255),
+    latitude float(53),
+    longitude float(53),
+    createdDateTime timestamp(6),
+    updatedDateTime timestamp(6),
+    localGovernment_id varchar(255) NOT NULL,
+    CONSTRAINT FK8qedmj9pr70bva3e0pca5aq6v FOREIGN KEY (localGovernment_id) REFERENCES LocalGovernment
+);
+
+CREATE TABLE IF NOT EXISTS SubCounty (
+    id varchar(255) NOT NULL PRIMARY KEY,
+    code varchar(255) NOT NULL UNIQUE,
+    name varchar(255) NOT NULL,
+    description varchar(255),
+    latitude float(53),
+    longitude float(53),
+    createdDateTime timestamp(6),
+    updatedDateTime timestamp(6),
+    county_id varchar(255) NOT NULL,
+    CONSTRAINT FKca0bmv1ctmkla7hj06hpg1nia FOREIGN KEY (county_id) REFERENCES County
+);
+
+CREATE TABLE IF NOT EXISTS Parish (
+    id varchar(255) NOT NULL PRIMARY KEY,
+    code varchar(255) NOT NULL UNIQUE,
+    name varchar(255) NOT NULL,
+    description varchar(255),
+    latitude float(53),
+    longitude float(53),
+    createdDateTime timestamp(6),
+    updatedDateTime timestamp(6),
+    subCounty_id varchar(255) NOT NULL,
+    CONSTRAINT FKi5v5g5gqbpqomv1cy4bkx4fbk FOREIGN KEY (subCounty_id) REFERENCES SubCounty
+);
+
+CREATE TABLE IF NOT EXISTS Company (
+    id varchar(255) NOT NULL PRIMARY KEY,
+    code varchar(255) NOT NULL UNIQUE,
+    email varchar(255),
+    description varchar(255),
+    latitude float(53),
+    longitude float(53),
+    createdDateTime timestamp(6),
+    updatedDateTime timestamp(6)
+);
+
+CREATE TABLE IF NOT EXISTS AdministrativeAreaClosure (
+    ancestorCode varchar(255) NOT NULL,
+    descendantCode varchar(255) NOT NULL,
+    ancestorType varchar(255) NOT NULL CHECK (ancestorType IN ('REGION', 'SUBREGION', 'LOCALGOVERNMENT', 'COUNTY', 'SUBCOUNTY', 'PARISH')),
+    descendantType varchar(255) NOT NULL CHECK (descendantType IN ('REGION', 'SUBREGION', 'LOCALGOVERNMENT', 'COUNTY', 'SUBCOUNTY', 'PARISH')),
+    depth integer NOT NULL,
+    PRIMARY KEY (ancestorCode, descendantCode)
+);
+
+CREATE INDEX IF NOT EXISTS idx_sub_region_region_code ON SubRegion (region_id, code);
+CREATE INDEX IF NOT EXISTS idx_local_government_sub_region_code ON LocalGovernment (subRegion_id, code);
+CREATE INDEX IF NOT EXISTS idx_county_local_government_code ON County (localGovernment_id, code);
+CREATE INDEX IF NOT EXISTS idx_sub_county_county_code ON SubCounty (county_id, code);
+CREATE INDEX IF NOT EXISTS idx_parish_sub_county_code ON Parish (subCounty_id, code);
+CREATE INDEX IF NOT EXISTS idx_closure_ancestor_descendant_type ON AdministrativeAreaClosure (ancestorCode, descendantType);
+CREATE INDEX IF NOT EXISTS idx_closure_descendant ON AdministrativeAreaClosure (descendantCode);
@@ -0,0 +1,41 @@
+-- Case-insensitive code lookups, IgnoreCase finders and the code/name projections compare upper(code) = upper(?)
+CREATE INDEX IF NOT EXISTS idx_region_upper_code ON Region (upper(code));
+CREATE INDEX IF NOT EXISTS idx_sub_region_upper_code ON SubRegion (upper(code));
+CREATE INDEX IF NOT EXISTS idx_local_government_upper_code ON LocalGovernment (upper(code));
+CREATE INDEX IF NOT EXISTS idx_county_upper_code ON County (upper(code));
+CREATE INDEX IF NOT EXISTS idx_sub_county_upper_code ON SubCounty (upper(code));
+CREATE INDEX IF NOT EXISTS idx_parish_upper_code ON Parish (upper(code));
+
+-- Descendant lookups match the ancestor code whatever its case, as the parent code filters do
+CREATE INDEX IF NOT EXISTS idx_closure_upper_ancestor_descendant_type ON AdministrativeAreaClosure (upper(ancestorCode), descendantType);
+
+-- Duplicate name checks, globally for regions and sub regions and within the parent for the other levels
+CREATE INDEX IF NOT EXISTS idx_region_upper_name ON Region (upper(name));
+CREATE INDEX IF NOT EXISTS idx_sub_region_upper_name ON SubRegion (upper(name));
+CREATE INDEX IF NOT EXISTS idx_sub_region_region_upper_name ON SubRegion (region_id, upper(name));
+CREATE INDEX IF NOT EXISTS idx_local_government_sub_region_upper_name ON LocalGovernment (subRegion_id, upper(name));
+CREATE INDEX IF NOT EXISTS idx_county_local_government_upper_name ON County (localGovernment_id, upper(name));
+CREATE INDEX IF NOT EXISTS idx_sub_county_county_upper_name ON SubCounty (county_id, upper(name));
+CREATE INDEX IF NOT EXISTS idx_parish_sub_county_upper_name ON Parish (subCounty_id, upper(name));
+
+-- The (foreign key, code) indexes also carry the name, children listings and their keyset pages are
+-- answered from the index alone. They lead with the foreign key, so they also serve the parent joins.
+DROP INDEX IF EXISTS idx_sub_region_region_code;
+CREATE INDEX idx_sub_region_region_code ON SubRegion (region_id, code) INCLUDE (name);
+DROP INDEX IF EXISTS idx_local_government_sub_region_code;
+CREATE INDEX idx_local_government_sub_region_code ON LocalGovernment (subRegion_id, code) INCLUDE (name);
+DROP INDEX IF EXISTS idx_county_local_government_code;
+CREATE INDEX idx_county_local_government_code ON County (localGovernment_id, code) INCLUDE (name);
+DROP INDEX IF EXISTS idx_sub_county_county_code;
+CREATE INDEX idx_sub_county_county_code ON SubCounty (county_id, code) INCLUDE (name);
+DROP INDEX IF EXISTS idx_parish_sub_county_code;
+CREATE INDEX idx_parish_sub_county_code ON Parish (subCounty_id, code) INCLUDE (name);
+CREATE INDEX IF NOT EXISTS idx_region_code_name ON Region (code) INCLUDE (name);
+
+-- MAX(updatedDateTime) behind the dataset version is polled by every instance
+CREATE INDEX IF NOT EXISTS idx_region_updated_date_time ON Region (updatedDateTime);
+CREATE INDEX IF NOT EXISTS idx_sub_region_updated_date_time ON SubRegion (updatedDateTime);
+CREATE INDEX IF NOT EXISTS idx_local_government_updated_date_time ON LocalGovernment (updatedDateTime);
+CREATE INDEX IF NOT EXISTS idx_county_updated_date_time ON County (updatedDateTime);
+CREATE INDEX IF NOT EXISTS idx_sub_county_updated_date_time ON SubCounty (updatedDateTime);
+CREATE INDEX IF NOT EXISTS idx_parish_updated_date_time ON Parish (updatedDateTime);
@@ -0,0 +1,19 @@
+-- Background uploads and their progress, counted per chunk since the row count is not known up front
+CREATE TABLE UploadJob (
+    id varchar(255) NOT NULL PRIMARY KEY,
+    status varchar(255) NOT NULL CHECK (status IN ('QUEUED', 'RUNNING', 'COMPLETED', 'FAILED')),
+    processedRows integer NOT NULL,
+    processedChunks integer NOT NULL,
+    createdRegions integer NOT NULL,
+    createdSubRegions integer NOT NULL,
+    createdLocalGovernments integer NOT NULL,
+    createdCounties integer NOT NULL,
+    createdSubCounties integer NOT NULL,
+    createdParishes integer NOT NULL,
+    error varchar(2000),
+    owner varchar(255),
+    leaseExpiresAt timestamp(6),
+    createdDateTime timestamp(6),
+    updatedDateTime timestamp(6),
+    finishedDateTime timestamp(6)
+);
@@ -0,0 +1,194 @@
+package com.wanfadger.AdministrativeareaApi.service.administrativearea;
+
+import com.wanfadger.AdministrativeareaApi.entity.AdministrativeAreaType;
+import com.wanfadger.AdministrativeareaApi.service.gazetteer.Gazetteer;
+import com.wanfadger.AdministrativeareaApi.shared.util.CacheKeys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.wanfadger.AdministrativeareaApi.entity.AdministrativeAreaType.*;
+import static com.wanfadger.AdministrativeareaApi.shared.cache.AdministrativeAreaKeyGenerator.*;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// every test diffs two gazetteers built from the tree below and checks which of the seeded entries are left
+class AdministrativeAreaCacheEvictorTests {
+
+	// R1 > SR1 > LG1 > C1 > SC1 > P1, P2 and C2 > SC2 > P3 next to C1
+	private static final List<Row> TREE = List.of(
+			new Row(REGION, "R1", "Central", null),
+			new Row(SUBREGION, "SR1", "Buganda", "R1"),
+			new Row(LOCALGOVERNMENT, "LG1", "Kampala", "SR1"),
+			new Row(COUNTY, "C1", "Kawempe", "LG1"),
+			new Row(COUNTY, "C2", "Nakawa", "LG1"),
+			new Row(SUBCOUNTY, "SC1", "Kawempe Division", "C1"),
+			new Row(SUBCOUNTY, "SC2", "Nakawa Division", "C2"),
+			new Row(PARISH, "P1", "Bwaise", "SC1"),
+			new Row(PARISH, "P2", "Kazo", "SC1"),
+			new Row(PARISH, "P3", "Kiwatule", "SC2"));
+
+	private AdministrativeAreaCacheEvictor administrativeAreaCacheEvictor;
+	private Cache filterCache;
+	private Cache areaCache;
+
+	@BeforeEach
+	void setUp() {
+		ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheKeys.ADMINISTRATIVE_AREAS_FILTER, CacheKeys.ADMINISTRATIVE_AREAS);
+		administrativeAreaCacheEvictor = new AdministrativeAreaCacheEvictor(cacheManager);
+		ReflectionTestUtils.setField(administrativeAreaCacheEvictor, "maxKeys", 500);
+		filterCache = cacheManager.getCache(CacheKeys.ADMINISTRATIVE_AREAS_FILTER);
+		areaCache = cacheManager.getCache(CacheKeys.ADMINISTRATIVE_AREAS);
+	}
+
+	@Test
+	void aChangedAreaLosesItsOwnEntriesAndItsParentsLists() {
+		seedFilter(key(FILTER_ONE, SUBCOUNTY, "SC1"), key(FILTER_LIST, SUBCOUNTY, "C1"), key(FILTER_LIST_JSON, SUBCOUNTY, "C1"),
+				key(FILTER_LIST, SUBCOUNTY, null), key(FILTER_ONE, SUBCOUNTY, "SC2"), key(FILTER_LIST, SUBCOUNTY, "C2"), key(FILTER_ONE, COUNTY, "C1"));
+		seedArea(key(SEARCH_ONE, SUBCOUNTY, "SC1"), key(SEARCH_LIST, SUBCOUNTY, "C1"), key(SEARCH_LIST_JSON, SUBCOUNTY, null),
+				key(SEARCH_ONE, SUBCOUNTY, "SC2"), key(SEARCH_LIST, SUBCOUNTY, "C2"));
+
+		administrativeAreaCacheEvictor.evict(gazetteer(TREE), gazetteer(with(new Row(SUBCOUNTY, "SC1", "Kawempe North", "C1"))));
+
+		assertEvicted(filterCache, key(FILTER_ONE, SUBCOUNTY, "SC1"), key(FILTER_LIST, SUBCOUNTY, "C1"), key(FILTER_LIST_JSON, SUBCOUNTY, "C1"),
+				key(FILTER_LIST, SUBCOUNTY, null));
+		assertEvicted(areaCache, key(SEARCH_ONE, SUBCOUNTY, "SC1"), key(SEARCH_LIST, SUBCOUNTY, "C1"), key(SEARCH_LIST_JSON, SUBCOUNTY, null));
+		assertKept(filterCache, key(FILTER_ONE, SUBCOUNTY, "SC2"), key(FILTER_LIST, SUBCOUNTY, "C2"), key(FILTER_ONE, COUNTY, "C1"));
+		assertKept(areaCache, key(SEARCH_ONE, SUBCOUNTY, "SC2"), key(SEARCH_LIST, SUBCOUNTY, "C2"));
+	}
+
+	@Test
+	void aChangedAreaLosesTheParishListsOfItselfAndEveryAncestor() {
+		seedArea(key(PARISH_LIST_BY_PART_OF, SUBCOUNTY, "SC1"), key(PARISH_LIST_BY_PART_OF_JSON, SUBCOUNTY, "SC1"), key(PARISH_LIST_BY_PART_OF, COUNTY, "C1"),
+				key(PARISH_LIST_BY_PART_OF, LOCALGOVERNMENT, "LG1"), key(PARISH_LIST_BY_PART_OF, SUBREGION, "SR1"), key(PARISH_LIST_BY_PART_OF, REGION, "R1"),
+				key(PARISH_LIST_BY_PART_OF, SUBCOUNTY, "SC2"), key(PARISH_LIST_BY_PART_OF, COUNTY, "C2"));
+
+		administrativeAreaCacheEvictor.evict(gazetteer(TREE), gazetteer(with(new Row(SUBCOUNTY, "SC1", "Kawempe North", "C1"))));
+
+		assertEvicted(areaCache, key(PARISH_LIST_BY_PART_OF, SUBCOUNTY, "SC1"), key(PARISH_LIST_BY_PART_OF_JSON, SUBCOUNTY, "SC1"),
+				key(PARISH_LIST_BY_PART_OF, COUNTY, "C1"), key(PARISH_LIST_BY_PART_OF, LOCALGOVERNMENT, "LG1"),
+				key(PARISH_LIST_BY_PART_OF, SUBREGION, "SR1"), key(PARISH_LIST_BY_PART_OF, REGION, "R1"));
+		assertKept(areaCache, key(PARISH_LIST_BY_PART_OF, SUBCOUNTY, "SC2"), key(PARISH_LIST_BY_PART_OF, COUNTY, "C2"));
+	}
+
+	@Test
+	void aChangedAreaLosesTheSearchEntriesOfItsDescendants() {
+		seedFilter(key(FILTER_ONE, PARISH, "P1"), key(FILTER_LIST, PARISH, "SC1"));
+		seedArea(key(SEARCH_ONE, SUBCOUNTY, "SC1"), key(SEARCH_ONE, PARISH, "P1"), key(SEARCH_ONE, PARISH, "P2"), key(SEARCH_LIST, PARISH, "SC1"),
+				key(SEARCH_LIST, PARISH, null), key(SEARCH_ONE, PARISH, "P3"), key(SEARCH_LIST, PARISH, "SC2"));
+
+		// the search results of every area below the county embed its name
+		administrativeAreaCacheEvictor.evict(gazetteer(TREE), gazetteer(with(new Row(COUNTY, "C1", "Kawempe County", "LG1"))));
+
+		assertEvicted(areaCache, key(SEARCH_ONE, SUBCOUNTY, "SC1"), key(SEARCH_ONE, PARISH, "P1"), key(SEARCH_ONE, PARISH, "P2"),
+				key(SEARCH_LIST, PARISH, "SC1"), key(SEARCH_LIST, PARISH, null));
+		assertKept(areaCache, key(SEARCH_ONE, PARISH, "P3"), key(SEARCH_LIST, PARISH, "SC2"));
+		// filter entries carry no ancestors
+		assertKept(filterCache, key(FILTER_ONE, PARISH, "P1"), key(FILTER_LIST, PARISH, "SC1"));
+	}
+
+	@Test
+	void aMovedAreaLosesTheListsOfItsOldAndNewParent() {
+		seedFilter(key(FILTER_LIST, SUBCOUNTY, "C1"), key(FILTER_LIST, SUBCOUNTY, "C2"));
+		seedArea(key(PARISH_LIST_BY_PART_OF, COUNTY, "C1"), key(PARISH_LIST_BY_PART_OF, COUNTY, "C2"), key(SEARCH_ONE, PARISH, "P1"));
+
+		administrativeAreaCacheEvictor.evict(gazetteer(TREE), gazetteer(with(new Row(SUBCOUNTY, "SC1", "Kawempe Division", "C2"))));
+
+		assertEvicted(filterCache, key(FILTER_LIST, SUBCOUNTY, "C1"), key(FILTER_LIST, SUBCOUNTY, "C2"));
+		assertEvicted(areaCache, key(PARISH_LIST_BY_PART_OF, COUNTY, "C1"), key(PARISH_LIST_BY_PART_OF, COUNTY, "C2"), key(SEARCH_ONE, PARISH, "P1"));
+	}
+
+	@Test
+	void aNewAreaLosesTheListsOfItsParent() {
+		seedFilter(key(FILTER_LIST, PARISH, "SC2"), key(FILTER_LIST, PARISH, "SC1"));
+		seedArea(key(PARISH_LIST_BY_PART_OF, SUBCOUNTY, "SC2"), key(PARISH_LIST_BY_PART_OF, SUBCOUNTY, "SC1"));
+
+		administrativeAreaCacheEvictor.evict(gazetteer(TREE), gazetteer(with(new Row(PARISH, "P4", "Ntinda", "SC2"))));
+
+		assertEvicted(filterCache, key(FILTER_LIST, PARISH, "SC2"));
+		assertEvicted(areaCache, key(PARISH_LIST_BY_PART_OF, SUBCOUNTY, "SC2"));
+		assertKept(filterCache, key(FILTER_LIST, PARISH, "SC1"));
+		assertKept(areaCache, key(PARISH_LIST_BY_PART_OF, SUBCOUNTY, "SC1"));
+	}
+
+	@Test
+	void anUnchangedGazetteerEvictsNothing() {
+		seedFilter(key(FILTER_ONE, PARISH, "P1"));
+		seedArea(key(SEARCH_ONE, PARISH, "P1"));
+
+		administrativeAreaCacheEvictor.evict(gazetteer(TREE), gazetteer(TREE));
+
+		assertKept(filterCache, key(FILTER_ONE, PARISH, "P1"));
+		assertKept(areaCache, key(SEARCH_ONE, PARISH, "P1"));
+	}
+
+	@Test
+	void moreAffectedEntriesThanMaxKeysClearBothCaches() {
+		ReflectionTestUtils.setField(administrativeAreaCacheEvictor, "maxKeys", 3);
+		seedFilter(key(FILTER_ONE, PARISH, "P3"));
+		seedArea(key(SEARCH_ONE, PARISH, "P3"));
+
+		administrativeAreaCacheEvictor.evict(gazetteer(TREE), gazetteer(with(new Row(PARISH, "P1", "Bwaise I", "SC1"))));
+
+		assertEvicted(filterCache, key(FILTER_ONE, PARISH, "P3"));
+		assertEvicted(areaCache, key(SEARCH_ONE, PARISH, "P3"));
+	}
+
+	@Test
+	void aMissingGazetteerClearsBothCaches() {
+		seedFilter(key(FILTER_ONE, PARISH, "P3"));
+		seedArea(key(SEARCH_ONE, PARISH, "P3"));
+
+		administrativeAreaCacheEvictor.evict(null, gazetteer(TREE));
+
+		assertEvicted(filterCache, key(FILTER_ONE, PARISH, "P3"));
+		assertEvicted(areaCache, key(SEARCH_ONE, PARISH, "P3"));
+	}
+
+	private record Row(AdministrativeAreaType type, String code, String name, String parentCode) {
+	}
+
+	// the tree with the row of the same code replaced, or the row appended below its parent
+	private static List<Row> with(Row changed) {
+		List<Row> rows = new ArrayList<>(TREE);
+		rows.removeIf(row -> row.type() == changed.type() && row.code().equals(changed.code()));
+		rows.add(changed);
+		rows.sort((a, b) -> Integer.compare(a.type().ordinal(), b.type().ordinal()));
+		return rows;
+	}
+
+	private static Gazetteer gazetteer(List<Row> rows) {
+		Gazetteer.Builder builder = Gazetteer.builder();
+		rows.forEach(row -> builder.add(row.type(), row.code(), row.name(), 0.3476, 32.5825, row.parentCode()));
+		return builder.build("test");
+	}
+
+	private void seedFilter(String... keys) {
+		for (String key : keys) {
+			filterCache.put(key, key);
+		}
+	}
+
+	private void seedArea(String... keys) {
+		for (String key : keys) {
+			areaCache.put(key, key);
+		}
+	}
+
+	private static void assertEvicted(Cache cache, String... keys) {
+		for (String key : keys) {
+			assertNull(cache.get(key), key);
+		}
+	}
+
+	private static void assertKept(Cache cache, String... keys) {
+		for (String key : keys) {
+			assertNotNull(cache.get(key), key);
+		}
+	}
+}
@@ -0,0 +1,22 @@
+package com.wanfadger.AdministrativeareaApi.service.administrativearea;
+
+import com.wanfadger.AdministrativeareaApi.service.datasetversion.DatasetVersionService;
+import com.wanfadger.AdministrativeareaApi.service.gazetteer.GazetteerService;
+import com.wanfadger.AdministrativeareaApi.service.upload.UploadPipeline;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+// the collaborators of AdministrativeAreaServiceImpl that the JPA slice tests leave out, the closure is up to each test
+abstract class AdministrativeAreaServiceTestSupport {
+
+	@MockBean
+	protected GazetteerService gazetteerService;
+
+	@MockBean
+	protected AdministrativeAreaCacheEvictor administrativeAreaCacheEvictor;
+
+	@MockBean
+	protected DatasetVersionService datasetVersionService;
+
+	@MockBean
+	protected UploadPipeline uploadPipeline;
+}
@@ -0,0 +1,103 @@
+package com.wanfadger.AdministrativeareaApi.service.administrativearea;
+
+import com.wanfadger.AdministrativeareaApi.service.datasetversion.DatasetVersionService;
+import com.wanfadger.AdministrativeareaApi.service.gazetteer.Gazetteer;
+import com.wanfadger.AdministrativeareaApi.service.gazetteer.GazetteerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+class AreaWritePublisherTests {
+
+	private final GazetteerService gazetteerService = mock();
+	private final AdministrativeAreaCacheEvictor administrativeAreaCacheEvictor = mock();
+	private final DatasetVersionService datasetVersionService = mock();
+
+	private final Gazetteer first = Gazetteer.builder().build("first");
+	private final Gazetteer second = Gazetteer.builder().build("second");
+	private final Gazetteer third = Gazetteer.builder().build("third");
+
+	private AreaWritePublisher areaWritePublisher;
+
+	@BeforeEach
+	void setUp() {
+		areaWritePublisher = new AreaWritePublisher(gazetteerService, administrativeAreaCacheEvictor, datasetVersionService);
+		when(gazetteerService.isEnabled()).thenReturn(true);
+	}
+
+	@AfterEach
+	void tearDown() {
+		areaWritePublisher.stop();
+	}
+
+	@Test
+	void rebuildsOffTheCallingThreadThenEvictsThenMovesTheVersion() throws InterruptedException {
+		CountDownLatch rebuilding = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(gazetteerService.refresh()).thenAnswer(invocation -> {
+			rebuilding.countDown();
+			release.await();
+			return second;
+		});
+
+		areaWritePublisher.published(first);
+
+		// the write returned while the rebuild is still reading
+		assertTrue(rebuilding.await(5, TimeUnit.SECONDS));
+		verifyNoInteractions(administrativeAreaCacheEvictor, datasetVersionService);
+		release.countDown();
+		InOrder inOrder = inOrder(administrativeAreaCacheEvictor, datasetVersionService);
+		inOrder.verify(administrativeAreaCacheEvictor, timeout(5000)).evict(first, second);
+		inOrder.verify(datasetVersionService, timeout(5000)).refresh();
+	}
+
+	@Test
+	void writesCommittedWhileARebuildIsQueuedShareIt() throws InterruptedException {
+		CountDownLatch rebuilding = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(gazetteerService.refresh()).thenAnswer(invocation -> {
+			rebuilding.countDown();
+			release.await();
+			return second;
+		}).thenReturn(third);
+
+		areaWritePublisher.published(first);
+		assertTrue(rebuilding.await(5, TimeUnit.SECONDS));
+		// both land while the first rebuild is running, one more rebuild covers them, diffed from the older snapshot
+		areaWritePublisher.published(first);
+		areaWritePublisher.published(second);
+		release.countDown();
+
+		verify(administrativeAreaCacheEvictor, timeout(5000)).evict(first, third);
+		verify(datasetVersionService, timeout(5000).times(2)).refresh();
+		verify(gazetteerService, times(2)).refresh();
+	}
+
+	@Test
+	void aFailedRebuildClearsTheCaches() {
+		when(gazetteerService.refresh()).thenThrow(new IllegalStateException("connection reset"));
+
+		areaWritePublisher.published(first);
+
+		verify(datasetVersionService, timeout(5000)).refresh();
+		verify(administrativeAreaCacheEvictor).clear();
+	}
+
+	@Test
+	void withoutTheGazetteerTheCachesAreClearedRightAway() {
+		when(gazetteerService.isEnabled()).thenReturn(false);
+
+		areaWritePublisher.published(null);
+
+		verify(administrativeAreaCacheEvictor).clear();
+		verify(datasetVersionService).refresh();
+		verify(gazetteerService, never()).refresh();
+	}
+}
@@ -0,0 +1,170 @@
+package com.wanfadger.AdministrativeareaApi.service.administrativearea;
+
+import com.wanfadger.AdministrativeareaApi.dto.NewAdministrativeAreaDto;
+import com.wanfadger.AdministrativeareaApi.dto.UpdateAdministrativeAreaDto;
+import com.wanfadger.AdministrativeareaApi.entity.*;
+import com.wanfadger.AdministrativeareaApi.repository.*;
+import com.wanfadger.AdministrativeareaApi.service.bulkload.BulkLoadServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.closure.ClosureService;
+import com.wanfadger.AdministrativeareaApi.service.closure.ClosureServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.county.CountyServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.localgovernment.LocalGovernmentServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.parish.ParishServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.region.RegionServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.subRegion.DbSubRegionServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.subcounty.SubCountyServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.wanfadger.AdministrativeareaApi.support.TestAreas.area;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// no test transaction, every write commits or rolls back on its own like it does behind the controllers
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.flyway.enabled=false",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({AdministrativeAreaServiceImpl.class, AreaWritePublisher.class, ClosureServiceImpl.class, BulkLoadServiceImpl.class, RegionServiceImpl.class, DbSubRegionServiceImpl.class,
+		LocalGovernmentServiceImpl.class, CountyServiceImpl.class, SubCountyServiceImpl.class, ParishServiceImpl.class})
+class AreaWriteTransactionTests extends AdministrativeAreaServiceTestSupport {
+
+	@Autowired
+	private AdministrativeAreaService administrativeAreaService;
+
+	@SpyBean
+	private ClosureService closureService;
+
+	@Autowired
+	private AdministrativeAreaClosureRepository closureRepository;
+
+	@Autowired
+	private RegionRepository regionRepository;
+
+	@Autowired
+	private SubRegionRepository subRegionRepository;
+
+	@Autowired
+	private LocalGovernmentRepository localGovernmentRepository;
+
+	@Autowired
+	private CountyRepository countyRepository;
+
+	@Autowired
+	private SubCountyRepository subCountyRepository;
+
+	@Autowired
+	private ParishRepository parishRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@BeforeEach
+	void setUp() {
+		// one branch down to two counties, the sub county sits below C1
+		transactionTemplate.executeWithoutResult(status -> {
+			Region region = regionRepository.save(area(new Region(), "R1"));
+			SubRegion subRegion = area(new SubRegion(), "SR1");
+			subRegion.setRegion(region);
+			subRegionRepository.save(subRegion);
+			LocalGovernment localGovernment = area(new LocalGovernment(), "LG1");
+			localGovernment.setSubRegion(subRegion);
+			localGovernmentRepository.save(localGovernment);
+			County c1 = area(new County(), "C1");
+			c1.setLocalGovernment(localGovernment);
+			countyRepository.save(c1);
+			County c2 = area(new County(), "C2");
+			c2.setLocalGovernment(localGovernment);
+			countyRepository.save(c2);
+			SubCounty subCounty = area(new SubCounty(), "SC");
+			subCounty.setCounty(c1);
+			subCountyRepository.save(subCounty);
+		});
+		closureService.added(AdministrativeAreaType.REGION, List.of("R1"));
+		closureService.added(AdministrativeAreaType.SUBREGION, List.of("SR1"));
+		closureService.added(AdministrativeAreaType.LOCALGOVERNMENT, List.of("LG1"));
+		closureService.added(AdministrativeAreaType.COUNTY, List.of("C1", "C2"));
+		closureService.added(AdministrativeAreaType.SUBCOUNTY, List.of("SC"));
+	}
+
+	@AfterEach
+	void tearDown() {
+		closureRepository.deleteAllInBatch();
+		parishRepository.deleteAllInBatch();
+		subCountyRepository.deleteAllInBatch();
+		countyRepository.deleteAllInBatch();
+		localGovernmentRepository.deleteAllInBatch();
+		subRegionRepository.deleteAllInBatch();
+		regionRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void newAreasArePublishedOnceTheyAndTheirClosureRowsAreCommitted() {
+		List<Long> closureRowsAtPublish = new ArrayList<>();
+		doAnswer(invocation -> {
+			closureRowsAtPublish.add(closureRepository.count());
+			return 1L;
+		}).when(datasetVersionService).refresh();
+		long rows = closureRepository.count();
+
+		administrativeAreaService.newOne(Map.of("type", "PARISH"), dto("Kisenyi", "SC"));
+
+		// the parish with itself and its five ancestors
+		assertEquals(List.of(rows + 6), closureRowsAtPublish);
+	}
+
+	@Test
+	void aFailedClosureUpdateRollsTheNewAreaBack() {
+		long rows = closureRepository.count();
+		doThrow(new IllegalStateException("closure")).when(closureService).added(eq(AdministrativeAreaType.PARISH), any());
+
+		assertThrows(IllegalStateException.class, () -> administrativeAreaService.newOne(Map.of("type", "PARISH"), dto("Kisenyi", "SC")));
+		assertThrows(IllegalStateException.class, () -> administrativeAreaService.newList(Map.of("type", "PARISH"), List.of(dto("Bukoto", "SC"))));
+
+		assertEquals(0, parishRepository.count());
+		assertEquals(rows, closureRepository.count());
+		verifyNoInteractions(administrativeAreaCacheEvictor, datasetVersionService);
+	}
+
+	@Test
+	void aFailedClosureUpdateRollsTheMoveBack() {
+		doThrow(new IllegalStateException("closure")).when(closureService).moved(AdministrativeAreaType.SUBCOUNTY, "SC");
+
+		assertThrows(IllegalStateException.class, () -> administrativeAreaService.updateOne(Map.of("type", "SUB COUNTY"), update("SC", "C2")));
+
+		assertEquals(List.of("SC"), subCountyRepository.findAllByCounty_CodeIgnoreCase("C1").stream().map(SubCounty::getCode).toList());
+		verifyNoInteractions(administrativeAreaCacheEvictor, datasetVersionService);
+	}
+
+	private static NewAdministrativeAreaDto dto(String name, String partOfCode) {
+		NewAdministrativeAreaDto dto = new NewAdministrativeAreaDto();
+		dto.setName(name);
+		dto.setPartOfCode(partOfCode);
+		return dto;
+	}
+
+	private static UpdateAdministrativeAreaDto update(String code, String partOfCode) {
+		UpdateAdministrativeAreaDto dto = new UpdateAdministrativeAreaDto();
+		dto.setCode(code);
+		dto.setPartOfCode(partOfCode);
+		dto.setLongitude("32.58");
+		return dto;
+	}
+}
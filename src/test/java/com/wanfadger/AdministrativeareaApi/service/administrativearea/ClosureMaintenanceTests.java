@@ -0,0 +1,140 @@
+package com.wanfadger.AdministrativeareaApi.service.administrativearea;
+
+import com.wanfadger.AdministrativeareaApi.dto.CodeNameDto;
+import com.wanfadger.AdministrativeareaApi.dto.NewAdministrativeAreaDto;
+import com.wanfadger.AdministrativeareaApi.dto.UpdateAdministrativeAreaDto;
+import com.wanfadger.AdministrativeareaApi.entity.*;
+import com.wanfadger.AdministrativeareaApi.repository.AdministrativeAreaClosureRepository;
+import com.wanfadger.AdministrativeareaApi.service.bulkload.BulkLoadServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.closure.ClosureService;
+import com.wanfadger.AdministrativeareaApi.service.closure.ClosureServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.county.CountyServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.localgovernment.LocalGovernmentServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.parish.ParishServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.region.RegionServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.subRegion.DbSubRegionServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.subcounty.SubCountyServiceImpl;
+import com.wanfadger.AdministrativeareaApi.shared.administrativeareaexceptions.MissingDataException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.wanfadger.AdministrativeareaApi.support.TestAreas.area;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// single area writes keep the closure complete without a rebuild, the gazetteer is disabled so parishes come from the closure
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.flyway.enabled=false",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import({AdministrativeAreaServiceImpl.class, AreaWritePublisher.class, ClosureServiceImpl.class, BulkLoadServiceImpl.class, RegionServiceImpl.class, DbSubRegionServiceImpl.class,
+		LocalGovernmentServiceImpl.class, CountyServiceImpl.class, SubCountyServiceImpl.class, ParishServiceImpl.class})
+class ClosureMaintenanceTests extends AdministrativeAreaServiceTestSupport {
+
+	@Autowired
+	private AdministrativeAreaService administrativeAreaService;
+
+	@Autowired
+	private ClosureService closureService;
+
+	@Autowired
+	private AdministrativeAreaClosureRepository closureRepository;
+
+	@Autowired
+	private TestEntityManager testEntityManager;
+
+	@BeforeEach
+	void setUp() {
+		// two branches down to county, one sub county with a parish below C1
+		County c1 = null;
+		for (String branch : List.of("1", "2")) {
+			Region region = testEntityManager.persist(area(new Region(), "R" + branch));
+			SubRegion subRegion = area(new SubRegion(), "SR" + branch);
+			subRegion.setRegion(region);
+			testEntityManager.persist(subRegion);
+			LocalGovernment localGovernment = area(new LocalGovernment(), "LG" + branch);
+			localGovernment.setSubRegion(subRegion);
+			testEntityManager.persist(localGovernment);
+			County county = area(new County(), "C" + branch);
+			county.setLocalGovernment(localGovernment);
+			testEntityManager.persist(county);
+			c1 = c1 == null ? county : c1;
+		}
+		SubCounty subCounty = area(new SubCounty(), "SC");
+		subCounty.setCounty(c1);
+		testEntityManager.persist(subCounty);
+		Parish parish = area(new Parish(), "P0");
+		parish.setSubCounty(subCounty);
+		testEntityManager.persist(parish);
+		testEntityManager.flush();
+		testEntityManager.clear();
+
+		closureService.added(AdministrativeAreaType.REGION, List.of("R1", "R2"));
+		closureService.added(AdministrativeAreaType.SUBREGION, List.of("SR1", "SR2"));
+		closureService.added(AdministrativeAreaType.LOCALGOVERNMENT, List.of("LG1", "LG2"));
+		closureService.added(AdministrativeAreaType.COUNTY, List.of("C1", "C2"));
+		closureService.added(AdministrativeAreaType.SUBCOUNTY, List.of("SC"));
+		closureService.added(AdministrativeAreaType.PARISH, List.of("P0"));
+	}
+
+	@Test
+	void newAreasAreAddedBelowTheAncestorsOfTheirParent() {
+		administrativeAreaService.newOne(Map.of("type", "PARISH"), dto("Kisenyi", "SC"));
+		administrativeAreaService.newList(Map.of("type", "PARISH"), List.of(dto("Bukoto", "SC"), dto("Ntinda", "SC")));
+
+		assertEquals(List.of("Bukoto", "Kisenyi", "Ntinda", "P0"), parishNames("REGION", "R1"));
+		assertEquals(List.of(), parishNames("REGION", "R2"));
+		// 13 areas with themselves, plus one row per level above each of them
+		assertEquals(13 + (1 + 1) + (2 + 2) + (3 + 3) + 4 + 5 * 4, closureRepository.count());
+	}
+
+	@Test
+	void movedAreasTakeTheirSubtreeToTheNewAncestors() {
+		long rows = closureRepository.count();
+
+		administrativeAreaService.updateOne(Map.of("type", "SUB COUNTY"), update("SC", "C2"));
+
+		assertEquals(List.of(), parishNames("REGION", "R1"));
+		assertEquals(List.of("P0"), parishNames("REGION", "R2"));
+		assertEquals(List.of("P0"), parishNames("COUNTY", "C2"));
+		assertEquals(List.of("P0"), parishNames("SUB COUNTY", "SC"));
+		assertEquals(rows, closureRepository.count());
+	}
+
+	@Test
+	void partOfCodeIsCheckedLikeTheGazetteerDoes() {
+		assertEquals(List.of(), administrativeAreaService.getParishByPartOf(Map.of("type", "REGION")).getData());
+		assertThrows(MissingDataException.class, () -> administrativeAreaService.getParishByPartOf(Map.of("type", "SUB COUNTY")));
+		assertThrows(MissingDataException.class, () -> administrativeAreaService.getParishByPartOf(Map.of("type", "PARISH")));
+		assertEquals(List.of(), administrativeAreaService.getParishByPartOf(Map.of("type", "PARISH", "partOfCode", "P0")).getData());
+	}
+
+	private List<String> parishNames(String type, String partOfCode) {
+		testEntityManager.clear();
+		return administrativeAreaService.getParishByPartOf(Map.of("type", type, "partOfCode", partOfCode)).getData()
+				.stream().map(CodeNameDto::getName).sorted().toList();
+	}
+
+	private static NewAdministrativeAreaDto dto(String name, String partOfCode) {
+		NewAdministrativeAreaDto dto = new NewAdministrativeAreaDto();
+		dto.setName(name);
+		dto.setPartOfCode(partOfCode);
+		return dto;
+	}
+
+	private static UpdateAdministrativeAreaDto update(String code, String partOfCode) {
+		UpdateAdministrativeAreaDto dto = new UpdateAdministrativeAreaDto();
+		dto.setCode(code);
+		dto.setPartOfCode(partOfCode);
+		dto.setLongitude("32.58");
+		return dto;
+	}
+}
@@ -0,0 +1,118 @@
+package com.wanfadger.AdministrativeareaApi.service.administrativearea;
+
+import com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaDto;
+import com.wanfadger.AdministrativeareaApi.dto.CodeNameDto;
+import com.wanfadger.AdministrativeareaApi.entity.*;
+import com.wanfadger.AdministrativeareaApi.service.bulkload.BulkLoadServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.closure.ClosureService;
+import com.wanfadger.AdministrativeareaApi.service.county.CountyServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.localgovernment.LocalGovernmentServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.parish.ParishServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.region.RegionServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.subRegion.DbSubRegionServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.subcounty.SubCountyServiceImpl;
+import com.wanfadger.AdministrativeareaApi.shared.beanConfig.AdministrativeAreaBeanConfigurations;
+import com.wanfadger.AdministrativeareaApi.shared.cache.AdministrativeAreaKeyGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.wanfadger.AdministrativeareaApi.support.TestAreas.area;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// the cache keys fold the case of partOf, so the database has to answer every casing the same
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.flyway.enabled=false",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import({CodeCaseTests.Caching.class, ListResponseServiceImpl.class, AdministrativeAreaKeyGenerator.class, AdministrativeAreaBeanConfigurations.class,
+		AdministrativeAreaServiceImpl.class, AreaWritePublisher.class, BulkLoadServiceImpl.class, RegionServiceImpl.class, DbSubRegionServiceImpl.class,
+		LocalGovernmentServiceImpl.class, CountyServiceImpl.class, SubCountyServiceImpl.class, ParishServiceImpl.class})
+class CodeCaseTests extends AdministrativeAreaServiceTestSupport {
+
+	@TestConfiguration
+	@EnableCaching
+	static class Caching {
+		@Bean
+		@Primary
+		CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager();
+		}
+
+		@Bean
+		CacheManager weekCacheManager() {
+			return new ConcurrentMapCacheManager();
+		}
+	}
+
+	@Autowired
+	private ListResponseService listResponseService;
+
+	@Autowired
+	private AdministrativeAreaService administrativeAreaService;
+
+	@Autowired
+	private TestEntityManager testEntityManager;
+
+	@MockBean
+	private ClosureService closureService;
+
+	@BeforeEach
+	void setUp() {
+		Region region = testEntityManager.persist(area(new Region(), "R"));
+		SubRegion subRegion = area(new SubRegion(), "SR");
+		subRegion.setRegion(region);
+		testEntityManager.persist(subRegion);
+		LocalGovernment localGovernment = area(new LocalGovernment(), "LG");
+		localGovernment.setSubRegion(subRegion);
+		testEntityManager.persist(localGovernment);
+		County county = area(new County(), "C");
+		county.setLocalGovernment(localGovernment);
+		testEntityManager.persist(county);
+		SubCounty subCounty = area(new SubCounty(), "ABC");
+		subCounty.setCounty(county);
+		testEntityManager.persist(subCounty);
+		for (String code : List.of("ABC-P0", "ABC-P1")) {
+			Parish parish = area(new Parish(), code);
+			parish.setSubCounty(subCounty);
+			testEntityManager.persist(parish);
+		}
+		testEntityManager.flush();
+		testEntityManager.clear();
+	}
+
+	@Test
+	void filterListAnswersEveryCasingOfPartOf() {
+		List<CodeNameDto> lower = listResponseService.filterList(Map.of("type", "PARISH", "partOf", "abc")).getData();
+		List<CodeNameDto> upper = listResponseService.filterList(Map.of("type", "PARISH", "partOf", "ABC")).getData();
+
+		assertEquals(List.of("ABC-P0", "ABC-P1"), lower.stream().map(CodeNameDto::getCode).toList());
+		assertEquals(lower, upper);
+		// pages are not cached, they go to the database each time
+		assertEquals(2, administrativeAreaService.filterList(Map.of("type", "PARISH", "partOf", "abc", "limit", "5")).getData().size());
+	}
+
+	@Test
+	void searchListAnswersEveryCasingOfPartOf() {
+		List<? extends AdministrativeAreaDto> lower = listResponseService.searchList(Map.of("type", "PARISH", "partOf", "abc")).getData();
+		List<? extends AdministrativeAreaDto> upper = listResponseService.searchList(Map.of("type", "PARISH", "partOf", "ABC")).getData();
+
+		assertEquals(2, lower.size());
+		assertEquals(lower, upper);
+		assertEquals(2, administrativeAreaService.searchList(Map.of("type", "PARISH", "partOf", "abc", "limit", "5")).getData().size());
+	}
+}
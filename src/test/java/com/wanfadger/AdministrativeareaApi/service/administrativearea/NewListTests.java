@@ -0,0 +1,135 @@
+package com.wanfadger.AdministrativeareaApi.service.administrativearea;
+
+import com.wanfadger.AdministrativeareaApi.dto.NewAdministrativeAreaDto;
+import com.wanfadger.AdministrativeareaApi.entity.*;
+import com.wanfadger.AdministrativeareaApi.repository.ParishRepository;
+import com.wanfadger.AdministrativeareaApi.repository.SubRegionRepository;
+import com.wanfadger.AdministrativeareaApi.service.bulkload.BulkLoadServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.closure.ClosureService;
+import com.wanfadger.AdministrativeareaApi.service.county.CountyServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.localgovernment.LocalGovernmentServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.parish.ParishServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.region.RegionServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.subRegion.DbSubRegionServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.subcounty.SubCountyServiceImpl;
+import com.wanfadger.AdministrativeareaApi.shared.administrativeareaexceptions.InvalidException;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.wanfadger.AdministrativeareaApi.support.TestAreas.area;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.flyway.enabled=false",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({AdministrativeAreaServiceImpl.class, AreaWritePublisher.class, BulkLoadServiceImpl.class, RegionServiceImpl.class, DbSubRegionServiceImpl.class,
+		LocalGovernmentServiceImpl.class, CountyServiceImpl.class, SubCountyServiceImpl.class, ParishServiceImpl.class})
+class NewListTests extends AdministrativeAreaServiceTestSupport {
+
+	@Autowired
+	private AdministrativeAreaService administrativeAreaService;
+
+	@Autowired
+	private SubRegionRepository subRegionRepository;
+
+	@Autowired
+	private ParishRepository parishRepository;
+
+	@Autowired
+	private TestEntityManager testEntityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@MockBean
+	private ClosureService closureService;
+
+	private SubCounty subCounty0;
+	private SubCounty subCounty1;
+
+	@BeforeEach
+	void setUp() {
+		Region region = testEntityManager.persist(area(new Region(), "R"));
+		SubRegion subRegion = area(new SubRegion(), "SR");
+		subRegion.setRegion(region);
+		testEntityManager.persist(subRegion);
+		LocalGovernment localGovernment = area(new LocalGovernment(), "LG");
+		localGovernment.setSubRegion(subRegion);
+		testEntityManager.persist(localGovernment);
+		County county = area(new County(), "C");
+		county.setLocalGovernment(localGovernment);
+		testEntityManager.persist(county);
+		subCounty0 = area(new SubCounty(), "SC0");
+		subCounty0.setCounty(county);
+		testEntityManager.persist(subCounty0);
+		subCounty1 = area(new SubCounty(), "SC1");
+		subCounty1.setCounty(county);
+		testEntityManager.persist(subCounty1);
+		Parish parish = area(new Parish(), "P0");
+		parish.setSubCounty(subCounty0);
+		testEntityManager.persist(parish);
+		testEntityManager.flush();
+		testEntityManager.clear();
+	}
+
+	@Test
+	void addsNewAreasBelowTheirParentsInConstantStatements() {
+		List<NewAdministrativeAreaDto> dtos = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			dtos.add(dto("Parish " + i, i % 2 == 0 ? "sc0" : "SC1"));
+		}
+		// exists below SC0, is new below SC1, and is repeated in the request
+		dtos.add(dto("p0", "SC0"));
+		dtos.add(dto("p0", "SC1"));
+		dtos.add(dto("PARISH 1", "SC1"));
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		administrativeAreaService.newList(Map.of("type", "PARISH"), dtos);
+		// the parents and the existing names, the rows go through one bulk insert outside hibernate
+		assertEquals(2, statistics.getPrepareStatementCount(), () -> String.join("\n", statistics.getQueries()));
+		testEntityManager.clear();
+
+		assertEquals(1 + 501, parishRepository.count());
+		assertEquals(251, parishRepository.findAll().stream().filter(parish -> parish.getSubCounty().getId().equals(subCounty1.getId())).count());
+	}
+
+	@Test
+	void subRegionNamesAreUniqueAcrossRegions() {
+		Region other = testEntityManager.persist(area(new Region(), "R2"));
+		testEntityManager.flush();
+
+		administrativeAreaService.newList(Map.of("type", "SUB REGION"), List.of(dto("sr", other.getCode()), dto("Busoga", other.getCode())));
+		testEntityManager.clear();
+
+		assertEquals(2, subRegionRepository.count());
+	}
+
+	@Test
+	void rejectsUnknownParents() {
+		assertThrows(InvalidException.class, () -> administrativeAreaService.newList(Map.of("type", "PARISH"), List.of(dto("Kisenyi", "SC0"), dto("Kisenyi", "nope"))));
+	}
+
+	private static NewAdministrativeAreaDto dto(String name, String partOfCode) {
+		NewAdministrativeAreaDto dto = new NewAdministrativeAreaDto();
+		dto.setName(name);
+		dto.setPartOfCode(partOfCode);
+		return dto;
+	}
+}
@@ -0,0 +1,167 @@
+package com.wanfadger.AdministrativeareaApi.service.administrativearea;
+
+import com.wanfadger.AdministrativeareaApi.dto.AdministrativeAreaDto;
+import com.wanfadger.AdministrativeareaApi.dto.CodeNameDto;
+import com.wanfadger.AdministrativeareaApi.entity.*;
+import com.wanfadger.AdministrativeareaApi.service.bulkload.BulkLoadServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.closure.ClosureService;
+import com.wanfadger.AdministrativeareaApi.service.county.CountyServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.gazetteer.Gazetteer;
+import com.wanfadger.AdministrativeareaApi.service.localgovernment.LocalGovernmentServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.parish.ParishServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.region.RegionServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.subRegion.DbSubRegionServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.subcounty.SubCountyServiceImpl;
+import com.wanfadger.AdministrativeareaApi.shared.administrativeareaexceptions.InvalidException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static com.wanfadger.AdministrativeareaApi.support.TestAreas.area;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+// every page walk runs against the database and against a gazetteer holding the same rows
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.flyway.enabled=false",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"administrative-area.pagination.max-limit=50"
+})
+@Import({AdministrativeAreaServiceImpl.class, AreaWritePublisher.class, BulkLoadServiceImpl.class, RegionServiceImpl.class, DbSubRegionServiceImpl.class,
+		LocalGovernmentServiceImpl.class, CountyServiceImpl.class, SubCountyServiceImpl.class, ParishServiceImpl.class})
+class PagingTests extends AdministrativeAreaServiceTestSupport {
+
+	// mixed case on purpose, H2 compares codes like String.compareTo: upper case sorts first
+	private static final Map<String, List<String>> PARISHES = Map.of(
+			"SC1", List.of("p-2", "P-3", "P-1", "p-4", "P-5"),
+			"SC2", List.of("q-1", "Q-2"));
+
+	@Autowired
+	private AdministrativeAreaService administrativeAreaService;
+
+	@Autowired
+	private TestEntityManager testEntityManager;
+
+	@MockBean
+	private ClosureService closureService;
+
+	private Gazetteer gazetteer;
+
+	@BeforeEach
+	void setUp() {
+		Gazetteer.Builder builder = Gazetteer.builder();
+		Region region = testEntityManager.persist(area(new Region(), "R"));
+		builder.add(AdministrativeAreaType.REGION, "R", "R", region.getLatitude(), region.getLongitude(), null);
+		SubRegion subRegion = area(new SubRegion(), "SR");
+		subRegion.setRegion(region);
+		testEntityManager.persist(subRegion);
+		builder.add(AdministrativeAreaType.SUBREGION, "SR", "SR", subRegion.getLatitude(), subRegion.getLongitude(), "R");
+		LocalGovernment localGovernment = area(new LocalGovernment(), "LG");
+		localGovernment.setSubRegion(subRegion);
+		testEntityManager.persist(localGovernment);
+		builder.add(AdministrativeAreaType.LOCALGOVERNMENT, "LG", "LG", localGovernment.getLatitude(), localGovernment.getLongitude(), "SR");
+		County county = area(new County(), "C");
+		county.setLocalGovernment(localGovernment);
+		testEntityManager.persist(county);
+		builder.add(AdministrativeAreaType.COUNTY, "C", "C", county.getLatitude(), county.getLongitude(), "LG");
+		for (String subCountyCode : List.of("SC1", "SC2")) {
+			SubCounty subCounty = area(new SubCounty(), subCountyCode);
+			subCounty.setCounty(county);
+			testEntityManager.persist(subCounty);
+			builder.add(AdministrativeAreaType.SUBCOUNTY, subCountyCode, subCountyCode, subCounty.getLatitude(), subCounty.getLongitude(), "C");
+			for (String code : PARISHES.get(subCountyCode)) {
+				Parish parish = area(new Parish(), code);
+				parish.setSubCounty(subCounty);
+				testEntityManager.persist(parish);
+				builder.add(AdministrativeAreaType.PARISH, code, code, parish.getLatitude(), parish.getLongitude(), subCountyCode);
+			}
+		}
+		testEntityManager.flush();
+		testEntityManager.clear();
+		gazetteer = builder.build("paging");
+	}
+
+	@Test
+	void pagesWalkTheChildrenInCodeOrderAndEndWithAShortPage() {
+		List<List<String>> pages = filterPages(Map.of("type", "PARISH", "partOf", "sc1"), 2);
+
+		assertEquals(List.of(List.of("P-1", "P-3"), List.of("P-5", "p-2"), List.of("p-4")), pages);
+	}
+
+	@Test
+	void aFullLastPageIsFollowedByAnEmptyOne() {
+		List<List<String>> pages = filterPages(Map.of("type", "PARISH", "partOf", "SC2"), 2);
+
+		assertEquals(List.of(List.of("Q-2", "q-1"), List.of()), pages);
+	}
+
+	@Test
+	void anAfterBetweenTwoCodesStartsAtTheNextOne() {
+		Map<String, String> query = Map.of("type", "PARISH", "partOf", "SC1", "after", "P-2", "limit", "2");
+
+		assertEquals(List.of("P-3", "P-5"), codes(administrativeAreaService.filterList(query).getData(), CodeNameDto::getCode));
+		assertEquals(List.of(), codes(administrativeAreaService.filterList(Map.of("type", "PARISH", "partOf", "SC1", "after", "z")).getData(), CodeNameDto::getCode));
+	}
+
+	@Test
+	void theGazetteerPagesLikeTheDatabase() {
+		List<List<String>> filterPages = filterPages(Map.of("type", "PARISH", "partOf", "SC1"), 2);
+		List<List<String>> searchPages = searchPages(Map.of("type", "PARISH"), 3);
+		List<List<String>> regionPages = filterPages(Map.of("type", "REGION"), 1);
+
+		when(gazetteerService.isEnabled()).thenReturn(true);
+		when(gazetteerService.current()).thenReturn(gazetteer);
+
+		assertEquals(filterPages, filterPages(Map.of("type", "PARISH", "partOf", "SC1"), 2));
+		assertEquals(searchPages, searchPages(Map.of("type", "PARISH"), 3));
+		assertEquals(regionPages, filterPages(Map.of("type", "REGION"), 1));
+	}
+
+	@Test
+	void aLimitOutsideItsBoundsIsRejected() {
+		assertThrows(InvalidException.class, () -> administrativeAreaService.filterList(Map.of("type", "PARISH", "partOf", "SC1", "limit", "51")));
+		assertThrows(InvalidException.class, () -> administrativeAreaService.searchList(Map.of("type", "PARISH", "limit", "0")));
+	}
+
+	private List<List<String>> filterPages(Map<String, String> query, int limit) {
+		return pages(query, limit, page -> codes(administrativeAreaService.filterList(page).getData(), CodeNameDto::getCode));
+	}
+
+	private List<List<String>> searchPages(Map<String, String> query, int limit) {
+		return pages(query, limit, page -> codes(administrativeAreaService.searchList(page).getData(), AdministrativeAreaDto::getCode));
+	}
+
+	// follows after=<last code> until a page comes back shorter than the limit
+	private static List<List<String>> pages(Map<String, String> query, int limit, Function<Map<String, String>, List<String>> read) {
+		List<List<String>> pages = new ArrayList<>();
+		String after = null;
+		List<String> page;
+		do {
+			Map<String, String> pageQuery = new HashMap<>(query);
+			pageQuery.put("limit", String.valueOf(limit));
+			if (after != null) {
+				pageQuery.put("after", after);
+			}
+			page = read.apply(pageQuery);
+			pages.add(page);
+			after = page.isEmpty() ? null : page.get(page.size() - 1);
+		} while (page.size() == limit);
+		return pages;
+	}
+
+	private static <T> List<String> codes(List<? extends T> items, Function<T, String> code) {
+		return items.stream().map(code).toList();
+	}
+}
@@ -0,0 +1,139 @@
+package com.wanfadger.AdministrativeareaApi.service.administrativearea;
+
+import com.wanfadger.AdministrativeareaApi.entity.*;
+import com.wanfadger.AdministrativeareaApi.service.bulkload.BulkLoadServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.closure.ClosureServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.county.CountyServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.localgovernment.LocalGovernmentServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.parish.ParishServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.region.RegionServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.subRegion.DbSubRegionServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.subcounty.SubCountyServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.wanfadger.AdministrativeareaApi.support.TestAreas.area;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/*
+ * The database path of the read endpoints has to run a fixed number of statements, whatever the number of rows.
+ * Every area has two children with their own ancestors, a lazily loaded ancestor would show up as extra statements.
+ */
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.flyway.enabled=false",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({AdministrativeAreaServiceImpl.class, AreaWritePublisher.class, ClosureServiceImpl.class, BulkLoadServiceImpl.class, RegionServiceImpl.class, DbSubRegionServiceImpl.class,
+		LocalGovernmentServiceImpl.class, CountyServiceImpl.class, SubCountyServiceImpl.class, ParishServiceImpl.class})
+class QueryCountTests extends AdministrativeAreaServiceTestSupport {
+
+	@Autowired
+	private AdministrativeAreaService administrativeAreaService;
+
+	@Autowired
+	private TestEntityManager testEntityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		Region region = testEntityManager.persist(area(new Region(), "R"));
+		for (int s = 0; s < 2; s++) {
+			SubRegion subRegion = area(new SubRegion(), "SR" + s);
+			subRegion.setRegion(region);
+			testEntityManager.persist(subRegion);
+			for (int l = 0; l < 2; l++) {
+				LocalGovernment localGovernment = area(new LocalGovernment(), subRegion.getCode() + "-LG" + l);
+				localGovernment.setSubRegion(subRegion);
+				testEntityManager.persist(localGovernment);
+				for (int c = 0; c < 2; c++) {
+					County county = area(new County(), localGovernment.getCode() + "-C" + c);
+					county.setLocalGovernment(localGovernment);
+					testEntityManager.persist(county);
+					for (int sc = 0; sc < 2; sc++) {
+						SubCounty subCounty = area(new SubCounty(), county.getCode() + "-SC" + sc);
+						subCounty.setCounty(county);
+						testEntityManager.persist(subCounty);
+						for (int p = 0; p < 2; p++) {
+							Parish parish = area(new Parish(), subCounty.getCode() + "-P" + p);
+							parish.setSubCounty(subCounty);
+							testEntityManager.persist(parish);
+						}
+					}
+				}
+			}
+		}
+		testEntityManager.flush();
+		testEntityManager.clear();
+	}
+
+	@Test
+	void searchList() {
+		assertStatements(1, () -> administrativeAreaService.searchList(query("REGION")));
+		assertStatements(1, () -> administrativeAreaService.searchList(query("SUB REGION", "partOf", "R")));
+		assertStatements(1, () -> administrativeAreaService.searchList(query("LOCAL GOVERNMENT", "partOf", "SR0")));
+		assertStatements(1, () -> administrativeAreaService.searchList(query("COUNTY", "partOf", "SR0-LG0")));
+		assertStatements(1, () -> administrativeAreaService.searchList(query("SUB COUNTY", "partOf", "SR0-LG0-C0")));
+		assertStatements(1, () -> administrativeAreaService.searchList(query("PARISH", "partOf", "SR0-LG0-C0-SC0")));
+		assertStatements(1, () -> administrativeAreaService.searchList(query("PARISH")));
+	}
+
+	@Test
+	void searchListPage() {
+		assertStatements(1, () -> administrativeAreaService.searchList(query("COUNTY", "limit", "3")));
+		assertStatements(1, () -> administrativeAreaService.searchList(query("PARISH", "limit", "3")));
+		assertStatements(1, () -> administrativeAreaService.searchList(query("PARISH", "partOf", "SR0-LG0-C0-SC0", "limit", "3")));
+	}
+
+	@Test
+	void searchOne() {
+		assertStatements(1, () -> administrativeAreaService.searchOne(query("REGION", "code", "R")));
+		assertStatements(1, () -> administrativeAreaService.searchOne(query("SUB REGION", "code", "SR1")));
+		assertStatements(1, () -> administrativeAreaService.searchOne(query("LOCAL GOVERNMENT", "code", "SR1-LG1")));
+		assertStatements(1, () -> administrativeAreaService.searchOne(query("COUNTY", "code", "SR1-LG1-C1")));
+		assertStatements(1, () -> administrativeAreaService.searchOne(query("SUB COUNTY", "code", "SR1-LG1-C1-SC1")));
+		assertStatements(1, () -> administrativeAreaService.searchOne(query("PARISH", "code", "SR1-LG1-C1-SC1-P1")));
+	}
+
+	@Test
+	void filter() {
+		assertStatements(1, () -> administrativeAreaService.filterList(query("REGION")));
+		assertStatements(1, () -> administrativeAreaService.filterList(query("PARISH", "partOf", "SR0-LG0-C0-SC0")));
+		assertStatements(1, () -> administrativeAreaService.filterOne(query("PARISH", "code", "SR0-LG0-C0-SC0-P0")));
+		assertStatements(1, () -> administrativeAreaService.filterList(query("REGION", "limit", "3")));
+		assertStatements(1, () -> administrativeAreaService.filterList(query("PARISH", "partOf", "SR0-LG0-C0-SC0", "after", "SR0-LG0-C0-SC0-P0")));
+	}
+
+	private void assertStatements(long expected, Runnable call) {
+		testEntityManager.clear();
+		statistics.clear();
+		call.run();
+		assertEquals(expected, statistics.getPrepareStatementCount(), () -> String.join("\n", statistics.getQueries()));
+	}
+
+	private static Map<String, String> query(String type, String... params) {
+		Map<String, String> queryMap = new HashMap<>();
+		queryMap.put("type", type);
+		for (int i = 0; i < params.length; i += 2) {
+			queryMap.put(params[i], params[i + 1]);
+		}
+		return queryMap;
+	}
+}
@@ -0,0 +1,138 @@
+package com.wanfadger.AdministrativeareaApi.service.administrativearea;
+
+import com.wanfadger.AdministrativeareaApi.entity.AdministrativeAreaType;
+import com.wanfadger.AdministrativeareaApi.entity.Parish;
+import com.wanfadger.AdministrativeareaApi.repository.*;
+import com.wanfadger.AdministrativeareaApi.service.bulkload.BulkLoadService;
+import com.wanfadger.AdministrativeareaApi.service.bulkload.BulkLoadServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.closure.ClosureService;
+import com.wanfadger.AdministrativeareaApi.service.county.CountyServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.datasetversion.DatasetVersionService;
+import com.wanfadger.AdministrativeareaApi.service.gazetteer.GazetteerNode;
+import com.wanfadger.AdministrativeareaApi.service.gazetteer.GazetteerService;
+import com.wanfadger.AdministrativeareaApi.service.gazetteer.GazetteerServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.localgovernment.LocalGovernmentServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.parish.ParishServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.region.RegionServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.subRegion.DbSubRegionServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.subcounty.SubCountyServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.upload.UploadFormat;
+import com.wanfadger.AdministrativeareaApi.service.upload.UploadPipeline;
+import com.wanfadger.AdministrativeareaApi.shared.beanConfig.AdministrativeAreaBeanConfigurations;
+import com.wanfadger.AdministrativeareaApi.shared.concurrency.DbTaskExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+// two rows per chunk, the upload below fails while saving its second chunk
+// no test transaction, the gazetteer is rebuilt on another thread and only sees what the upload committed
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.flyway.enabled=false",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"administrative-area.upload.chunk-size=2",
+		"administrative-area.upload.stage-queue-capacity=1"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({AdministrativeAreaServiceImpl.class, AreaWritePublisher.class, UploadPipeline.class, DbTaskExecutor.class, BulkLoadServiceImpl.class, GazetteerServiceImpl.class,
+		AdministrativeAreaBeanConfigurations.class, RegionServiceImpl.class, DbSubRegionServiceImpl.class, LocalGovernmentServiceImpl.class,
+		CountyServiceImpl.class, SubCountyServiceImpl.class, ParishServiceImpl.class})
+class UploadFailureTests {
+
+	@TempDir
+	private Path directory;
+
+	@Autowired
+	private AdministrativeAreaService administrativeAreaService;
+
+	@Autowired
+	private GazetteerService gazetteerService;
+
+	@SpyBean
+	private BulkLoadService bulkLoadService;
+
+	@MockBean
+	private AdministrativeAreaCacheEvictor administrativeAreaCacheEvictor;
+
+	@MockBean
+	private DatasetVersionService datasetVersionService;
+
+	@MockBean
+	private ClosureService closureService;
+
+	@Autowired
+	private RegionRepository regionRepository;
+
+	@Autowired
+	private SubRegionRepository subRegionRepository;
+
+	@Autowired
+	private LocalGovernmentRepository localGovernmentRepository;
+
+	@Autowired
+	private CountyRepository countyRepository;
+
+	@Autowired
+	private SubCountyRepository subCountyRepository;
+
+	@Autowired
+	private ParishRepository parishRepository;
+
+	@AfterEach
+	void tearDown() {
+		parishRepository.deleteAllInBatch();
+		subCountyRepository.deleteAllInBatch();
+		countyRepository.deleteAllInBatch();
+		localGovernmentRepository.deleteAllInBatch();
+		subRegionRepository.deleteAllInBatch();
+		regionRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void areasOfEarlierChunksAreVisibleWhenALaterChunkFails() throws IOException {
+		doAnswer(invocation -> {
+			List<Parish> parishes = invocation.getArgument(1);
+			if (parishes.stream().anyMatch(parish -> parish.getName().equals("Broken"))) {
+				throw new IllegalStateException("connection reset");
+			}
+			return invocation.callRealMethod();
+		}).when(bulkLoadService).load(eq(AdministrativeAreaType.PARISH), any());
+		gazetteerService.current();
+
+		Path file = Files.writeString(directory.resolve("rows.json"), """
+				[
+				  {"REGION": "North", "SUB_REGION": "Acholi", "LOCAL_GOVERNMENT": "Gulu", "COUNTY": "Aswa", "SUB_COUNTY": "Bobi", "PARISH": "Lalogi"},
+				  {"REGION": "North", "SUB_REGION": "Acholi", "LOCAL_GOVERNMENT": "Gulu", "COUNTY": "Aswa", "SUB_COUNTY": "Bobi", "PARISH": "Paibona"},
+				  {"REGION": "North", "SUB_REGION": "Acholi", "LOCAL_GOVERNMENT": "Gulu", "COUNTY": "Aswa", "SUB_COUNTY": "Bobi", "PARISH": "Broken"}
+				]
+				""");
+		assertThrows(IllegalStateException.class, () -> administrativeAreaService.upload(file, UploadFormat.JSON, (rows, created) -> {
+		}));
+
+		// the dataset version moves once the rebuild is done
+		verify(datasetVersionService, timeout(5000)).refresh();
+		verify(closureService).rebuild();
+		verify(administrativeAreaCacheEvictor).evict(any(), any());
+		assertEquals(List.of("Lalogi", "Paibona"), gazetteerService.current().list(AdministrativeAreaType.PARISH).stream().map(GazetteerNode::getName).sorted().toList());
+	}
+}
@@ -0,0 +1,134 @@
+package com.wanfadger.AdministrativeareaApi.service.bulkload;
+
+import com.wanfadger.AdministrativeareaApi.entity.*;
+import com.wanfadger.AdministrativeareaApi.service.county.CountyServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.county.DbCountyService;
+import com.wanfadger.AdministrativeareaApi.service.localgovernment.DbLocalGovernmentService;
+import com.wanfadger.AdministrativeareaApi.service.localgovernment.LocalGovernmentServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.parish.DbParishService;
+import com.wanfadger.AdministrativeareaApi.service.parish.ParishServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.region.DbRegionService;
+import com.wanfadger.AdministrativeareaApi.service.region.RegionServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.subRegion.DbSubRegionService;
+import com.wanfadger.AdministrativeareaApi.service.subRegion.DbSubRegionServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.subcounty.DbSubCountyService;
+import com.wanfadger.AdministrativeareaApi.service.subcounty.SubCountyServiceImpl;
+import com.wanfadger.AdministrativeareaApi.shared.util.AreaCodeGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.wanfadger.AdministrativeareaApi.support.TestAreas.area;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.flyway.enabled=false",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import({BulkLoadServiceImpl.class, RegionServiceImpl.class, DbSubRegionServiceImpl.class, LocalGovernmentServiceImpl.class,
+		CountyServiceImpl.class, SubCountyServiceImpl.class, ParishServiceImpl.class})
+class BulkLoadServiceTests {
+
+	@Autowired
+	private DbRegionService dbRegionService;
+
+	@Autowired
+	private DbSubRegionService dbSubRegionService;
+
+	@Autowired
+	private DbLocalGovernmentService dbLocalGovernmentService;
+
+	@Autowired
+	private DbCountyService dbCountyService;
+
+	@Autowired
+	private DbSubCountyService dbSubCountyService;
+
+	@Autowired
+	private DbParishService dbParishService;
+
+	@Autowired
+	private TestEntityManager testEntityManager;
+
+	private SubCounty subCounty;
+
+	@BeforeEach
+	void setUp() {
+		Region region = area(new Region(), "R");
+		dbRegionService.dbBulkNew(List.of(region));
+
+		SubRegion subRegion = area(new SubRegion(), "SR");
+		subRegion.setRegion(region);
+		dbSubRegionService.dbBulkNew(List.of(subRegion));
+
+		LocalGovernment localGovernment = area(new LocalGovernment(), "LG");
+		localGovernment.setSubRegion(subRegion);
+		dbLocalGovernmentService.dbBulkNew(List.of(localGovernment));
+
+		County county = area(new County(), "C");
+		county.setLocalGovernment(localGovernment);
+		dbCountyService.dbBulkNew(List.of(county));
+
+		subCounty = area(new SubCounty(), "SC");
+		subCounty.setCounty(county);
+		dbSubCountyService.dbBulkNew(List.of(subCounty));
+	}
+
+	@Test
+	void loadsEveryLevelWithItsParent() {
+		assertEquals(3, dbParishService.dbBulkNew(parishes(3)));
+
+		List<Parish> parishes = dbParishService.dbBySubCountyCode(subCounty.getCode());
+		assertEquals(3, parishes.size());
+		Parish parish = parishes.get(0);
+		assertEquals("R", parish.getSubCounty().getCounty().getLocalGovernment().getSubRegion().getRegion().getName());
+		assertEquals(parish.getCreatedDateTime(), parish.getUpdatedDateTime());
+	}
+
+	// mvn test -Dtest=BulkLoadServiceTests -Dbenchmark=true
+	// runs on the embedded database (batched INSERTs), with -Dspring.test.database.replace=none and the
+	// spring.datasource.* of a scratch PostgreSQL database it measures COPY
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	void benchmark() {
+		int rows = Integer.getInteger("benchmark.rows", 20_000);
+
+		// warm up
+		dbParishService.dbNew(parishes(1000));
+		dbParishService.dbBulkNew(parishes(1000));
+		testEntityManager.flush();
+		testEntityManager.clear();
+
+		long start = System.nanoTime();
+		dbParishService.dbNew(parishes(rows));
+		testEntityManager.flush();
+		testEntityManager.clear();
+		long saveAllNs = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		dbParishService.dbBulkNew(parishes(rows));
+		long bulkNs = System.nanoTime() - start;
+
+		System.out.printf("saveAll  %8d rows %8d ms %10.0f rows/s%n", rows, saveAllNs / 1_000_000, rows * 1e9 / saveAllNs);
+		System.out.printf("bulk     %8d rows %8d ms %10.0f rows/s%n", rows, bulkNs / 1_000_000, rows * 1e9 / bulkNs);
+	}
+
+	private List<Parish> parishes(int count) {
+		List<Parish> parishes = new ArrayList<>(count);
+		for (String code : AreaCodeGenerator.next(count)) {
+			Parish parish = area(new Parish(), "P \"" + code + "\"");
+			parish.setCode(code);
+			parish.setSubCounty(subCounty);
+			parishes.add(parish);
+		}
+		return parishes;
+	}
+}
@@ -0,0 +1,204 @@
+package com.wanfadger.AdministrativeareaApi.service.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wanfadger.AdministrativeareaApi.entity.*;
+import com.wanfadger.AdministrativeareaApi.repository.*;
+import com.wanfadger.AdministrativeareaApi.service.bulkload.BulkLoadServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.county.CountyServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.localgovernment.LocalGovernmentServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.parish.DbParishService;
+import com.wanfadger.AdministrativeareaApi.service.parish.ParishServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.region.RegionServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.subRegion.DbSubRegionServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.subcounty.SubCountyServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+import static com.wanfadger.AdministrativeareaApi.support.TestAreas.area;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doAnswer;
+
+// no test transaction, the export opens its own and the concurrent write below commits from another thread
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.flyway.enabled=false",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ExportServiceImpl.class, BulkLoadServiceImpl.class, RegionServiceImpl.class, DbSubRegionServiceImpl.class, LocalGovernmentServiceImpl.class,
+		CountyServiceImpl.class, SubCountyServiceImpl.class, ParishServiceImpl.class})
+class ExportServiceTests {
+
+	private static final List<String> ANCESTORS = List.of("region", "subRegion", "localGovernment", "county", "subCounty");
+
+	@Autowired
+	private ExportService exportService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@SpyBean
+	private DbParishService dbParishService;
+
+	@Autowired
+	private RegionRepository regionRepository;
+
+	@Autowired
+	private SubRegionRepository subRegionRepository;
+
+	@Autowired
+	private LocalGovernmentRepository localGovernmentRepository;
+
+	@Autowired
+	private CountyRepository countyRepository;
+
+	@Autowired
+	private SubCountyRepository subCountyRepository;
+
+	@Autowired
+	private ParishRepository parishRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	// the codes run against the hierarchy, sorting the whole export by code would put children first
+	@BeforeEach
+	void setUp() {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> saveHierarchy());
+	}
+
+	private void saveHierarchy() {
+		Region region = regionRepository.save(area(new Region(), "Z-R"));
+		SubRegion subRegion = area(new SubRegion(), "Y-SR");
+		subRegion.setRegion(region);
+		subRegionRepository.save(subRegion);
+		LocalGovernment localGovernment = area(new LocalGovernment(), "X-LG");
+		localGovernment.setSubRegion(subRegion);
+		localGovernmentRepository.save(localGovernment);
+		County county = area(new County(), "W-C");
+		county.setLocalGovernment(localGovernment);
+		countyRepository.save(county);
+		SubCounty subCounty = area(new SubCounty(), "V-SC");
+		subCounty.setCounty(county);
+		subCountyRepository.save(subCounty);
+		for (String code : List.of("A-P2", "A-P1")) {
+			Parish parish = area(new Parish(), code);
+			parish.setSubCounty(subCounty);
+			parishRepository.save(parish);
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		parishRepository.deleteAllInBatch();
+		subCountyRepository.deleteAllInBatch();
+		countyRepository.deleteAllInBatch();
+		localGovernmentRepository.deleteAllInBatch();
+		subRegionRepository.deleteAllInBatch();
+		regionRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void everyAreaIsOneJsonLineEndedByANewline() throws IOException {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+				parishRepository.findAll().get(0).setName("Kisenyi \"B\"\nWard"));
+
+		String output = export();
+
+		assertTrue(output.endsWith("\n"));
+		List<JsonNode> lines = lines(output);
+		assertEquals(7, lines.size());
+		// the newline in the name is escaped inside its line, it does not start a new one
+		assertTrue(lines.stream().anyMatch(line -> line.get("name").asText().equals("Kisenyi \"B\"\nWard")));
+		JsonNode first = lines.get(0);
+		assertEquals(List.of("type", "code", "name", "latitude", "longitude"), fieldNames(first));
+		assertEquals(0.3476, first.get("latitude").asDouble());
+	}
+
+	@Test
+	void parentsAreWrittenBeforeTheirChildren() throws IOException {
+		List<JsonNode> lines = lines(export());
+
+		assertEquals(List.of("Z-R", "Y-SR", "X-LG", "W-C", "V-SC", "A-P1", "A-P2"), lines.stream().map(line -> line.get("code").asText()).toList());
+		Map<String, Integer> written = new HashMap<>();
+		for (int i = 0; i < lines.size(); i++) {
+			JsonNode line = lines.get(i);
+			for (String ancestor : ANCESTORS) {
+				if (line.has(ancestor)) {
+					assertTrue(written.containsKey(line.get(ancestor).asText()), line + " written before its " + ancestor);
+				}
+			}
+			written.put(line.get("code").asText(), i);
+		}
+		JsonNode parish = lines.get(6);
+		assertEquals("PARISH", parish.get("type").asText());
+		assertEquals(List.of("Z-R", "Y-SR", "X-LG", "W-C", "V-SC"), ANCESTORS.stream().map(ancestor -> parish.get(ancestor).asText()).toList());
+	}
+
+	@Test
+	void aWriteCommittedDuringTheExportIsNotInIt() throws IOException {
+		// the sub counties are already written when another request adds a sub county and its parish
+		doAnswer(invocation -> {
+			CompletableFuture.runAsync(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+				SubCounty subCounty = area(new SubCounty(), "U-SC");
+				subCounty.setCounty(countyRepository.findByCodeIgnoreCase("W-C").orElseThrow());
+				subCountyRepository.save(subCounty);
+				Parish parish = area(new Parish(), "A-P0");
+				parish.setSubCounty(subCounty);
+				parishRepository.save(parish);
+			})).join();
+			return invocation.callRealMethod();
+		}).when(dbParishService).dbExport();
+
+		List<String> codes = lines(export()).stream().map(line -> line.get("code").asText()).toList();
+
+		assertEquals(List.of("Z-R", "Y-SR", "X-LG", "W-C", "V-SC", "A-P1", "A-P2"), codes);
+		assertTrue(parishRepository.findAll().stream().anyMatch(parish -> parish.getCode().equals("A-P0")));
+	}
+
+	@Test
+	void anEmptyDatasetExportsNothing() throws IOException {
+		tearDown();
+
+		assertEquals("", export());
+	}
+
+	private String export() throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		exportService.export(outputStream);
+		return outputStream.toString(StandardCharsets.UTF_8);
+	}
+
+	private List<JsonNode> lines(String output) throws IOException {
+		List<JsonNode> lines = new ArrayList<>();
+		for (String line : output.split("\n")) {
+			lines.add(objectMapper.readTree(line));
+		}
+		return lines;
+	}
+
+	private static List<String> fieldNames(JsonNode node) {
+		List<String> names = new ArrayList<>();
+		node.fieldNames().forEachRemaining(names::add);
+		return names;
+	}
+}
@@ -0,0 +1,91 @@
+package com.wanfadger.AdministrativeareaApi.service.gazetteer;
+
+import com.wanfadger.AdministrativeareaApi.entity.AdministrativeAreaType;
+import com.wanfadger.AdministrativeareaApi.entity.Region;
+import com.wanfadger.AdministrativeareaApi.entity.SubRegion;
+import com.wanfadger.AdministrativeareaApi.service.county.DbCountyService;
+import com.wanfadger.AdministrativeareaApi.service.localgovernment.DbLocalGovernmentService;
+import com.wanfadger.AdministrativeareaApi.service.parish.DbParishService;
+import com.wanfadger.AdministrativeareaApi.service.region.DbRegionService;
+import com.wanfadger.AdministrativeareaApi.service.subRegion.DbSubRegionService;
+import com.wanfadger.AdministrativeareaApi.service.subcounty.DbSubCountyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static com.wanfadger.AdministrativeareaApi.support.TestAreas.area;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// the stamp is made of the count and the latest updatedDateTime of every table, all empty unless a test says otherwise
+class GazetteerServiceImplTests {
+
+	private final DbRegionService dbRegionService = mock();
+	private final DbSubRegionService dbSubRegionService = mock();
+
+	private GazetteerServiceImpl gazetteerService;
+
+	@BeforeEach
+	void setUp() {
+		gazetteerService = new GazetteerServiceImpl(dbRegionService, dbSubRegionService, mock(DbLocalGovernmentService.class),
+				mock(DbCountyService.class), mock(DbSubCountyService.class), mock(DbParishService.class));
+		ReflectionTestUtils.setField(gazetteerService, "enabled", true);
+		Region region = area(new Region(), "R1");
+		SubRegion subRegion = area(new SubRegion(), "SR1");
+		subRegion.setRegion(region);
+		when(dbRegionService.dbList()).thenReturn(List.of(region));
+		when(dbRegionService.dbCount()).thenReturn(1L);
+		when(dbSubRegionService.dbList()).thenReturn(List.of(subRegion));
+		when(dbSubRegionService.dbCount()).thenReturn(1L);
+	}
+
+	@Test
+	void loadsTheSnapshotOnFirstUseAndKeepsIt() {
+		Gazetteer gazetteer = gazetteerService.current();
+
+		assertSame(gazetteer, gazetteerService.current());
+		assertEquals("R1", gazetteer.byCode(AdministrativeAreaType.SUBREGION, "SR1").orElseThrow().getParent().getCode());
+		verify(dbRegionService, times(1)).dbList();
+	}
+
+	@Test
+	void anUnchangedStampKeepsTheSnapshot() {
+		Gazetteer gazetteer = gazetteerService.current();
+
+		gazetteerService.refreshIfStale();
+
+		assertSame(gazetteer, gazetteerService.current());
+		verify(dbRegionService, times(1)).dbList();
+	}
+
+	@Test
+	void aWriteOfAnotherInstanceIsPickedUpOnTheNextCheck() {
+		Gazetteer gazetteer = gazetteerService.current();
+		// an update keeps the count, only the latest updatedDateTime moves
+		when(dbSubRegionService.dbLastUpdated()).thenReturn(Optional.of(LocalDateTime.of(2026, 10, 18, 9, 30)));
+		SubRegion renamed = area(new SubRegion(), "SR1");
+		renamed.setName("Buganda");
+		renamed.setRegion(area(new Region(), "R1"));
+		when(dbSubRegionService.dbList()).thenReturn(List.of(renamed));
+
+		gazetteerService.refreshIfStale();
+
+		assertNotSame(gazetteer, gazetteerService.current());
+		assertEquals("Buganda", gazetteerService.current().byCode(AdministrativeAreaType.SUBREGION, "SR1").orElseThrow().getName());
+	}
+
+	@Test
+	void nothingIsLoadedBeforeTheFirstUseOrWhenDisabled() {
+		gazetteerService.refreshIfStale();
+		ReflectionTestUtils.setField(gazetteerService, "enabled", false);
+		gazetteerService.current();
+		when(dbRegionService.dbCount()).thenReturn(2L);
+		gazetteerService.refreshIfStale();
+
+		verify(dbRegionService, times(1)).dbList();
+	}
+}
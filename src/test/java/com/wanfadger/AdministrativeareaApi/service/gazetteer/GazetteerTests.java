@@ -0,0 +1,77 @@
+package com.wanfadger.AdministrativeareaApi.service.gazetteer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.wanfadger.AdministrativeareaApi.entity.AdministrativeAreaType.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GazetteerTests {
+
+	// R1 > SR1 > LG1 > C1 > SC1 > P2, P1 and C1 > SC2 > P3, parishes added out of code order
+	private final Gazetteer gazetteer = Gazetteer.builder()
+			.add(REGION, "R1", "Central", 0.3476, 32.5825, null)
+			.add(SUBREGION, "SR1", "Buganda", null, null, "R1")
+			.add(LOCALGOVERNMENT, "LG1", "Kampala", null, null, "SR1")
+			.add(COUNTY, "C1", "Kawempe", null, null, "LG1")
+			.add(SUBCOUNTY, "SC2", "Kawempe North", null, null, "C1")
+			.add(SUBCOUNTY, "SC1", "Kawempe South", null, null, "C1")
+			.add(PARISH, "P3", "Kyebando", null, null, "SC2")
+			.add(PARISH, "P2", "Kazo", null, null, "SC1")
+			.add(PARISH, "P1", "Bwaise", null, null, "SC1")
+			.add(PARISH, "P4", "Orphan", null, null, "SC9")
+			.build("stamp");
+
+	@Test
+	void looksAreasUpByCodeIgnoringCase() {
+		GazetteerNode node = gazetteer.byCode(PARISH, "p1").orElseThrow();
+
+		assertEquals("P1", node.getCode());
+		assertEquals("Bwaise", node.getName());
+		assertEquals("SC1", node.getParent().getCode());
+		assertEquals("R1", node.ancestor(REGION).orElseThrow().getCode());
+		assertTrue(gazetteer.byCode(COUNTY, "P1").isEmpty());
+		assertTrue(gazetteer.byCode(PARISH, null).isEmpty());
+	}
+
+	@Test
+	void skipsAreasWhoseParentIsUnknown() {
+		assertTrue(gazetteer.byCode(PARISH, "P4").isEmpty());
+		assertEquals(9, gazetteer.size());
+	}
+
+	@Test
+	void listsLevelsAndChildrenByCode() {
+		assertEquals(List.of("P1", "P2", "P3"), codes(gazetteer.list(PARISH)));
+		assertEquals(List.of("SC1", "SC2"), codes(gazetteer.children(SUBCOUNTY, "c1")));
+		assertEquals(List.of(), codes(gazetteer.children(SUBCOUNTY, "C9")));
+		assertEquals(List.of(), codes(gazetteer.children(REGION, null)));
+	}
+
+	@Test
+	void collectsDescendantsAcrossLevelsByCode() {
+		assertEquals(List.of("P1", "P2", "P3"), codes(gazetteer.descendants(COUNTY, "C1", PARISH)));
+		assertEquals(List.of("P1", "P2", "P3"), codes(gazetteer.descendants(REGION, "R1", PARISH)));
+		assertEquals(List.of("P3"), codes(gazetteer.descendants(SUBCOUNTY, "SC2", PARISH)));
+		assertEquals(List.of("SC1", "SC2"), codes(gazetteer.descendants(LOCALGOVERNMENT, "LG1", SUBCOUNTY)));
+		// nothing above or beside the area itself
+		assertEquals(List.of(), codes(gazetteer.descendants(COUNTY, "C1", REGION)));
+		assertEquals(List.of(), codes(gazetteer.descendants(COUNTY, "C1", COUNTY)));
+	}
+
+	@Test
+	void pagesStartAfterTheGivenCode() {
+		List<GazetteerNode> parishes = gazetteer.list(PARISH);
+
+		assertEquals(List.of("P1", "P2"), codes(Gazetteer.page(parishes, "", 2)));
+		assertEquals(List.of("P2", "P3"), codes(Gazetteer.page(parishes, "P1", 2)));
+		// a code that is not in the list still pages from where it would sort
+		assertEquals(List.of("P2", "P3"), codes(Gazetteer.page(parishes, "P1a", 5)));
+		assertEquals(List.of(), codes(Gazetteer.page(parishes, "P3", 2)));
+	}
+
+	private static List<String> codes(List<GazetteerNode> nodes) {
+		return nodes.stream().map(GazetteerNode::getCode).toList();
+	}
+}
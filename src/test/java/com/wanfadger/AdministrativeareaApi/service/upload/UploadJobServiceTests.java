@@ -0,0 +1,185 @@
+package com.wanfadger.AdministrativeareaApi.service.upload;
+
+import com.wanfadger.AdministrativeareaApi.dto.UploadJobDto;
+import com.wanfadger.AdministrativeareaApi.entity.AdministrativeAreaType;
+import com.wanfadger.AdministrativeareaApi.entity.UploadJob;
+import com.wanfadger.AdministrativeareaApi.entity.UploadJobStatus;
+import com.wanfadger.AdministrativeareaApi.repository.UploadJobRepository;
+import com.wanfadger.AdministrativeareaApi.service.administrativearea.AdministrativeAreaService;
+import com.wanfadger.AdministrativeareaApi.shared.administrativeareaexceptions.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import com.wanfadger.AdministrativeareaApi.shared.reponses.AdministrativeAreaResponseDto;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+// jobs are read from the executor threads, the test data has to be committed
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.flyway.enabled=false",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"administrative-area.upload.queue-capacity=1",
+		"administrative-area.upload.instance-id=this-instance"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(UploadJobServiceImpl.class)
+class UploadJobServiceTests {
+
+	@Autowired
+	private UploadJobService uploadJobService;
+
+	@Autowired
+	private UploadJobRepository uploadJobRepository;
+
+	@MockBean
+	private AdministrativeAreaService administrativeAreaService;
+
+	@Test
+	void reportsProgressPerChunk() throws Exception {
+		List<String> spooled = new ArrayList<>();
+		List<Path> files = new ArrayList<>();
+		doAnswer(invocation -> {
+			Path file = invocation.getArgument(0);
+			files.add(file);
+			spooled.add(Files.readString(file));
+			UploadProgress progress = invocation.getArgument(2);
+			progress.chunkCompleted(1000, Map.of(AdministrativeAreaType.REGION, 1, AdministrativeAreaType.SUBREGION, 2));
+			progress.chunkCompleted(10, Map.of(AdministrativeAreaType.SUBREGION, 1));
+			return null;
+		}).when(administrativeAreaService).upload(any(), eq(UploadFormat.CSV), any());
+
+		ResponseEntity<AdministrativeAreaResponseDto<UploadJobDto>> response = uploadJobService.submit(body("REGION\nCentral\n"), UploadFormat.CSV);
+		assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+
+		UploadJobDto job = awaitFinished(response.getBody().getData().getId());
+		assertEquals(UploadJobStatus.COMPLETED, job.getStatus());
+		assertEquals(1010, job.getProcessedRows());
+		assertEquals(2, job.getProcessedChunks());
+		assertEquals(3, job.getCreated().get(AdministrativeAreaType.SUBREGION));
+		assertNotNull(job.getFinishedDateTime());
+
+		// the job read the spooled body, the file is gone once it is done
+		assertEquals(List.of("REGION\nCentral\n"), spooled);
+		assertFalse(Files.exists(files.get(0)));
+	}
+
+	@Test
+	void recordsFailures() throws Exception {
+		doThrow(new IllegalStateException("broken sheet")).when(administrativeAreaService).upload(any(), any(), any());
+
+		String id = uploadJobService.submit(body("[]"), UploadFormat.JSON).getBody().getData().getId();
+
+		UploadJobDto job = awaitFinished(id);
+		assertEquals(UploadJobStatus.FAILED, job.getStatus());
+		assertEquals("broken sheet", job.getError());
+	}
+
+	@Test
+	void recordsErrors() throws Exception {
+		doThrow(new NoClassDefFoundError("org/apache/poi/Missing")).when(administrativeAreaService).upload(any(), any(), any());
+
+		String id = uploadJobService.submit(body("[]"), UploadFormat.JSON).getBody().getData().getId();
+
+		UploadJobDto job = awaitFinished(id);
+		assertEquals(UploadJobStatus.FAILED, job.getStatus());
+		assertEquals("org/apache/poi/Missing", job.getError());
+	}
+
+	@Test
+	void failsJobsInterruptedByARestartOrAbandonedByTheirInstance() {
+		UploadJob interrupted = job(UploadJobStatus.RUNNING, "this-instance", Duration.ofMinutes(1));
+		UploadJob abandoned = job(UploadJobStatus.QUEUED, "other-instance", Duration.ofMinutes(-1));
+		UploadJob leased = job(UploadJobStatus.RUNNING, "other-instance", Duration.ofMinutes(1));
+		UploadJob completed = job(UploadJobStatus.COMPLETED, "this-instance", Duration.ofMinutes(-1));
+
+		((UploadJobServiceImpl) uploadJobService).failInterruptedJobs();
+
+		UploadJobDto job = uploadJobService.status(interrupted.getId()).getData();
+		assertEquals(UploadJobStatus.FAILED, job.getStatus());
+		assertEquals("interrupted by restart", job.getError());
+		assertNotNull(job.getFinishedDateTime());
+		assertEquals("abandoned, its instance stopped", uploadJobService.status(abandoned.getId()).getData().getError());
+		// still renewed by the other instance
+		assertEquals(UploadJobStatus.RUNNING, uploadJobService.status(leased.getId()).getData().getStatus());
+		assertEquals(UploadJobStatus.COMPLETED, uploadJobService.status(completed.getId()).getData().getStatus());
+	}
+
+	@Test
+	void renewsTheLeasesOfItsOwnUnfinishedJobs() {
+		UploadJob own = job(UploadJobStatus.RUNNING, "this-instance", Duration.ofSeconds(1));
+		UploadJob other = job(UploadJobStatus.RUNNING, "other-instance", Duration.ofSeconds(1));
+
+		((UploadJobServiceImpl) uploadJobService).renewLeases();
+
+		assertTrue(uploadJobRepository.findById(own.getId()).orElseThrow().getLeaseExpiresAt().isAfter(LocalDateTime.now().plusSeconds(30)));
+		assertTrue(uploadJobRepository.findById(other.getId()).orElseThrow().getLeaseExpiresAt().isBefore(LocalDateTime.now().plusSeconds(30)));
+	}
+
+	@Test
+	void rejectsUploadsWhenTheQueueIsFull() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		doAnswer(invocation -> release.await(10, TimeUnit.SECONDS)).when(administrativeAreaService).upload(any(), any(), any());
+
+		String queued = null;
+		try {
+			String running = uploadJobService.submit(body("[]"), UploadFormat.JSON).getBody().getData().getId();
+			while (uploadJobService.status(running).getData().getStatus() == UploadJobStatus.QUEUED) {
+				Thread.sleep(10);
+			}
+			queued = uploadJobService.submit(body("[]"), UploadFormat.JSON).getBody().getData().getId();
+			assertThrows(TooManyRequestsException.class, () -> uploadJobService.submit(body("[]"), UploadFormat.JSON));
+		} finally {
+			release.countDown();
+			// the other tests need an empty queue
+			if (queued != null) {
+				awaitFinished(queued);
+			}
+		}
+	}
+
+	private UploadJob job(UploadJobStatus status, String owner, Duration lease) {
+		UploadJob job = new UploadJob(status);
+		job.setOwner(owner);
+		job.setLeaseExpiresAt(LocalDateTime.now().plus(lease));
+		return uploadJobRepository.save(job);
+	}
+
+	private static InputStream body(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private UploadJobDto awaitFinished(String id) throws InterruptedException {
+		for (int i = 0; i < 500; i++) {
+			UploadJobDto job = uploadJobService.status(id).getData();
+			if (job.getStatus() == UploadJobStatus.COMPLETED || job.getStatus() == UploadJobStatus.FAILED) {
+				return job;
+			}
+			Thread.sleep(10);
+		}
+		return fail("upload job " + id + " did not finish");
+	}
+}
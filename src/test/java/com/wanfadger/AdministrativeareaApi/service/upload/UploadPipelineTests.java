@@ -0,0 +1,202 @@
+package com.wanfadger.AdministrativeareaApi.service.upload;
+
+import com.wanfadger.AdministrativeareaApi.entity.AdministrativeAreaType;
+import com.wanfadger.AdministrativeareaApi.entity.Parish;
+import com.wanfadger.AdministrativeareaApi.repository.*;
+import com.wanfadger.AdministrativeareaApi.service.bulkload.BulkLoadServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.county.CountyServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.localgovernment.LocalGovernmentServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.parish.ParishServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.region.RegionServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.subRegion.DbSubRegionServiceImpl;
+import com.wanfadger.AdministrativeareaApi.service.subcounty.SubCountyServiceImpl;
+import com.wanfadger.AdministrativeareaApi.shared.administrativeareaexceptions.InvalidException;
+import com.wanfadger.AdministrativeareaApi.shared.beanConfig.AdministrativeAreaBeanConfigurations;
+import com.wanfadger.AdministrativeareaApi.shared.concurrency.DbTaskExecutor;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// two rows per chunk, the uploads below span several chunks
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.flyway.enabled=false",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"administrative-area.upload.chunk-size=2",
+		"administrative-area.upload.stage-queue-capacity=1"
+})
+@Import({UploadPipeline.class, DbTaskExecutor.class, BulkLoadServiceImpl.class, AdministrativeAreaBeanConfigurations.class, RegionServiceImpl.class, DbSubRegionServiceImpl.class,
+		LocalGovernmentServiceImpl.class, CountyServiceImpl.class, SubCountyServiceImpl.class, ParishServiceImpl.class})
+class UploadPipelineTests {
+
+	@TempDir
+	private Path directory;
+
+	@Autowired
+	private UploadPipeline uploadPipeline;
+
+	@Autowired
+	private RegionRepository regionRepository;
+
+	@Autowired
+	private LocalGovernmentRepository localGovernmentRepository;
+
+	@Autowired
+	private SubCountyRepository subCountyRepository;
+
+	@Autowired
+	private ParishRepository parishRepository;
+
+	@Autowired
+	private TestEntityManager testEntityManager;
+
+	@Test
+	void reconcilesRowsWithExistingAreas() throws IOException {
+		Map<AdministrativeAreaType, Integer> created = new EnumMap<>(AdministrativeAreaType.class);
+		List<Integer> chunks = new ArrayList<>();
+		uploadPipeline.run(file("rows.json", """
+				[
+				  {"REGION": "Central", "SUB_REGION": "Buganda", "LOCAL_GOVERNMENT": "Kampala", "COUNTY": "Kampala Central", "SUB_COUNTY": "Central Division", "PARISH": "Kagugube"},
+				  {"REGION": "Central", "SUB_REGION": "Buganda", "LOCAL_GOVERNMENT": "Kampala", "COUNTY": "Kampala Central", "SUB_COUNTY": "Central Division", "PARISH": "Nakasero"},
+				  {"REGION": "Central", "SUB_REGION": "Buganda", "LOCAL_GOVERNMENT": "Wakiso", "COUNTY": "Busiro", "SUB_COUNTY": "Central Division", "PARISH": "Kagugube"}
+				]
+				"""), UploadFormat.JSON, (rows, chunkCreated) -> {
+			chunks.add(rows);
+			chunkCreated.forEach((type, count) -> created.merge(type, count, Integer::sum));
+		});
+		testEntityManager.clear();
+
+		assertEquals(List.of(2, 1), chunks);
+		assertEquals(List.of(1, 1, 2, 2, 2, 3), List.copyOf(created.values()));
+
+		assertEquals(1, regionRepository.count());
+		// same sub county name below another county is another sub county
+		assertEquals(2, subCountyRepository.count());
+		assertEquals(3, parishRepository.count());
+
+		// names match whatever their case and surrounding spaces, rows without a parish stop at their sub county
+		uploadPipeline.run(file("rows.csv", """
+				REGION,SUB_REGION,LOCAL_GOVERNMENT,COUNTY,SUB_COUNTY,PARISH,NOTES
+				 CENTRAL,buganda ,KAMPALA,kampala central,central division,NAKASERO,
+				Central,Buganda,Kampala,Kampala Central,Central Division,Kisenyi,new
+				Central,Buganda,Kampala,Kampala Central,Central Division,,
+				"""), UploadFormat.CSV, (rows, chunkCreated) -> {
+		});
+		testEntityManager.clear();
+
+		assertEquals(1, regionRepository.count());
+		assertEquals(2, subCountyRepository.count());
+		assertEquals(4, parishRepository.count());
+
+		List<Parish> parishes = parishRepository.findAll().stream().filter(parish -> parish.getName().equals("Kisenyi")).toList();
+		assertEquals("Kampala Central", parishes.get(0).getSubCounty().getCounty().getName());
+	}
+
+	@Test
+	void childrenFindParentsCreatedByEarlierChunks() throws IOException {
+		StringBuilder json = new StringBuilder("[");
+		for (int i = 0; i < 9; i++) {
+			json.append(i == 0 ? "" : ",").append("{\"REGION\": \"North\", \"SUB_REGION\": \"Acholi\", \"LOCAL_GOVERNMENT\": \"Gulu\", \"COUNTY\": \"Aswa\", \"SUB_COUNTY\": \"Bobi\", \"PARISH\": \"P")
+					.append(i).append("\"}");
+		}
+		uploadPipeline.run(file("rows.json", json.append(']').toString()), UploadFormat.JSON, (rows, created) -> {
+		});
+		testEntityManager.clear();
+
+		assertEquals(1, subCountyRepository.count());
+		assertEquals(9, parishRepository.count());
+	}
+
+	@Test
+	void rejectsUniqueNamesUnderAnotherParent() throws IOException {
+		uploadPipeline.run(file("rows.json", """
+				[{"REGION": "North", "SUB_REGION": "Acholi", "LOCAL_GOVERNMENT": "Gulu"}]
+				"""), UploadFormat.JSON, (rows, created) -> {
+		});
+
+		// an existing local government, and a sub region repeated under two regions within the file
+		Path existing = file("existing.json", """
+				[{"REGION": "North", "SUB_REGION": "Lango", "LOCAL_GOVERNMENT": "gulu"}]
+				""");
+		InvalidException e = assertThrows(InvalidException.class, () -> uploadPipeline.run(existing, UploadFormat.JSON, (rows, created) -> {
+		}));
+		assertEquals("Invalid upload: LOCAL GOVERNMENT gulu already exists outside SUB REGION Lango", e.getMessage());
+		Path repeated = file("repeated.json", """
+				[{"REGION": "East", "SUB_REGION": "Busoga"}, {"REGION": "West", "SUB_REGION": "Busoga"}]
+				""");
+		assertThrows(InvalidException.class, () -> uploadPipeline.run(repeated, UploadFormat.JSON, (rows, created) -> {
+		}));
+		testEntityManager.clear();
+
+		assertEquals(1, regionRepository.count());
+		assertEquals(1, localGovernmentRepository.count());
+	}
+
+	@Test
+	void rejectsMalformedFiles() throws IOException {
+		Path file = file("rows.json", "[{\"REGION\": \"North\"}, {\"REGION\": ");
+		assertThrows(InvalidException.class, () -> uploadPipeline.run(file, UploadFormat.JSON, (rows, created) -> {
+		}));
+	}
+
+	@Test
+	void readsXlsxSheets() throws IOException {
+		Path file = directory.resolve("rows.xlsx");
+		try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+			Sheet sheet = workbook.createSheet();
+			// columns in another order, spaces in the names, an extra column and a skipped cell
+			String[][] rows = {
+					{"Notes", "SUB REGION", "REGION", "LOCAL_GOVERNMENT", "COUNTY", "SUB_COUNTY", "PARISH"},
+					{"first", "Acholi", "North", "Gulu", "Aswa", "Bobi", "Lalogi"},
+					{null, "Acholi", "North", "Gulu", "Aswa", "Bobi", "Paibona"},
+					{null, "Lango", "North", "Lira", null, "Ogur", null}};
+			for (int r = 0; r < rows.length; r++) {
+				Row row = sheet.createRow(r);
+				for (int c = 0; c < rows[r].length; c++) {
+					if (rows[r][c] != null) {
+						row.createCell(c).setCellValue(rows[r][c]);
+					}
+				}
+			}
+			workbook.write(out);
+		}
+
+		List<Integer> chunks = new ArrayList<>();
+		uploadPipeline.run(file, UploadFormat.XLSX, (rows, created) -> chunks.add(rows));
+		testEntityManager.clear();
+
+		assertEquals(List.of(2, 1), chunks);
+		assertEquals(1, regionRepository.count());
+		assertEquals(1, subCountyRepository.count());
+		assertEquals(2, parishRepository.count());
+	}
+
+	@Test
+	void rejectsFilesThatAreNotWorkbooks() throws IOException {
+		Path file = file("rows.xlsx", "REGION\nNorth\n");
+		assertThrows(InvalidException.class, () -> uploadPipeline.run(file, UploadFormat.XLSX, (rows, created) -> {
+		}));
+	}
+
+	private Path file(String name, String content) throws IOException {
+		return Files.writeString(directory.resolve(name), content);
+	}
+}
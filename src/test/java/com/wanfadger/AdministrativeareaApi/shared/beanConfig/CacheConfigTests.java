@@ -0,0 +1,25 @@
+package com.wanfadger.AdministrativeareaApi.shared.beanConfig;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.jedis.JedisClientConfiguration;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CacheConfigTests {
+
+	@Test
+	void redisConnectionsUseTheConfiguredTimeouts() {
+		CacheConfig cacheConfig = new CacheConfig();
+		cacheConfig.host = "localhost";
+		cacheConfig.port = 6379;
+		cacheConfig.connectTimeout = Duration.ofMillis(200);
+		cacheConfig.readTimeout = Duration.ofMillis(300);
+
+		JedisClientConfiguration clientConfiguration = cacheConfig.jedisConnectionFactory().getClientConfiguration();
+
+		assertEquals(Duration.ofMillis(200), clientConfiguration.getConnectTimeout());
+		assertEquals(Duration.ofMillis(300), clientConfiguration.getReadTimeout());
+	}
+}
@@ -0,0 +1,57 @@
+package com.wanfadger.AdministrativeareaApi.shared.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class CacheGenerationsTests {
+
+	private static final String NAME = "getParishByPartOf";
+	private static final String KEY = CacheGenerations.KEY_PREFIX + NAME;
+
+	private final StringRedisTemplate stringRedisTemplate = mock();
+	private final ValueOperations<String, String> valueOperations = mock();
+
+	@BeforeEach
+	void setUp() {
+		when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+	}
+
+	@Test
+	void readsTheGenerationOnceWithinTheTtl() {
+		when(valueOperations.get(KEY)).thenReturn("3");
+		CacheGenerations cacheGenerations = new CacheGenerations(stringRedisTemplate, 60_000);
+
+		assertEquals(3L, cacheGenerations.generation(NAME));
+		assertEquals(3L, cacheGenerations.generation(NAME));
+		verify(valueOperations, times(1)).get(KEY);
+	}
+
+	@Test
+	void picksUpAClearItDidNotHearAboutOnceTheTtlIsOver() {
+		when(valueOperations.get(KEY)).thenReturn("3", "4");
+		CacheGenerations cacheGenerations = new CacheGenerations(stringRedisTemplate, 0);
+
+		assertEquals(3L, cacheGenerations.generation(NAME));
+		// another instance incremented, its message never arrived
+		assertEquals(4L, cacheGenerations.generation(NAME));
+	}
+
+	@Test
+	void aReadRacingWithALocalClearDoesNotTakeTheOldGenerationBack() {
+		CacheGenerations cacheGenerations = new CacheGenerations(stringRedisTemplate, 60_000);
+		when(valueOperations.increment(KEY)).thenReturn(5L);
+		// the clear lands while the GET is on its way back, the map is not locked meanwhile
+		when(valueOperations.get(KEY)).thenAnswer(invocation -> {
+			cacheGenerations.increment(NAME);
+			return "4";
+		});
+
+		assertEquals(5L, cacheGenerations.generation(NAME));
+		assertEquals(5L, cacheGenerations.generation(NAME));
+	}
+}
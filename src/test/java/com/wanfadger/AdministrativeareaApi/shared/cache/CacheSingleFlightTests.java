@@ -0,0 +1,151 @@
+package com.wanfadger.AdministrativeareaApi.shared.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// the probe reads a map standing in for the cache, the loader fills it like TwoTierCache does
+class CacheSingleFlightTests {
+
+	private static final String NAME = "getParishByPartOf";
+	private static final String KEY = "SUBCOUNTY:sc1";
+	private static final String LOCK = CacheSingleFlight.LOCK_PREFIX + NAME + ":" + KEY;
+
+	private final StringRedisTemplate stringRedisTemplate = mock();
+	private final ValueOperations<String, String> valueOperations = mock();
+	private final Map<String, Object> cached = new ConcurrentHashMap<>();
+	private final Supplier<Cache.ValueWrapper> probe = () -> cached.containsKey(KEY) ? new SimpleValueWrapper(cached.get(KEY)) : null;
+
+	private CacheSingleFlight cacheSingleFlight;
+
+	@BeforeEach
+	void setUp() {
+		when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+		cacheSingleFlight = new CacheSingleFlight(stringRedisTemplate, new RedisCircuitBreaker(1, 0, new SimpleMeterRegistry()));
+		ReflectionTestUtils.setField(cacheSingleFlight, "lockTtlMs", 5000L);
+		ReflectionTestUtils.setField(cacheSingleFlight, "pollIntervalMs", 10L);
+	}
+
+	@Test
+	void concurrentMissesOnTheSameKeyLoadOnce() throws Exception {
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		Callable<Object> loader = () -> {
+			loads.incrementAndGet();
+			release.await();
+			cached.put(KEY, "Kawempe");
+			return "Kawempe";
+		};
+
+		List<Future<Object>> callers = new ArrayList<>();
+		try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+			CountDownLatch started = new CountDownLatch(8);
+			for (int i = 0; i < 8; i++) {
+				callers.add(executor.submit(() -> {
+					started.countDown();
+					return cacheSingleFlight.load(NAME, KEY, probe, loader);
+				}));
+			}
+			started.await();
+			Thread.sleep(100);
+			release.countDown();
+
+			for (Future<Object> caller : callers) {
+				assertEquals("Kawempe", caller.get(5, TimeUnit.SECONDS));
+			}
+		}
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void waitersGetTheLoadersFailure() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+			Future<Object> owner = executor.submit(() -> cacheSingleFlight.load(NAME, KEY, probe, () -> {
+				loading.countDown();
+				release.await();
+				throw new IllegalStateException("connection reset");
+			}));
+			loading.await();
+			Future<Object> waiter = executor.submit(() -> cacheSingleFlight.load(NAME, KEY, probe, () -> fail("loaded twice")));
+			Thread.sleep(100);
+			release.countDown();
+
+			assertInstanceOf(IllegalStateException.class, assertThrows(ExecutionException.class, () -> owner.get(5, TimeUnit.SECONDS)).getCause());
+			assertInstanceOf(IllegalStateException.class, assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS)).getCause());
+		}
+	}
+
+	@Test
+	void aLoadAfterTheFlightLandedReadsTheCache() throws Exception {
+		cached.put(KEY, "Kawempe");
+
+		assertEquals("Kawempe", cacheSingleFlight.load(NAME, KEY, probe, () -> fail("loaded while cached")));
+	}
+
+	@Test
+	void theLockHolderReleasesItsOwnLockOnly() throws Exception {
+		ReflectionTestUtils.setField(cacheSingleFlight, "distributedLock", true);
+		when(valueOperations.setIfAbsent(eq(LOCK), anyString(), eq(Duration.ofMillis(5000)))).thenReturn(true);
+
+		assertEquals("Kawempe", cacheSingleFlight.load(NAME, KEY, probe, () -> "Kawempe"));
+
+		ArgumentCaptor<String> token = ArgumentCaptor.forClass(String.class);
+		verify(valueOperations).setIfAbsent(eq(LOCK), token.capture(), any(Duration.class));
+		// the unlock script deletes the key only while it still holds this token
+		verify(stringRedisTemplate).execute(any(RedisScript.class), eq(List.of(LOCK)), eq(token.getValue()));
+	}
+
+	@Test
+	void anotherInstancesLockIsWaitedOnAndLeftAlone() throws Exception {
+		ReflectionTestUtils.setField(cacheSingleFlight, "distributedLock", true);
+		when(valueOperations.setIfAbsent(eq(LOCK), anyString(), any(Duration.class))).thenAnswer(invocation -> {
+			// the other instance writes the value to redis while we poll
+			cached.put(KEY, "Kawempe");
+			return false;
+		});
+
+		assertEquals("Kawempe", cacheSingleFlight.load(NAME, KEY, probe, () -> fail("loaded while locked")));
+		verify(stringRedisTemplate, never()).execute(any(RedisScript.class), any(), any());
+	}
+
+	@Test
+	void aLockHeldPastItsTtlIsLoadedAroundWithoutUnlocking() throws Exception {
+		ReflectionTestUtils.setField(cacheSingleFlight, "distributedLock", true);
+		ReflectionTestUtils.setField(cacheSingleFlight, "lockTtlMs", 50L);
+		when(valueOperations.setIfAbsent(eq(LOCK), anyString(), any(Duration.class))).thenReturn(false);
+
+		assertEquals("Kawempe", cacheSingleFlight.load(NAME, KEY, probe, () -> "Kawempe"));
+		verify(stringRedisTemplate, never()).execute(any(RedisScript.class), any(), any());
+	}
+
+	@Test
+	void withoutRedisTheLockIsTakenForGranted() throws Exception {
+		ReflectionTestUtils.setField(cacheSingleFlight, "distributedLock", true);
+		when(valueOperations.setIfAbsent(eq(LOCK), anyString(), any(Duration.class))).thenThrow(new IllegalStateException("redis down"));
+
+		assertEquals("Kawempe", cacheSingleFlight.load(NAME, KEY, probe, () -> "Kawempe"));
+	}
+}
@@ -0,0 +1,97 @@
+package com.wanfadger.AdministrativeareaApi.shared.cache;
+
+import com.wanfadger.AdministrativeareaApi.dto.*;
+import com.wanfadger.AdministrativeareaApi.shared.reponses.AdministrativeAreaResponseDto;
+import com.wanfadger.AdministrativeareaApi.shared.reponses.RenderedResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CacheValueSerializersTests {
+
+	private static final List<String> SERIALIZERS = List.of(CacheValueSerializers.JDK, CacheValueSerializers.JSON, CacheValueSerializers.COMPACT);
+
+	@Test
+	void roundTrip() {
+		AdministrativeAreaResponseDto<List<ParishDto>> response = parishes(50);
+		for (String name : SERIALIZERS) {
+			RedisSerializer<Object> serializer = CacheValueSerializers.of(name, 1024);
+			assertEquals(response, serializer.deserialize(serializer.serialize(response)), name);
+		}
+	}
+
+	@Test
+	void roundTripRenderedResponse() {
+		RenderedResponse renderedResponse = new RenderedResponse("{\"data\":[],\"message\":\"success\",\"status\":true}".getBytes(StandardCharsets.UTF_8));
+		for (String name : SERIALIZERS) {
+			RedisSerializer<Object> serializer = CacheValueSerializers.of(name, 1024);
+			assertEquals(renderedResponse, serializer.deserialize(serializer.serialize(renderedResponse)), name);
+		}
+	}
+
+	// mvn test -Dtest=CacheValueSerializersTests -Dbenchmark=true
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	void benchmark() {
+		AdministrativeAreaResponseDto<List<ParishDto>> response = parishes(2000);
+		int iterations = 200;
+
+		for (String name : SERIALIZERS) {
+			RedisSerializer<Object> serializer = CacheValueSerializers.of(name, 1024);
+			byte[] bytes = serializer.serialize(response);
+
+			// warm up
+			for (int i = 0; i < iterations; i++) {
+				serializer.deserialize(serializer.serialize(response));
+			}
+
+			long start = System.nanoTime();
+			for (int i = 0; i < iterations; i++) {
+				serializer.serialize(response);
+			}
+			long serializeNs = (System.nanoTime() - start) / iterations;
+
+			start = System.nanoTime();
+			for (int i = 0; i < iterations; i++) {
+				serializer.deserialize(bytes);
+			}
+			long deserializeNs = (System.nanoTime() - start) / iterations;
+
+			System.out.printf("%-8s %10d bytes %12d ns/op serialize %12d ns/op deserialize%n", name, bytes.length, serializeNs, deserializeNs);
+		}
+	}
+
+	private static AdministrativeAreaResponseDto<List<ParishDto>> parishes(int count) {
+		RegionDto region = new RegionDto();
+		fill(region, "REG-1", "CENTRAL");
+		SubRegionDto subRegion = new SubRegionDto(region);
+		fill(subRegion, "SRG-1", "BUGANDA");
+		LocalGovernmentDto localGovernment = new LocalGovernmentDto(subRegion);
+		fill(localGovernment, "LG-1", "KAMPALA");
+
+		List<ParishDto> parishes = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			CountyDto county = new CountyDto(localGovernment);
+			fill(county, "CTY-" + i / 100, "COUNTY " + i / 100);
+			SubCountyDto subCounty = new SubCountyDto(county);
+			fill(subCounty, "SCT-" + i / 10, "SUB COUNTY " + i / 10);
+			ParishDto parish = new ParishDto(subCounty);
+			fill(parish, "PAR-" + i, "PARISH " + i);
+			parishes.add(parish);
+		}
+		return new AdministrativeAreaResponseDto<>(parishes.stream().toList());
+	}
+
+	private static void fill(AdministrativeAreaDto dto, String code, String name) {
+		dto.setCode(code);
+		dto.setName(name);
+		dto.setLatitude("0.3476");
+		dto.setLongitude("32.5825");
+	}
+}
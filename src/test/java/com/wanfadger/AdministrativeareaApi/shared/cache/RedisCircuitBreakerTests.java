@@ -0,0 +1,106 @@
+package com.wanfadger.AdministrativeareaApi.shared.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisCircuitBreakerTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void opensAfterTheFailureThresholdAndSkipsRedisWhileOpen() {
+		RedisCircuitBreaker breaker = new RedisCircuitBreaker(3, 60_000, meterRegistry);
+
+		assertEquals("fallback", breaker.call("get", this::fail, () -> "fallback"));
+		assertEquals("fallback", breaker.call("get", this::fail, () -> "fallback"));
+		assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.getState());
+		assertEquals("fallback", breaker.call("get", this::fail, () -> "fallback"));
+		assertEquals(RedisCircuitBreaker.State.OPEN, breaker.getState());
+
+		AtomicInteger calls = new AtomicInteger();
+		assertEquals("fallback", breaker.call("get", () -> "redis" + calls.incrementAndGet(), () -> "fallback"));
+		assertEquals(0, calls.get());
+		assertEquals(3, meterRegistry.counter("cache.redis.errors", "operation", "get").count());
+		assertEquals(2, meterRegistry.get("cache.redis.circuit.state").gauge().value());
+	}
+
+	@Test
+	void aSuccessResetsTheConsecutiveFailures() {
+		RedisCircuitBreaker breaker = new RedisCircuitBreaker(2, 60_000, meterRegistry);
+
+		breaker.call("get", this::fail, () -> null);
+		assertEquals("redis", breaker.call("get", () -> "redis", () -> "fallback"));
+		breaker.call("get", this::fail, () -> null);
+
+		assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.getState());
+	}
+
+	@Test
+	void timeoutsCountAsFailures() {
+		RedisCircuitBreaker breaker = new RedisCircuitBreaker(1, 60_000, meterRegistry);
+
+		assertEquals("fallback", breaker.call("get", () -> {
+			throw new QueryTimeoutException("Redis command timed out");
+		}, () -> "fallback"));
+
+		assertEquals(RedisCircuitBreaker.State.OPEN, breaker.getState());
+	}
+
+	@Test
+	void aSuccessfulTrialAfterTheOpenDurationCloses() {
+		RedisCircuitBreaker breaker = new RedisCircuitBreaker(1, 0, meterRegistry);
+		breaker.call("get", this::fail, () -> null);
+		assertEquals(RedisCircuitBreaker.State.OPEN, breaker.getState());
+
+		assertEquals("redis", breaker.call("get", () -> "redis", () -> "fallback"));
+
+		assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.getState());
+		assertEquals(1, meterRegistry.counter("cache.redis.circuit.transitions", "from", "HALF_OPEN", "to", "CLOSED").count());
+	}
+
+	@Test
+	void aFailedTrialOpensAgain() {
+		RedisCircuitBreaker breaker = new RedisCircuitBreaker(1, 0, meterRegistry);
+		breaker.call("get", this::fail, () -> null);
+
+		assertEquals("fallback", breaker.call("get", this::fail, () -> "fallback"));
+
+		assertEquals(RedisCircuitBreaker.State.OPEN, breaker.getState());
+		assertEquals(1, meterRegistry.counter("cache.redis.circuit.transitions", "from", "HALF_OPEN", "to", "OPEN").count());
+	}
+
+	@Test
+	void onlyOneTrialAtATimeWhileHalfOpen() {
+		RedisCircuitBreaker breaker = new RedisCircuitBreaker(1, 0, meterRegistry);
+		breaker.call("get", this::fail, () -> null);
+
+		String trial = breaker.call("get", () -> {
+			assertEquals(RedisCircuitBreaker.State.HALF_OPEN, breaker.getState());
+			// a second caller during the trial does not reach redis
+			return breaker.call("get", () -> "second", () -> "fallback");
+		}, () -> "trial skipped");
+
+		assertEquals("fallback", trial);
+		assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.getState());
+	}
+
+	@Test
+	void runSwallowsTheFailure() {
+		RedisCircuitBreaker breaker = new RedisCircuitBreaker(1, 60_000, meterRegistry);
+
+		assertDoesNotThrow(() -> breaker.run("evict", () -> {
+			throw new RedisConnectionFailureException("down");
+		}));
+		assertEquals(RedisCircuitBreaker.State.OPEN, breaker.getState());
+	}
+
+	private String fail() {
+		throw new RedisConnectionFailureException("down");
+	}
+}
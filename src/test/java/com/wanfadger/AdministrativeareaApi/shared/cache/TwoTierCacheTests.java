@@ -0,0 +1,157 @@
+package com.wanfadger.AdministrativeareaApi.shared.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// the remote tier is a map standing in for redis, the invalidation bus is real and publishes to a mocked template
+class TwoTierCacheTests {
+
+	private static final String NAME = "getParishByPartOf";
+
+	private final StringRedisTemplate stringRedisTemplate = mock();
+	private final ValueOperations<String, String> valueOperations = mock();
+
+	private RedisCircuitBreaker redisCircuitBreaker;
+	private CacheGenerations cacheGenerations;
+	private CacheInvalidationBus cacheInvalidationBus;
+	private Cache remote;
+	private Cache cache;
+
+	@BeforeEach
+	void setUp() {
+		when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+		ConcurrentMapCacheManager remoteManager = new ConcurrentMapCacheManager();
+		// opens on the first failure, every later call is the half open trial
+		redisCircuitBreaker = new RedisCircuitBreaker(1, 0, new SimpleMeterRegistry());
+		cacheGenerations = new CacheGenerations(stringRedisTemplate, 60_000);
+		cacheInvalidationBus = new CacheInvalidationBus(stringRedisTemplate, new ObjectMapper(), cacheGenerations, redisCircuitBreaker);
+		TwoTierCacheManager cacheManager = new TwoTierCacheManager(remoteManager, 100, Duration.ofMinutes(10), cacheInvalidationBus, cacheGenerations, new CacheSingleFlight(stringRedisTemplate, redisCircuitBreaker), redisCircuitBreaker);
+		cacheManager.afterPropertiesSet();
+		remote = remoteManager.getCache(NAME);
+		cache = cacheManager.getCache(NAME);
+	}
+
+	@Test
+	void readsThroughToRedisAndKeepsALocalCopy() {
+		remote.put("R1", "North");
+
+		assertEquals("North", cache.get("R1").get());
+		remote.evict("R1");
+		assertEquals("North", cache.get("R1").get());
+		assertNull(cache.get("R2"));
+	}
+
+	@Test
+	void putWritesBothTiers() {
+		cache.put("R1", "North");
+
+		assertEquals("North", remote.get("R1").get());
+		remote.evict("R1");
+		assertEquals("North", cache.get("R1", String.class));
+	}
+
+	@Test
+	void missesAreLoadedAndStoredInBothTiers() {
+		assertEquals("North", cache.get("R1", () -> "North"));
+
+		assertEquals("North", remote.get("R1").get());
+		assertEquals("North", cache.get("R1", () -> fail("loaded twice")));
+	}
+
+	@Test
+	void evictDropsBothTiersAndTellsTheOtherInstances() {
+		cache.put("R1", "North");
+
+		cache.evict("R1");
+
+		assertNull(remote.get("R1"));
+		assertNull(cache.get("R1"));
+		verify(stringRedisTemplate).convertAndSend(eq(CacheInvalidationBus.CHANNEL), contains("\"key\":\"R1\""));
+	}
+
+	@Test
+	void clearMovesToTheNextGenerationAndTellsTheOtherInstances() {
+		when(valueOperations.increment(CacheGenerations.KEY_PREFIX + NAME)).thenReturn(1L);
+		cache.put("R1", "North");
+
+		cache.clear();
+		// the redis keys of the old generation are no longer addressed
+		remote.clear();
+
+		assertEquals(1L, cacheGenerations.generation(NAME));
+		assertNull(cache.get("R1"));
+		verify(stringRedisTemplate).convertAndSend(eq(CacheInvalidationBus.CHANNEL), contains("\"key\":null"));
+	}
+
+	@Test
+	void clearWhileRedisIsDownKeepsTheOldGenerationUnreadUntilTheIncrementGetsThrough() {
+		remote.put("R1", "stale");
+		when(valueOperations.increment(CacheGenerations.KEY_PREFIX + NAME)).thenThrow(new RedisConnectionFailureException("down"));
+
+		cache.clear();
+		assertNull(cache.get("R1"));
+		cache.put("R2", "fresh");
+		assertNull(remote.get("R2"));
+		assertTrue(cacheGenerations.isClearPending(NAME));
+
+		reset(valueOperations);
+		when(valueOperations.increment(CacheGenerations.KEY_PREFIX + NAME)).thenReturn(1L);
+		cache.put("R3", "fresh");
+
+		assertFalse(cacheGenerations.isClearPending(NAME));
+		assertEquals(1L, cacheGenerations.generation(NAME));
+		assertNotNull(remote.get("R3"));
+		// once on the clear itself, once more when the increment got through
+		verify(stringRedisTemplate, times(2)).convertAndSend(eq(CacheInvalidationBus.CHANNEL), contains("\"key\":null"));
+	}
+
+	@Test
+	void unreachableRedisFallsBackToTheLoader() {
+		Cache failingRemote = mock();
+		when(failingRemote.getName()).thenReturn(NAME);
+		when(failingRemote.get(any())).thenThrow(new RedisConnectionFailureException("down"));
+		doThrow(new RedisConnectionFailureException("down")).when(failingRemote).put(any(), any());
+		TwoTierCache failingCache = new TwoTierCache(failingRemote, Caffeine.newBuilder().build(), cacheInvalidationBus, cacheGenerations, new CacheSingleFlight(stringRedisTemplate, redisCircuitBreaker), redisCircuitBreaker);
+
+		assertEquals("North", failingCache.get("R1", () -> "North"));
+		assertEquals(RedisCircuitBreaker.State.OPEN, redisCircuitBreaker.getState());
+		// kept locally even though redis did not take it
+		assertEquals("North", failingCache.get("R1", () -> fail("loaded twice")));
+	}
+
+	@Test
+	void invalidationsOfOtherInstancesDropTheLocalCopy() {
+		cache.put("R1", "North");
+		cache.put("R2", "West");
+		remote.clear();
+
+		cacheInvalidationBus.onMessage(message("{\"nodeId\":\"other\",\"cacheName\":\"" + NAME + "\",\"key\":\"R1\"}"), null);
+		assertNull(cache.get("R1"));
+		assertEquals("West", cache.get("R2", String.class));
+
+		cacheInvalidationBus.onMessage(message("{\"nodeId\":\"other\",\"cacheName\":\"" + NAME + "\",\"key\":null}"), null);
+		assertNull(cache.get("R2"));
+	}
+
+	private static DefaultMessage message(String body) {
+		return new DefaultMessage(CacheInvalidationBus.CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,41 @@
+package com.wanfadger.AdministrativeareaApi.shared.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DbTaskExecutorTests {
+
+	@Test
+	void runsAtMostMaxConcurrencyTasksAtOnce() {
+		DbTaskExecutor executor = new DbTaskExecutor(3);
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger peak = new AtomicInteger();
+		List<Callable<Integer>> tasks = new ArrayList<>();
+		IntStream.range(0, 20).forEach(i -> tasks.add(() -> {
+			peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+			Thread.sleep(10);
+			running.decrementAndGet();
+			return i;
+		}));
+
+		assertEquals(IntStream.range(0, 20).boxed().toList(), executor.invokeAll(tasks));
+		assertTrue(peak.get() <= 3, "peak " + peak.get());
+	}
+
+	@Test
+	void rethrowsTheFailureOfATask() {
+		DbTaskExecutor executor = new DbTaskExecutor(2);
+		assertThrows(IllegalArgumentException.class, () -> executor.invokeAll(List.<Callable<Integer>>of(() -> 1, () -> {
+			throw new IllegalArgumentException("no connection");
+		})));
+	}
+}
@@ -0,0 +1,32 @@
+package com.wanfadger.AdministrativeareaApi.shared.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AreaCodeGeneratorTests {
+
+	@Test
+	void bulkCodesAreUniqueAndOrdered() {
+		// more than the 4096 codes one millisecond can hold
+		List<String> codes = AreaCodeGenerator.next(20_000);
+
+		assertEquals(codes.size(), new HashSet<>(codes).size());
+		for (int i = 1; i < codes.size(); i++) {
+			assertTrue(codes.get(i - 1).compareTo(codes.get(i)) < 0, codes.get(i));
+		}
+	}
+
+	@Test
+	void codesAreVersion7Uuids() {
+		UUID uuid = UUID.fromString(AreaCodeGenerator.next());
+		assertEquals(7, uuid.version());
+		assertEquals(2, uuid.variant());
+		assertTrue(Math.abs(System.currentTimeMillis() - (uuid.getMostSignificantBits() >>> 16)) < 60_000);
+	}
+}
@@ -0,0 +1,62 @@
+package com.wanfadger.AdministrativeareaApi.shared.util;
+
+import com.wanfadger.AdministrativeareaApi.shared.administrativeareaexceptions.InvalidException;
+import org.junit.jupiter.api.Test;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetPageTests {
+
+	@Test
+	void onlyAfterOrLimitAskForAPage() {
+		assertFalse(KeysetPage.isRequested(Map.of("type", "PARISH", "partOf", "SC1")));
+		assertTrue(KeysetPage.isRequested(Map.of("type", "PARISH", "after", "P1")));
+		assertTrue(KeysetPage.isRequested(Map.of("type", "PARISH", "limit", "")));
+	}
+
+	@Test
+	void withoutAfterOrLimitThePageIsTheFirstOneOfTheDefaultSize() {
+		KeysetPage page = KeysetPage.of(Map.of("limit", " "), 100, 1000);
+
+		assertEquals("", page.getAfter());
+		assertEquals(100, page.getLimit());
+	}
+
+	@Test
+	void theLimitIsBoundedByOneAndTheMaximum() {
+		assertEquals(1, KeysetPage.of(Map.of("limit", "1"), 100, 1000).getLimit());
+		assertEquals(1000, KeysetPage.of(Map.of("limit", " 1000 "), 100, 1000).getLimit());
+		assertThrows(InvalidException.class, () -> KeysetPage.of(Map.of("limit", "0"), 100, 1000));
+		assertThrows(InvalidException.class, () -> KeysetPage.of(Map.of("limit", "1001"), 100, 1000));
+		assertThrows(InvalidException.class, () -> KeysetPage.of(Map.of("limit", "ten"), 100, 1000));
+	}
+
+	@Test
+	void generatedCodesSortTheSameByCompareToAndByALinguisticCollation() {
+		// stands in for a database whose code column uses a locale collation such as en_US.UTF-8
+		Collator collator = Collator.getInstance(Locale.US);
+		List<String> codes = new ArrayList<>(AreaCodeGenerator.next(500));
+		Collections.shuffle(codes);
+
+		List<String> byCompareTo = codes.stream().sorted().toList();
+		List<String> byCollation = codes.stream().sorted(collator).toList();
+
+		assertEquals(byCompareTo, byCollation);
+	}
+
+	@Test
+	void mixedCaseCodesDoNot() {
+		Collator collator = Collator.getInstance(Locale.US);
+		List<String> codes = List.of("a2", "B1");
+
+		assertEquals(List.of("B1", "a2"), codes.stream().sorted().toList());
+		assertEquals(List.of("a2", "B1"), codes.stream().sorted(collator).toList());
+	}
+}
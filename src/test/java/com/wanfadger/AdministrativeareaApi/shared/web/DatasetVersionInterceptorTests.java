@@ -0,0 +1,124 @@
+package com.wanfadger.AdministrativeareaApi.shared.web;
+
+import com.wanfadger.AdministrativeareaApi.controller.AdministrativeAreaController;
+import com.wanfadger.AdministrativeareaApi.dto.CodeNameDto;
+import com.wanfadger.AdministrativeareaApi.dto.UploadJobDto;
+import com.wanfadger.AdministrativeareaApi.service.administrativearea.AdministrativeAreaService;
+import com.wanfadger.AdministrativeareaApi.service.administrativearea.ListResponseService;
+import com.wanfadger.AdministrativeareaApi.service.datasetversion.DatasetVersionService;
+import com.wanfadger.AdministrativeareaApi.service.export.ExportService;
+import com.wanfadger.AdministrativeareaApi.service.upload.UploadJobService;
+import com.wanfadger.AdministrativeareaApi.shared.beanConfig.WebConfig;
+import com.wanfadger.AdministrativeareaApi.shared.reponses.AdministrativeAreaResponseDto;
+import com.wanfadger.AdministrativeareaApi.shared.reponses.RenderedResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AdministrativeAreaController.class)
+@Import({WebConfig.class, DatasetVersionInterceptor.class})
+class DatasetVersionInterceptorTests {
+
+	private static final long VERSION = 1_760_000_000_000L;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockBean
+	private DatasetVersionService datasetVersionService;
+
+	@MockBean
+	private ListResponseService listResponseService;
+
+	@MockBean
+	private AdministrativeAreaService administrativeAreaService;
+
+	@MockBean
+	private ExportService exportService;
+
+	@MockBean
+	private UploadJobService uploadJobService;
+
+	@BeforeEach
+	void setUp() {
+		when(datasetVersionService.current()).thenReturn(VERSION);
+		when(listResponseService.filterList(any())).thenReturn(new AdministrativeAreaResponseDto<>(List.of(new CodeNameDto("R1", "Central"))));
+	}
+
+	@Test
+	void getsAreTaggedWithTheDatasetVersion() throws Exception {
+		mockMvc.perform(get("/AdministrativeAreas/filterList").param("type", "REGION"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, DatasetVersionInterceptor.etag(VERSION)))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+				.andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+				.andExpect(jsonPath("$.data[0].code").value("R1"));
+	}
+
+	@Test
+	void aClientWithTheCurrentVersionGetsA304WithoutReachingTheController() throws Exception {
+		mockMvc.perform(get("/AdministrativeAreas/filterList").param("type", "REGION")
+						.header(HttpHeaders.IF_NONE_MATCH, DatasetVersionInterceptor.etag(VERSION)))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, DatasetVersionInterceptor.etag(VERSION)))
+				.andExpect(content().bytes(new byte[0]));
+
+		verifyNoInteractions(listResponseService);
+	}
+
+	@Test
+	void aClientWithAnOlderVersionGetsTheNewBody() throws Exception {
+		mockMvc.perform(get("/AdministrativeAreas/filterList").param("type", "REGION")
+						.header(HttpHeaders.IF_NONE_MATCH, DatasetVersionInterceptor.etag(VERSION - 1)))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, DatasetVersionInterceptor.etag(VERSION)));
+	}
+
+	@Test
+	void gzipBodiesCarryTheirOwnEtagAndAreRevalidatedByIt() throws Exception {
+		when(listResponseService.isRendered()).thenReturn(true);
+		byte[] body = "{\"data\":[]}".getBytes(StandardCharsets.UTF_8);
+		byte[] gzipBody = {31, -117, 8, 0};
+		when(listResponseService.filterListJson(any())).thenReturn(new RenderedResponse(body, gzipBody));
+
+		mockMvc.perform(get("/AdministrativeAreas/filterList").param("type", "REGION").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+				.andExpect(status().isOk())
+				.andExpect(header().stringValues(HttpHeaders.ETAG, DatasetVersionInterceptor.gzipEtag(VERSION)))
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andExpect(content().bytes(gzipBody));
+		// the identity body keeps the plain ETag, a cache must not hand one out for the other
+		mockMvc.perform(get("/AdministrativeAreas/filterList").param("type", "REGION"))
+				.andExpect(header().string(HttpHeaders.ETAG, DatasetVersionInterceptor.etag(VERSION)))
+				.andExpect(content().bytes(body));
+
+		mockMvc.perform(get("/AdministrativeAreas/filterList").param("type", "REGION").header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+						.header(HttpHeaders.IF_NONE_MATCH, DatasetVersionInterceptor.gzipEtag(VERSION)))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, DatasetVersionInterceptor.gzipEtag(VERSION)));
+		verify(listResponseService, times(2)).filterListJson(any());
+	}
+
+	@Test
+	void uploadStatusIsNeverAnsweredFromTheDatasetVersion() throws Exception {
+		when(uploadJobService.status("job-1")).thenReturn(new AdministrativeAreaResponseDto<>(new UploadJobDto()));
+
+		mockMvc.perform(get("/AdministrativeAreas/upload/job-1").header(HttpHeaders.IF_NONE_MATCH, DatasetVersionInterceptor.etag(VERSION)))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.ETAG));
+
+		verifyNoInteractions(datasetVersionService);
+	}
+}
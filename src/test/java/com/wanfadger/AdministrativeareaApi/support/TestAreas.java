@@ -0,0 +1,26 @@
+package com.wanfadger.AdministrativeareaApi.support;
+
+import com.wanfadger.AdministrativeareaApi.entity.*;
+
+public final class TestAreas {
+
+	private TestAreas() {
+	}
+
+	// the code doubles as the name, the coordinates are the ones the DTOs expect to be set
+	public static <T extends BaseEntity> T area(T area, String code) {
+		area.setCode(code);
+		area.setLatitude(0.3476);
+		area.setLongitude(32.5825);
+		switch (area) {
+			case Region region -> region.setName(code);
+			case SubRegion subRegion -> subRegion.setName(code);
+			case LocalGovernment localGovernment -> localGovernment.setName(code);
+			case County county -> county.setName(code);
+			case SubCounty subCounty -> subCounty.setName(code);
+			case Parish parish -> parish.setName(code);
+			default -> throw new IllegalArgumentException(area.getClass().getName());
+		}
+		return area;
+	}
+}